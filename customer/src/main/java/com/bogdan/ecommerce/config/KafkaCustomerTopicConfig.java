@@ -0,0 +1,17 @@
+package com.bogdan.ecommerce.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaCustomerTopicConfig {
+
+  @Bean
+  public NewTopic customerTopic() {
+    return TopicBuilder
+            .name("customer-topic")
+            .build();
+  }
+}
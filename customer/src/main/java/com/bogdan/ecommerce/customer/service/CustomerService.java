@@ -6,6 +6,8 @@ import com.bogdan.ecommerce.customer.entity.CustomerRequest;
 import com.bogdan.ecommerce.customer.entity.CustomerResponse;
 import com.bogdan.ecommerce.customer.mapper.CustomerMapper;
 import com.bogdan.ecommerce.exception.CustomerNotFoundException;
+import com.bogdan.ecommerce.kafka.CustomerChangeType;
+import com.bogdan.ecommerce.kafka.CustomerEventProducer;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.stereotype.Service;
@@ -19,6 +21,7 @@ public class CustomerService {
 
   private final CustomerRepository repository;
   private final CustomerMapper mapper;
+  private final CustomerEventProducer eventProducer;
 
   public String createCustomer(CustomerRequest request) {
     var customer = this.repository.save(mapper.toCustomer(request));
@@ -32,6 +35,7 @@ public class CustomerService {
         ));
     mergeCustomer(customer, request);
     this.repository.save(customer);
+    this.eventProducer.sendCustomerChanged(customer.getId(), CustomerChangeType.UPDATED);
   }
 
   private void mergeCustomer(Customer customer, CustomerRequest request) {
@@ -66,5 +70,6 @@ public class CustomerService {
 
   public void deleteCustomer(String id) {
     this.repository.deleteById(id);
+    this.eventProducer.sendCustomerChanged(id, CustomerChangeType.DELETED);
   }
 }
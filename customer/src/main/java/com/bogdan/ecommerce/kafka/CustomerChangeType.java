@@ -0,0 +1,7 @@
+package com.bogdan.ecommerce.kafka;
+
+public enum CustomerChangeType {
+
+  UPDATED,
+  DELETED
+}
@@ -0,0 +1,8 @@
+package com.bogdan.ecommerce.kafka;
+
+public record CustomerChangedEvent(
+    String customerId,
+    CustomerChangeType changeType
+) {
+
+}
@@ -0,0 +1,26 @@
+package com.bogdan.ecommerce.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerEventProducer {
+
+  private final KafkaTemplate<String, CustomerChangedEvent> kafkaTemplate;
+
+  /**
+   * Lets consumers that cache customers evict them early; a lost event only
+   * delays the change until their cache TTL expires.
+   */
+  public void sendCustomerChanged(String customerId, CustomerChangeType changeType) {
+    try {
+      kafkaTemplate.send("customer-topic", customerId, new CustomerChangedEvent(customerId, changeType));
+    } catch (RuntimeException e) {
+      log.warn("Cannot send customer change event for customer {}: {}", customerId, e.getMessage());
+    }
+  }
+}
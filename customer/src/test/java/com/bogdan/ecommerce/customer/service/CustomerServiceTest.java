@@ -7,6 +7,8 @@ import com.bogdan.ecommerce.customer.entity.CustomerResponse;
 import com.bogdan.ecommerce.customer.mapper.CustomerMapper;
 import com.bogdan.ecommerce.customer.repository.CustomerRepository;
 import com.bogdan.ecommerce.exception.CustomerNotFoundException;
+import com.bogdan.ecommerce.kafka.CustomerChangeType;
+import com.bogdan.ecommerce.kafka.CustomerEventProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -27,6 +29,9 @@ public class CustomerServiceTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private CustomerEventProducer customerEventProducer;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -80,6 +85,7 @@ public class CustomerServiceTest {
 
         // Assert
         verify(customerRepository, times(1)).save(customer);
+        verify(customerEventProducer, times(1)).sendCustomerChanged("1", CustomerChangeType.UPDATED);
     }
 
     @Test
@@ -92,6 +98,7 @@ public class CustomerServiceTest {
 
         // Act & Assert
         assertThrows(CustomerNotFoundException.class, () -> customerService.updateCustomer(request));
+        verifyNoInteractions(customerEventProducer);
     }
 
     @Test
@@ -195,5 +202,6 @@ public class CustomerServiceTest {
 
         // Assert
         verify(customerRepository, times(1)).deleteById("1");
+        verify(customerEventProducer, times(1)).sendCustomerChanged("1", CustomerChangeType.DELETED);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.bogdan.ecommerce.deadline;
+
+import feign.RequestInterceptor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts the request deadline from the incoming header and makes the Feign clients of
+ * the service send what is left of it downstream. Services whose Feign client is built
+ * by hand wrap it in a {@link DeadlineFeignClient} to shorten the read timeout as well.
+ */
+@AutoConfiguration
+public class DeadlineAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public DeadlineFilter deadlineFilter() {
+        return new DeadlineFilter();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class FeignDeadlineConfiguration {
+
+        @Bean
+        public RequestInterceptor deadlineRequestInterceptor() {
+            return template -> {
+                if (RequestDeadline.isSet()) {
+                    RequestDeadline.check("calling " + template.feignTarget().name());
+                    template.header(RequestDeadline.HEADER, String.valueOf(RequestDeadline.remainingMs()));
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.bogdan.ecommerce.deadline;
+
+/**
+ * Work was shed because the caller's deadline had already passed; services answer it
+ * with {@code 504}.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bogdan.ecommerce.deadline;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shortens the read timeout of every Feign call to the remaining request budget.
+ */
+public class DeadlineFeignClient implements Client {
+
+    private final Client delegate;
+
+    public DeadlineFeignClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!RequestDeadline.isSet()) {
+            return delegate.execute(request, options);
+        }
+        var readTimeoutMs = RequestDeadline.timeoutMs(options.readTimeoutUnit().toMillis(options.readTimeout()));
+        return delegate.execute(request, new Request.Options(
+                options.connectTimeout(),
+                options.connectTimeoutUnit(),
+                readTimeoutMs,
+                TimeUnit.MILLISECONDS,
+                options.isFollowRedirects()
+        ));
+    }
+}
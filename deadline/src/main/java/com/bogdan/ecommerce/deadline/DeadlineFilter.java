@@ -0,0 +1,54 @@
+package com.bogdan.ecommerce.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Starts the {@link RequestDeadline} of every request that carries one, and answers
+ * {@code 504} right away when the budget is already spent.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        var budgetMs = parseBudget(request.getHeader(RequestDeadline.HEADER));
+        if (budgetMs == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (budgetMs <= 0) {
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded");
+            return;
+        }
+        RequestDeadline.start(budgetMs);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    static Long parseBudget(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
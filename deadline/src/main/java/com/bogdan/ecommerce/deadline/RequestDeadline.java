@@ -0,0 +1,85 @@
+package com.bogdan.ecommerce.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of the request being served, exchanged between services in the
+ * {@value #HEADER} header.
+ * <p>
+ * The header carries the remaining budget in milliseconds rather than an instant, so
+ * hops do not depend on synchronized clocks: each service turns it into a local
+ * deadline on receipt and sends what is left of it downstream. Requests without the
+ * header have no deadline.
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(long budgetMs) {
+        DEADLINE_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /**
+     * Remaining budget in milliseconds, {@link Long#MAX_VALUE} when the request has no deadline.
+     */
+    public static long remainingMs() {
+        var deadline = DEADLINE_NANOS.get();
+        return deadline == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    public static boolean isExpired() {
+        return remainingMs() <= 0;
+    }
+
+    /**
+     * Sheds work the caller has already given up on.
+     */
+    public static void check(String work) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded before " + work);
+        }
+    }
+
+    /**
+     * The configured timeout of a downstream call, shortened to the remaining budget.
+     */
+    public static long timeoutMs(long configuredMs) {
+        return Math.max(Math.min(configuredMs, remainingMs()), 1);
+    }
+
+    /**
+     * Carries the deadline of the submitting thread into a task run on an executor.
+     */
+    public static Runnable propagate(Runnable task) {
+        var deadline = DEADLINE_NANOS.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            var previous = DEADLINE_NANOS.get();
+            DEADLINE_NANOS.set(deadline);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    DEADLINE_NANOS.remove();
+                } else {
+                    DEADLINE_NANOS.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.bogdan.ecommerce.deadline;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Target;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineAutoConfigurationTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DeadlineAutoConfiguration.class));
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void TestContext_WithFeign_ShouldSendRemainingBudget() {
+        contextRunner.run(context -> {
+            // Arrange
+            assertNotNull(context.getBean(DeadlineFilter.class));
+            var interceptor = context.getBean(RequestInterceptor.class);
+            var template = new RequestTemplate();
+            template.feignTarget(new Target.HardCodedTarget<>(Object.class, "product-service", "http://product"));
+            RequestDeadline.start(5000);
+
+            // Act
+            interceptor.apply(template);
+
+            // Assert
+            var sentBudget = Long.parseLong(template.headers().get(RequestDeadline.HEADER).iterator().next());
+            assertTrue(sentBudget > 0 && sentBudget <= 5000, "sent " + sentBudget);
+        });
+    }
+
+    @Test
+    public void TestContext_WithExpiredDeadline_ShouldNotCallDownstream() {
+        contextRunner.run(context -> {
+            // Arrange
+            var interceptor = context.getBean(RequestInterceptor.class);
+            var template = new RequestTemplate();
+            template.feignTarget(new Target.HardCodedTarget<>(Object.class, "product-service", "http://product"));
+            RequestDeadline.start(0);
+
+            // Act & Assert
+            assertThrows(DeadlineExceededException.class, () -> interceptor.apply(template));
+        });
+    }
+
+    @Test
+    public void TestContext_WithoutFeign_ShouldOnlyRegisterFilter() {
+        contextRunner
+                .withClassLoader(new FilteredClassLoader(RequestInterceptor.class))
+                .run(context -> {
+                    // Assert
+                    assertNotNull(context.getBean(DeadlineFilter.class));
+                    assertEquals(0, context.getBeanNamesForType(RequestInterceptor.class).length);
+                });
+    }
+}
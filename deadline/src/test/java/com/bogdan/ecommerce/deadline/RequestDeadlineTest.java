@@ -0,0 +1,89 @@
+package com.bogdan.ecommerce.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDeadlineTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void TestTimeoutMs_WithShortBudget_ShouldShortenConfiguredTimeout() {
+        // Arrange
+        RequestDeadline.start(500);
+
+        // Act
+        long timeoutMs = RequestDeadline.timeoutMs(2000);
+
+        // Assert
+        assertTrue(timeoutMs > 0 && timeoutMs <= 500, "timeout " + timeoutMs);
+        RequestDeadline.clear();
+        assertEquals(2000, RequestDeadline.timeoutMs(2000));
+    }
+
+    @Test
+    public void TestPropagate_WithExecutor_ShouldCarryDeadlineToTask() throws Exception {
+        // Arrange
+        var executor = Executors.newSingleThreadExecutor();
+        RequestDeadline.start(5000);
+        var seen = new AtomicLong();
+
+        // Act
+        try {
+            CompletableFuture.runAsync(RequestDeadline.propagate(() -> seen.set(RequestDeadline.remainingMs())), executor).get();
+            CompletableFuture.runAsync(() -> assertFalse(RequestDeadline.isSet()), executor).get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertTrue(seen.get() > 0 && seen.get() <= 5000, "seen " + seen.get());
+    }
+
+    @Test
+    public void TestDeadlineFilter_WithSpentBudget_ShouldShedRequest() throws Exception {
+        // Arrange
+        var request = new MockHttpServletRequest("POST", "/api/v1/orders");
+        request.addHeader(RequestDeadline.HEADER, "0");
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+
+        // Act
+        new DeadlineFilter().doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(504, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    public void TestDeadlineFilter_WithBudget_ShouldStartDeadlineForTheRequestOnly() throws Exception {
+        // Arrange
+        var request = new MockHttpServletRequest("POST", "/api/v1/orders");
+        request.addHeader(RequestDeadline.HEADER, "3000");
+        var seen = new AtomicLong();
+
+        // Act
+        new DeadlineFilter().doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> seen.set(RequestDeadline.remainingMs()));
+
+        // Assert
+        assertTrue(seen.get() > 0 && seen.get() <= 3000, "seen " + seen.get());
+        assertFalse(RequestDeadline.isSet());
+    }
+}
@@ -0,0 +1,64 @@
+package com.bogdan.gateway.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gives every routed request a time budget in the {@value #HEADER} header: the remaining
+ * milliseconds the caller is willing to wait. Downstream services shorten their own
+ * calls to it and shed work once it is spent.
+ * <p>
+ * A budget sent by the client is kept but capped; requests without one get the default.
+ * Requests whose budget is already spent are answered with {@code 504} right away.
+ */
+@Component
+public class DeadlineFilter implements GlobalFilter, Ordered {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private final long defaultTimeoutMs;
+    private final long maxTimeoutMs;
+
+    public DeadlineFilter(
+            @Value("${application.deadline.default-timeout-ms:10000}") long defaultTimeoutMs,
+            @Value("${application.deadline.max-timeout-ms:30000}") long maxTimeoutMs
+    ) {
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long budgetMs = budgetOf(exchange.getRequest().getHeaders().getFirst(HEADER));
+        if (budgetMs <= 0) {
+            exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+            return exchange.getResponse().setComplete();
+        }
+        var request = exchange.getRequest().mutate()
+                .headers(headers -> headers.set(HEADER, String.valueOf(budgetMs)))
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    long budgetOf(String header) {
+        if (header == null) {
+            return defaultTimeoutMs;
+        }
+        try {
+            return Math.min(Long.parseLong(header.trim()), maxTimeoutMs);
+        } catch (NumberFormatException e) {
+            return defaultTimeoutMs;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bogdan.ecommerce.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.MicrometerHttpRequestExecutor;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pooled, keep-alive HTTP client shared by the RestTemplate and every Feign client
+ * of a service (OpenFeign picks up the {@link CloseableHttpClient} bean instead of building
+ * its own, so this runs before the Feign auto-configuration). Responses are transparently
+ * gunzipped by the client.
+ */
+@AutoConfiguration(beforeName = "org.springframework.cloud.openfeign.FeignAutoConfiguration")
+public class HttpClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${application.http-client.max-connections:200}") int maxConnections,
+            @Value("${application.http-client.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${application.http-client.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${application.http-client.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${application.http-client.time-to-live-ms:60000}") long timeToLiveMs
+    ) {
+        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "inter-service")
+                .bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.http-client.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${application.http-client.idle-evict-ms:30000}") long idleEvictMs
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setRequestExecutor(MicrometerHttpRequestExecutor.builder(meterRegistry)
+                        .exportTagsForRoute(true)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEvictMs, TimeUnit.MILLISECONDS))
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.bogdan.ecommerce.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class HttpClientAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(HttpClientAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    public void TestContext_WithPoolSettings_ShouldShareOnePooledClient() {
+        contextRunner
+                .withPropertyValues(
+                        "application.http-client.max-connections=120",
+                        "application.http-client.max-connections-per-route=30"
+                )
+                .run(context -> {
+                    // Assert
+                    var connectionManager = context.getBean(PoolingHttpClientConnectionManager.class);
+                    assertEquals(120, connectionManager.getMaxTotal());
+                    assertEquals(30, connectionManager.getDefaultMaxPerRoute());
+                    assertNotNull(context.getBean(CloseableHttpClient.class));
+                    assertNotNull(context.getBean(MeterRegistry.class).find("httpcomponents.httpclient.pool.total.max").gauge());
+                });
+    }
+}
@@ -0,0 +1,48 @@
+package com.bogdan.ecommerce.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    @DependsOnDatabaseInitialization
+    @ConditionalOnExpression("${application.id-generator.node-id:-1} < 0")
+    public NodeIdLease nodeIdLease(
+            JdbcTemplate jdbcTemplate,
+            @Value("${spring.application.name}") String serviceName,
+            @Value("${application.id-generator.lease-ms:60000}") long leaseMs
+    ) {
+        return new NodeIdLease(jdbcTemplate, serviceName, leaseMs);
+    }
+
+    /**
+     * Uses {@code application.id-generator.node-id} when set, otherwise leases a node from
+     * the {@code id_generator_node} table; startup fails when neither yields one.
+     */
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(
+            @Value("${application.id-generator.node-id:-1}") long nodeId,
+            ObjectProvider<NodeIdLease> nodeIdLease
+    ) {
+        if (nodeId >= 0) {
+            log.info("Using configured id generator node {}", nodeId);
+            return new SnowflakeIdGenerator(nodeId);
+        }
+        return nodeIdLease.getObject().acquire();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeIdGeneratorCustomizer(SnowflakeIdGenerator snowflakeIdGenerator) {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.GENERATOR_SETTING, snowflakeIdGenerator);
+    }
+}
@@ -0,0 +1,128 @@
+package com.bogdan.ecommerce.id;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases a Snowflake node id from the {@code id_generator_node} table, so that no two
+ * running instances of a service generate ids with the same node.
+ * <p>
+ * The lowest node whose lease is free or expired is taken at startup and the lease is
+ * renewed well before it runs out. Once it cannot be shown to still be held, because
+ * the row was taken over after the lease expired or renewals kept failing for longer
+ * than the lease, the generator is revoked rather than risk duplicate ids. Lease times
+ * are the database's, so the clocks of the instances do not need to agree.
+ */
+@Slf4j
+public class NodeIdLease {
+
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    private static final String CLAIM = """
+            insert into id_generator_node (service_name, node_id, instance_id, lease_expires_at)
+            select ?, n, ?, now() + cast(? as interval)
+            from generate_series(0, ?) n
+            where not exists (
+                select 1 from id_generator_node g
+                where g.service_name = ? and g.node_id = n and g.lease_expires_at > now()
+            )
+            order by n
+            limit 1
+            on conflict (service_name, node_id) do update
+                set instance_id = excluded.instance_id, lease_expires_at = excluded.lease_expires_at
+                where id_generator_node.lease_expires_at <= now()
+            returning node_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String serviceName;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long leaseMs;
+    private volatile SnowflakeIdGenerator generator;
+    private volatile long renewedAtNanos;
+
+    public NodeIdLease(JdbcTemplate jdbcTemplate, String serviceName, long leaseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.serviceName = serviceName;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * @throws IllegalStateException when every node of the service is leased
+     */
+    public synchronized SnowflakeIdGenerator acquire() {
+        if (generator != null) {
+            return generator;
+        }
+        // a claim can lose the race for a free node to another instance, the next one tries another node
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            var claimed = jdbcTemplate.queryForList(CLAIM, Long.class,
+                    serviceName, instanceId, interval(), SnowflakeIdGenerator.MAX_NODE_ID, serviceName);
+            if (!claimed.isEmpty()) {
+                renewedAtNanos = System.nanoTime();
+                generator = new SnowflakeIdGenerator(claimed.get(0));
+                log.info("Leased id generator node {} of {} for instance {}", claimed.get(0), serviceName, instanceId);
+                return generator;
+            }
+        }
+        throw new IllegalStateException("No free id generator node for " + serviceName
+                + ", all " + (SnowflakeIdGenerator.MAX_NODE_ID + 1) + " are leased");
+    }
+
+    @Scheduled(fixedDelayString = "${application.id-generator.renew-interval-ms:20000}")
+    public void renew() {
+        var current = generator;
+        if (current == null) {
+            return;
+        }
+        try {
+            int renewed = jdbcTemplate.update("""
+                            update id_generator_node set lease_expires_at = now() + cast(? as interval)
+                            where service_name = ? and node_id = ? and instance_id = ?
+                            """,
+                    interval(), serviceName, current.getNodeId(), instanceId);
+            if (renewed == 0) {
+                revoke(current, "it was taken over by another instance");
+                return;
+            }
+            renewedAtNanos = System.nanoTime();
+        } catch (DataAccessException e) {
+            log.warn("Cannot renew id generator node {}: {}", current.getNodeId(), e.getMessage());
+            if (System.nanoTime() - renewedAtNanos > TimeUnit.MILLISECONDS.toNanos(leaseMs)) {
+                revoke(current, "its lease could not be renewed in time");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        var current = generator;
+        if (current == null) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(
+                    "delete from id_generator_node where service_name = ? and node_id = ? and instance_id = ?",
+                    serviceName, current.getNodeId(), instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Cannot release id generator node {}, it frees up when the lease expires: {}",
+                    current.getNodeId(), e.getMessage());
+        }
+    }
+
+    private void revoke(SnowflakeIdGenerator current, String reason) {
+        current.revoke();
+        log.error("Id generator node {} of {} is revoked because {}; restart this instance to lease a new one",
+                current.getNodeId(), serviceName, reason);
+    }
+
+    private String interval() {
+        return leaseMs + " milliseconds";
+    }
+}
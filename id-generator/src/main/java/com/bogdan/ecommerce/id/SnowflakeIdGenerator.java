@@ -0,0 +1,69 @@
+package com.bogdan.ecommerce.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free Snowflake-style generator of time-ordered 63-bit IDs:
+ * 41 bits of milliseconds since 2024-01-01, 10 bits of node and a 12-bit sequence.
+ * <p>
+ * The timestamp and sequence are kept in one atomic word. When the sequence of a
+ * millisecond is exhausted, or the wall clock moves backwards, the sequence simply
+ * carries into the timestamp, so IDs stay strictly increasing per node without ever
+ * blocking; the logical clock catches up with the wall clock once the load drops.
+ * <p>
+ * Uniqueness across instances rests on the node id, which must not be shared by two
+ * running instances; see {@link NodeIdLease}.
+ */
+public class SnowflakeIdGenerator {
+
+    static final long EPOCH_MS = 1704067200000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+    private volatile boolean revoked;
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        if (revoked) {
+            throw new IllegalStateException("Id generator node " + nodeId + " is no longer leased to this instance");
+        }
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MS;
+            long last = state.get();
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                        | nodeId << SEQUENCE_BITS
+                        | next & SEQUENCE_MASK;
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Stops handing out ids once the node may have been given to another instance.
+     */
+    public void revoke() {
+        revoked = true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bogdan.ecommerce.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. Uses the generator {@link IdGeneratorConfig} puts
+ * into the Hibernate settings, or one for an explicitly set node id, as in JPA test slices;
+ * there is no fallback, two instances must never guess the same node.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    public static final String GENERATOR_SETTING = "application.id-generator.generator";
+    public static final String NODE_ID_SETTING = "application.id-generator.node-id";
+
+    private final SnowflakeIdGenerator generator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        var settings = context.getServiceRegistry()
+                .getService(ConfigurationService.class)
+                .getSettings();
+        if (settings.get(GENERATOR_SETTING) instanceof SnowflakeIdGenerator shared) {
+            this.generator = shared;
+        } else if (settings.get(NODE_ID_SETTING) != null) {
+            this.generator = new SnowflakeIdGenerator(Long.parseLong(settings.get(NODE_ID_SETTING).toString()));
+        } else {
+            throw new IllegalStateException("No Snowflake id generator node configured for " + member.getName()
+                    + ", set " + NODE_ID_SETTING + " or let IdGeneratorConfig lease one");
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
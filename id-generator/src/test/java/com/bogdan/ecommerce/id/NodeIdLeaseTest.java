@@ -0,0 +1,90 @@
+package com.bogdan.ecommerce.id;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NodeIdLeaseTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private NodeIdLease lease;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        lease = new NodeIdLease(jdbcTemplate, "order-service", 60000);
+    }
+
+    @Test
+    public void TestAcquire_WithFreeNode_ShouldUseLeasedNode() {
+        // Arrange
+        when(jdbcTemplate.queryForList(startsWith("insert into id_generator_node"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(3L));
+
+        // Act
+        var generator = lease.acquire();
+
+        // Assert
+        assertEquals(3L, generator.getNodeId());
+        assertSame(generator, lease.acquire());
+    }
+
+    @Test
+    public void TestAcquire_WithEveryNodeLeased_ShouldFailFast() {
+        // Arrange
+        when(jdbcTemplate.queryForList(startsWith("insert into id_generator_node"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> lease.acquire());
+        verify(jdbcTemplate, times(5)).queryForList(startsWith("insert into id_generator_node"), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    public void TestRenew_WithNodeTakenOver_ShouldRevokeGenerator() {
+        // Arrange
+        when(jdbcTemplate.queryForList(startsWith("insert into id_generator_node"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(3L));
+        var generator = lease.acquire();
+        when(jdbcTemplate.update(startsWith("update id_generator_node"), any(Object[].class))).thenReturn(0);
+
+        // Act
+        lease.renew();
+
+        // Assert
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    public void TestRenew_WithDatabaseBrieflyUnavailable_ShouldKeepGenerator() {
+        // Arrange
+        when(jdbcTemplate.queryForList(startsWith("insert into id_generator_node"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(3L));
+        var generator = lease.acquire();
+        when(jdbcTemplate.update(startsWith("update id_generator_node"), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // Act
+        lease.renew();
+
+        // Assert
+        generator.nextId();
+    }
+}
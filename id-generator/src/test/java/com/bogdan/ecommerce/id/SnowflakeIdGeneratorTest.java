@@ -0,0 +1,114 @@
+package com.bogdan.ecommerce.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @Test
+    public void TestNextId_WithConcurrentCallers_ShouldReturnUniqueIncreasingIds() throws Exception {
+        // Arrange
+        var generator = new SnowflakeIdGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    var ids = new long[IDS_PER_THREAD];
+                    for (int j = 0; j < IDS_PER_THREAD; j++) {
+                        ids[j] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+            for (var result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        Set<Long> unique = new HashSet<>(THREADS * IDS_PER_THREAD);
+        for (var result : results) {
+            long[] ids = result.get();
+            for (int j = 0; j < ids.length; j++) {
+                assertTrue(ids[j] > 0);
+                assertTrue(j == 0 || ids[j] > ids[j - 1]);
+                assertTrue(unique.add(ids[j]));
+            }
+        }
+        assertEquals(THREADS * IDS_PER_THREAD, unique.size());
+    }
+
+    @Test
+    public void TestNextId_WithClockMovingBackwards_ShouldKeepIncreasing() {
+        // Arrange
+        var now = new AtomicLong(SnowflakeIdGenerator.EPOCH_MS + 10_000);
+        var generator = new SnowflakeIdGenerator(1, now::get);
+        long before = generator.nextId();
+
+        // Act
+        now.addAndGet(-5_000);
+        long after = generator.nextId();
+
+        // Assert
+        assertTrue(after > before);
+    }
+
+    @Test
+    public void TestNextId_WithExhaustedSequence_ShouldCarryIntoNextMillisecond() {
+        // Arrange
+        var generator = new SnowflakeIdGenerator(3, () -> SnowflakeIdGenerator.EPOCH_MS + 1);
+        long previous = generator.nextId();
+
+        // Act & Assert
+        for (int i = 0; i < 3 * (1 << SnowflakeIdGenerator.SEQUENCE_BITS); i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            assertEquals(3, (next >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void TestConstructor_WithNodeIdOutOfRange_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+
+    @Test
+    public void TestNextId_WithRevokedNode_ShouldThrowException() {
+        // Arrange
+        var generator = new SnowflakeIdGenerator(4);
+        generator.nextId();
+
+        // Act
+        generator.revoke();
+
+        // Assert
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.bogdan.ecommerce.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaEmailDeadLetterTopicConfig {
+
+    @Bean
+    public NewTopic emailDeadLetterTopic(
+            @Value("${application.email.retry.dead-letter-topic:notification-email-dlq}") String topic
+    ) {
+        return TopicBuilder
+                .name(topic)
+                .build();
+    }
+}
@@ -0,0 +1,294 @@
+package com.bogdan.ecommerce.email;
+
+import com.bogdan.ecommerce.email.retry.EmailRetry;
+import com.bogdan.ecommerce.email.retry.EmailRetryStore;
+import com.bogdan.ecommerce.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends emails from a bounded queue through a fixed pool of workers, each holding
+ * its own long-lived {@link SmtpConnection}, so consecutive emails share a handshake.
+ * <p>
+ * When the queue reaches {@code pause-threshold} the Kafka listeners are paused and
+ * they resume once the workers drained it down to {@code resume-threshold}. The
+ * caller never blocks: an email arriving at a full queue is rendered and stored in
+ * the {@link EmailRetryStore}, due right away, and comes back through
+ * {@link #redispatch} once there is room. Every email is timed in
+ * {@code notification.email.send} tagged with its template and outcome.
+ * <p>
+ * Failed sends are handed to the {@link EmailRetryStore}, which re-drives them
+ * through {@link #redispatch} after a backoff.
+ * <p>
+ * The queue is in memory and the offsets of the queued emails are already
+ * committed, so an email is only acknowledged, by clearing the pending flag of its
+ * notifications, once it was sent or stored for a retry. Emails lost in a crash are
+ * queued again by the {@code PendingEmailSweeper}.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher {
+
+    private static final long POLL_MS = 200;
+
+    private final JavaMailSenderImpl mailSender;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final EmailRetryStore retryStore;
+    private final NotificationRepository notificationRepository;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<EmailJob> queue;
+    private final int connections;
+    private final int pauseThreshold;
+    private final int resumeThreshold;
+    private final int maxMessagesPerConnection;
+    private final long idleCloseNanos;
+    private final long shutdownTimeoutMs;
+    private final Counter connectionsOpened;
+    private final Counter listenerPauses;
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public EmailDispatcher(
+            JavaMailSenderImpl mailSender,
+            KafkaListenerEndpointRegistry listenerRegistry,
+            EmailRetryStore retryStore,
+            NotificationRepository notificationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.email.queue-capacity:1000}") int queueCapacity,
+            @Value("${application.email.connections:4}") int connections,
+            @Value("${application.email.pause-threshold:800}") int pauseThreshold,
+            @Value("${application.email.resume-threshold:200}") int resumeThreshold,
+            @Value("${application.email.max-messages-per-connection:500}") int maxMessagesPerConnection,
+            @Value("${application.email.idle-close-ms:30000}") long idleCloseMs,
+            @Value("${application.email.shutdown-timeout-ms:10000}") long shutdownTimeoutMs
+    ) {
+        this.mailSender = mailSender;
+        this.listenerRegistry = listenerRegistry;
+        this.retryStore = retryStore;
+        this.notificationRepository = notificationRepository;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.connections = connections;
+        this.pauseThreshold = Math.min(pauseThreshold, queueCapacity);
+        this.resumeThreshold = Math.min(resumeThreshold, this.pauseThreshold);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleCloseNanos = TimeUnit.MILLISECONDS.toNanos(idleCloseMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.connectionsOpened = Counter.builder("notification.email.connections.opened")
+                .description("Number of SMTP connections opened")
+                .register(meterRegistry);
+        this.listenerPauses = Counter.builder("notification.email.listener.pauses")
+                .description("Number of times the Kafka listeners were paused because the email queue was full")
+                .register(meterRegistry);
+        Gauge.builder("notification.email.queue.size", queue, BlockingQueue::size)
+                .description("Number of emails waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < connections; i++) {
+            var worker = new Thread(this::work, "email-dispatch-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Drains what is already queued before closing the connections.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (var worker : workers) {
+            worker.join(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("WARNING - {} emails were not sent before shutdown, they stay pending", queue.size());
+        }
+    }
+
+    public void dispatch(
+            EmailTemplates template,
+            String destinationEmail,
+            List<String> notificationIds,
+            MimeMessagePreparator preparator
+    ) {
+        var job = new EmailJob(template, destinationEmail, notificationIds, () -> {
+            var mimeMessage = mailSender.createMimeMessage();
+            preparator.prepare(mimeMessage);
+            return mimeMessage;
+        }, null);
+        if (!queue.offer(job)) {
+            pauseListeners();
+            defer(job);
+            return;
+        }
+        if (queue.size() >= pauseThreshold) {
+            pauseListeners();
+        }
+    }
+
+    /**
+     * Queues a failed email again, unless the queue is already at the pause threshold.
+     * Never blocks.
+     *
+     * @return {@code false} when the email was not queued
+     */
+    public boolean redispatch(EmailRetry retry) {
+        if (queue.size() >= pauseThreshold) {
+            return false;
+        }
+        var job = new EmailJob(EmailTemplates.valueOf(retry.getTemplate()), retry.getDestinationEmail(), List.of(), () -> {
+            if (retry.getMime() == null) {
+                throw new IllegalStateException("The email was never rendered");
+            }
+            return new MimeMessage(mailSender.getSession(), new ByteArrayInputStream(retry.getMime()));
+        }, retry);
+        return queue.offer(job);
+    }
+
+    private void defer(EmailJob job) {
+        long start = System.nanoTime();
+        try {
+            MimeMessage mimeMessage;
+            try {
+                mimeMessage = job.message().create();
+            } catch (Exception e) {
+                record(job, "failed", System.nanoTime() - start);
+                log.warn("WARNING - Cannot render Email to {} ", job.destinationEmail(), e);
+                retryStore.onFailure(job.template(), job.destinationEmail(), null, e, null);
+                acknowledge(job);
+                return;
+            }
+            retryStore.defer(job.template(), job.destinationEmail(), mimeMessage);
+            record(job, "deferred", System.nanoTime() - start);
+            acknowledge(job);
+        } catch (RuntimeException e) {
+            // the notifications stay pending and are queued again later
+            log.error("Cannot store the email to {} the queue had no room for", job.destinationEmail(), e);
+        }
+    }
+
+    private void work() {
+        try (var connection = new SmtpConnection(mailSender, connectionsOpened, maxMessagesPerConnection)) {
+            while (running || !queue.isEmpty()) {
+                var job = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (queue.size() <= resumeThreshold) {
+                    resumeListeners();
+                }
+                if (job == null) {
+                    connection.closeIfIdle(idleCloseNanos);
+                    continue;
+                }
+                send(connection, job);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(SmtpConnection connection, EmailJob job) {
+        long start = System.nanoTime();
+        MimeMessage mimeMessage = null;
+        try {
+            mimeMessage = job.message().create();
+            connection.send(mimeMessage);
+        } catch (Exception e) {
+            record(job, "failed", System.nanoTime() - start);
+            log.warn("WARNING - Cannot send Email to {} ", job.destinationEmail(), e);
+            try {
+                retryStore.onFailure(job.template(), job.destinationEmail(), mimeMessage, e, job.retry());
+            } catch (RuntimeException storeFailure) {
+                log.error("Cannot queue the failed email to {} for a retry", job.destinationEmail(), storeFailure);
+                return;
+            }
+            acknowledge(job);
+            return;
+        }
+        record(job, "sent", System.nanoTime() - start);
+        log.info(String.format("INFO - Email successfully sent to %s with template %s ", job.destinationEmail(), job.template().getTemplate()));
+        acknowledge(job);
+        if (job.retry() != null) {
+            try {
+                retryStore.onRecovered(job.retry());
+            } catch (RuntimeException e) {
+                log.error("Cannot remove the retried email to {} from the retry queue", job.destinationEmail(), e);
+            }
+        }
+    }
+
+    private void acknowledge(EmailJob job) {
+        if (job.notificationIds().isEmpty()) {
+            return;
+        }
+        try {
+            notificationRepository.markEmailed(job.notificationIds());
+        } catch (RuntimeException e) {
+            // the notifications stay pending, so the email may be sent once more
+            log.error("Cannot mark the notifications {} as emailed", job.notificationIds(), e);
+        }
+    }
+
+    private void record(EmailJob job, String outcome, long nanos) {
+        Timer.builder("notification.email.send")
+                .description("Time taken to render and send an email")
+                .tag("template", job.template().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void pauseListeners() {
+        if (paused.compareAndSet(false, true)) {
+            log.warn("WARNING - Email queue is full, pausing the Kafka listeners");
+            listenerPauses.increment();
+            listenerRegistry.getListenerContainers().forEach(MessageListenerContainer::pause);
+        }
+    }
+
+    private void resumeListeners() {
+        if (paused.get() && paused.compareAndSet(true, false)) {
+            log.info("Email queue drained, resuming the Kafka listeners");
+            listenerRegistry.getListenerContainers().forEach(MessageListenerContainer::resume);
+        }
+    }
+
+    private record EmailJob(
+            EmailTemplates template,
+            String destinationEmail,
+            List<String> notificationIds,
+            MessageFactory message,
+            EmailRetry retry
+    ) {
+    }
+
+    @FunctionalInterface
+    private interface MessageFactory {
+        MimeMessage create() throws Exception;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bogdan.ecommerce.email;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.StringWriter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders email templates with their static parts pre-rendered.
+ * <p>
+ * Each template marks its variable part with {@code th:fragment="content"}. At startup
+ * the whole template is rendered once with a placeholder in place of that fragment,
+ * which leaves the styles, header and footer as a fixed prefix and suffix. Per email
+ * only the content fragment is processed and written between them; the output is the
+ * same as rendering the whole template.
+ */
+@Component
+public class EmailRenderer {
+
+    static final String CONTENT_VARIABLE = "emailContent";
+
+    private static final Set<String> CONTENT_FRAGMENT = Set.of("content");
+    private static final String PLACEHOLDER = "<!--email-content-->";
+
+    private final ITemplateEngine templateEngine;
+    private final Map<EmailTemplates, Shell> shells = new EnumMap<>(EmailTemplates.class);
+
+    public EmailRenderer(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+        for (var template : EmailTemplates.values()) {
+            shells.put(template, prerender(template));
+        }
+    }
+
+    public String render(EmailTemplates template, Map<String, Object> variables) {
+        var shell = shells.get(template);
+        var writer = new StringWriter(shell.size());
+        writer.write(shell.prefix());
+        templateEngine.process(template.getTemplate(), CONTENT_FRAGMENT, new Context(Locale.getDefault(), variables), writer);
+        writer.write(shell.suffix());
+        return writer.toString();
+    }
+
+    private Shell prerender(EmailTemplates template) {
+        var html = templateEngine.process(template.getTemplate(), new Context(Locale.getDefault(), Map.of(CONTENT_VARIABLE, PLACEHOLDER)));
+        int at = html.indexOf(PLACEHOLDER);
+        if (at < 0 || html.indexOf(PLACEHOLDER, at + 1) >= 0) {
+            throw new IllegalStateException("Template " + template.getTemplate() + " must render its content placeholder exactly once");
+        }
+        // compiles and caches the content fragment before the first email
+        templateEngine.process(template.getTemplate(), CONTENT_FRAGMENT, new Context());
+        var prefix = html.substring(0, at);
+        var suffix = html.substring(at + PLACEHOLDER.length());
+        return new Shell(prefix, suffix, prefix.length() + suffix.length() + 1024);
+    }
+
+    private record Shell(String prefix, String suffix, int size) {
+    }
+}
@@ -1,16 +1,9 @@
 package com.bogdan.ecommerce.email;
 
 import com.bogdan.ecommerce.kafka.order.Product;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
@@ -18,88 +11,82 @@ import java.util.List;
 import java.util.Map;
 
 import static com.bogdan.ecommerce.email.EmailTemplates.ORDER_CONFIRMATION;
+import static com.bogdan.ecommerce.email.EmailTemplates.ORDER_PAYMENT_CONFIRMATION;
 import static com.bogdan.ecommerce.email.EmailTemplates.PAYMENT_CONFIRMATION;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+/**
+ * Queues confirmation emails on the {@link EmailDispatcher}; the template is rendered
+ * by the {@link EmailRenderer} on the dispatch worker that sends the message. Every
+ * email carries the ids of the notifications it confirms, which stay pending until
+ * it was sent.
+ */
 @Service
-@Slf4j
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final SpringTemplateEngine templateEngine;
+    private final EmailDispatcher dispatcher;
+    private final EmailRenderer renderer;
 
-    @Async
     public void sendPaymentSuccessEmail(
+            List<String> notificationIds,
             String destinationEmail,
             String customerName,
             BigDecimal amount,
             String orderReference
-    ) throws MessagingException {
-
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper messageHelper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8.name());
-        messageHelper.setFrom("contact@aliboucoding.com");
-
-        final String templateName = PAYMENT_CONFIRMATION.getTemplate();
-
+    ) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("customerName", customerName);
         variables.put("amount", amount);
         variables.put("orderReference", orderReference);
 
-        Context context = new Context();
-        context.setVariables(variables);
-        messageHelper.setSubject(PAYMENT_CONFIRMATION.getSubject());
-
-        try {
-            String htmlTemplate = templateEngine.process(templateName, context);
-            messageHelper.setText(htmlTemplate, true);
-
-            messageHelper.setTo(destinationEmail);
-            mailSender.send(mimeMessage);
-            log.info(String.format("INFO - Email successfully sent to %s with template %s ", destinationEmail, templateName));
-        } catch (MessagingException e) {
-            log.warn("WARNING - Cannot send Email to {} ", destinationEmail);
-        }
-
+        send(PAYMENT_CONFIRMATION, destinationEmail, notificationIds, variables);
     }
 
-    @Async
     public void sendOrderConfirmationEmail(
+            List<String> notificationIds,
             String destinationEmail,
             String customerName,
             BigDecimal amount,
             String orderReference,
             List<Product> products
-    ) throws MessagingException {
-
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper messageHelper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8.name());
-        messageHelper.setFrom("contact@aliboucoding.com");
+    ) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerName", customerName);
+        variables.put("totalAmount", amount);
+        variables.put("orderReference", orderReference);
+        variables.put("products", products);
 
-        final String templateName = ORDER_CONFIRMATION.getTemplate();
+        send(ORDER_CONFIRMATION, destinationEmail, notificationIds, variables);
+    }
 
+    public void sendOrderAndPaymentConfirmationEmail(
+            List<String> notificationIds,
+            String destinationEmail,
+            String customerName,
+            BigDecimal totalAmount,
+            BigDecimal amount,
+            String orderReference,
+            List<Product> products
+    ) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("customerName", customerName);
-        variables.put("totalAmount", amount);
+        variables.put("totalAmount", totalAmount);
+        variables.put("amount", amount);
         variables.put("orderReference", orderReference);
         variables.put("products", products);
 
-        Context context = new Context();
-        context.setVariables(variables);
-        messageHelper.setSubject(ORDER_CONFIRMATION.getSubject());
+        send(ORDER_PAYMENT_CONFIRMATION, destinationEmail, notificationIds, variables);
+    }
 
-        try {
-            String htmlTemplate = templateEngine.process(templateName, context);
-            messageHelper.setText(htmlTemplate, true);
+    private void send(EmailTemplates template, String destinationEmail, List<String> notificationIds, Map<String, Object> variables) {
+        dispatcher.dispatch(template, destinationEmail, notificationIds, mimeMessage -> {
+            MimeMessageHelper messageHelper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8.name());
+            messageHelper.setFrom("contact@aliboucoding.com");
+            messageHelper.setSubject(template.getSubject());
+            messageHelper.setText(renderer.render(template, variables), true);
 
             messageHelper.setTo(destinationEmail);
-            mailSender.send(mimeMessage);
-            log.info(String.format("INFO - Email successfully sent to %s with template %s ", destinationEmail, templateName));
-        } catch (MessagingException e) {
-            log.warn("WARNING - Cannot send Email to {} ", destinationEmail);
-        }
-
+        });
     }
 }
@@ -5,7 +5,8 @@ import lombok.Getter;
 public enum EmailTemplates {
 
     PAYMENT_CONFIRMATION("payment-confirmation.html", "Payment successfully processed"),
-    ORDER_CONFIRMATION("order-confirmation.html", "Order confirmation")
+    ORDER_CONFIRMATION("order-confirmation.html", "Order confirmation"),
+    ORDER_PAYMENT_CONFIRMATION("order-payment-confirmation.html", "Order confirmation and payment processed")
     ;
 
     @Getter
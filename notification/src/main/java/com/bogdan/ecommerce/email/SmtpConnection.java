@@ -0,0 +1,87 @@
+package com.bogdan.ecommerce.email;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+
+/**
+ * A long-lived SMTP connection owned by one dispatch worker. It is opened on first
+ * use, reused for up to {@code maxMessages} messages and reopened once if the server
+ * dropped it in between.
+ */
+@Slf4j
+class SmtpConnection implements AutoCloseable {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Counter opened;
+    private final int maxMessages;
+    private Transport transport;
+    private int sent;
+    private long lastUsedNanos;
+
+    SmtpConnection(JavaMailSenderImpl mailSender, Counter opened, int maxMessages) {
+        this.mailSender = mailSender;
+        this.opened = opened;
+        this.maxMessages = maxMessages;
+    }
+
+    void send(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        var reused = transport != null;
+        try {
+            transport().sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            if (!reused || transport == null || transport.isConnected()) {
+                throw e;
+            }
+            // the server closed an idle connection, reconnect once
+            close();
+            transport().sendMessage(message, message.getAllRecipients());
+        }
+        sent++;
+        lastUsedNanos = System.nanoTime();
+    }
+
+    void closeIfIdle(long idleNanos) {
+        if (transport != null && System.nanoTime() - lastUsedNanos >= idleNanos) {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Cannot close SMTP connection cleanly", e);
+        }
+        transport = null;
+    }
+
+    private Transport transport() throws MessagingException {
+        if (transport != null && sent >= maxMessages) {
+            close();
+        }
+        if (transport == null) {
+            var protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+            var newTransport = mailSender.getSession().getTransport(protocol);
+            newTransport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            transport = newTransport;
+            sent = 0;
+            lastUsedNanos = System.nanoTime();
+            opened.increment();
+        }
+        return transport;
+    }
+}
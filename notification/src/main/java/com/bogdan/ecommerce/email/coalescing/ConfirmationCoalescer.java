@@ -0,0 +1,228 @@
+package com.bogdan.ecommerce.email.coalescing;
+
+import com.bogdan.ecommerce.email.EmailService;
+import com.bogdan.ecommerce.kafka.order.OrderConfirmation;
+import com.bogdan.ecommerce.kafka.payment.PaymentConfirmation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges the order and payment confirmations of the same order reference into one
+ * email when both arrive within {@code window-seconds} of each other.
+ * <p>
+ * The first confirmation of an order is held in an {@link ExpiringWheel}; when its
+ * counterpart arrives in time a single combined email is sent, otherwise the held
+ * confirmation is sent on its own once the window passes. At most {@code max-pending}
+ * confirmations are held, beyond that they are sent right away. A redelivered
+ * confirmation keeps the place of the held one, so redeliveries cannot postpone the
+ * email past the window, and its notification is acknowledged with the email.
+ * <p>
+ * Held confirmations are sent on shutdown. Their offsets are already committed, so
+ * after a crash they are sent by the {@code PendingEmailSweeper}: their notifications
+ * stay pending until the email went out. Its {@code grace-seconds} must exceed
+ * {@code window-seconds}.
+ */
+@Component
+@Slf4j
+public class ConfirmationCoalescer {
+
+    private final EmailService emailService;
+    private final boolean enabled;
+    private final ExpiringWheel<PendingConfirmation> wheel;
+    private final Counter merged;
+    private final Counter expired;
+    private final Counter overflow;
+
+    public ConfirmationCoalescer(
+            EmailService emailService,
+            MeterRegistry meterRegistry,
+            @Value("${application.email.coalescing.enabled:false}") boolean enabled,
+            @Value("${application.email.coalescing.window-seconds:10}") long windowSeconds,
+            @Value("${application.email.coalescing.tick-ms:250}") long tickMs,
+            @Value("${application.email.coalescing.max-pending:10000}") int maxPending
+    ) {
+        this.emailService = emailService;
+        this.enabled = enabled;
+        this.wheel = new ExpiringWheel<>(
+                TimeUnit.SECONDS.toNanos(windowSeconds),
+                TimeUnit.MILLISECONDS.toNanos(tickMs),
+                maxPending,
+                System.nanoTime()
+        );
+        this.merged = counter(meterRegistry, "merged");
+        this.expired = counter(meterRegistry, "expired");
+        this.overflow = counter(meterRegistry, "overflow");
+        Gauge.builder("notification.email.coalescing.pending", this, coalescer -> coalescer.pending())
+                .description("Number of confirmations waiting for their counterpart")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        List<PendingConfirmation> held;
+        synchronized (wheel) {
+            held = wheel.drain();
+        }
+        held.forEach(this::sendAlone);
+    }
+
+    public void onOrderConfirmation(String notificationId, OrderConfirmation orderConfirmation) {
+        if (!enabled) {
+            sendOrder(List.of(notificationId), orderConfirmation);
+            return;
+        }
+        var reference = orderConfirmation.orderReference();
+        PendingConfirmation payment;
+        synchronized (wheel) {
+            var held = wheel.get(reference);
+            if (held != null && held.order() != null) {
+                wheel.replace(reference, held.withNotification(notificationId));
+                return;
+            }
+            payment = held == null ? null : wheel.remove(reference);
+            if (payment == null && wheel.add(reference, new PendingConfirmation(List.of(notificationId), orderConfirmation, null))) {
+                return;
+            }
+        }
+        if (payment == null) {
+            overflow.increment();
+            sendOrder(List.of(notificationId), orderConfirmation);
+        } else {
+            merged.increment();
+            sendCombined(payment.withNotification(notificationId).notificationIds(), orderConfirmation, payment.payment());
+        }
+    }
+
+    public void onPaymentConfirmation(String notificationId, PaymentConfirmation paymentConfirmation) {
+        if (!enabled) {
+            sendPayment(List.of(notificationId), paymentConfirmation);
+            return;
+        }
+        var reference = paymentConfirmation.orderReference();
+        PendingConfirmation order;
+        synchronized (wheel) {
+            var held = wheel.get(reference);
+            if (held != null && held.payment() != null) {
+                wheel.replace(reference, held.withNotification(notificationId));
+                return;
+            }
+            order = held == null ? null : wheel.remove(reference);
+            if (order == null && wheel.add(reference, new PendingConfirmation(List.of(notificationId), null, paymentConfirmation))) {
+                return;
+            }
+        }
+        if (order == null) {
+            overflow.increment();
+            sendPayment(List.of(notificationId), paymentConfirmation);
+        } else {
+            merged.increment();
+            sendCombined(order.withNotification(notificationId).notificationIds(), order.order(), paymentConfirmation);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.email.coalescing.tick-ms:250}",
+            fixedDelayString = "${application.email.coalescing.tick-ms:250}"
+    )
+    public void expire() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<PendingConfirmation> due;
+            synchronized (wheel) {
+                due = wheel.advance(System.nanoTime());
+            }
+            expired.increment(due.size());
+            due.forEach(this::sendAlone);
+        } catch (RuntimeException e) {
+            log.error("Cannot send expired confirmations", e);
+        }
+    }
+
+    private int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void sendAlone(PendingConfirmation pending) {
+        if (pending.order() != null) {
+            sendOrder(pending.notificationIds(), pending.order());
+        } else {
+            sendPayment(pending.notificationIds(), pending.payment());
+        }
+    }
+
+    private void sendOrder(List<String> notificationIds, OrderConfirmation orderConfirmation) {
+        var customerName = orderConfirmation.customer().firstname() + " " + orderConfirmation.customer().lastname();
+        emailService.sendOrderConfirmationEmail(
+                notificationIds,
+                orderConfirmation.customer().email(),
+                customerName,
+                orderConfirmation.totalAmount(),
+                orderConfirmation.orderReference(),
+                orderConfirmation.products()
+        );
+    }
+
+    private void sendPayment(List<String> notificationIds, PaymentConfirmation paymentConfirmation) {
+        var customerName = paymentConfirmation.customerFirstname() + " " + paymentConfirmation.customerLastname();
+        emailService.sendPaymentSuccessEmail(
+                notificationIds,
+                paymentConfirmation.customerEmail(),
+                customerName,
+                paymentConfirmation.amount(),
+                paymentConfirmation.orderReference()
+        );
+    }
+
+    private void sendCombined(
+            List<String> notificationIds,
+            OrderConfirmation orderConfirmation,
+            PaymentConfirmation paymentConfirmation
+    ) {
+        var customerName = orderConfirmation.customer().firstname() + " " + orderConfirmation.customer().lastname();
+        emailService.sendOrderAndPaymentConfirmationEmail(
+                notificationIds,
+                orderConfirmation.customer().email(),
+                customerName,
+                orderConfirmation.totalAmount(),
+                paymentConfirmation.amount(),
+                orderConfirmation.orderReference(),
+                orderConfirmation.products()
+        );
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.email.coalescing")
+                .description("Number of confirmations by coalescing outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record PendingConfirmation(List<String> notificationIds, OrderConfirmation order, PaymentConfirmation payment) {
+
+        /**
+         * Adds a notification to the ones acknowledged by the email of this confirmation.
+         */
+        PendingConfirmation withNotification(String notificationId) {
+            if (notificationIds.contains(notificationId)) {
+                return this;
+            }
+            var ids = new ArrayList<>(notificationIds);
+            ids.add(notificationId);
+            return new PendingConfirmation(List.copyOf(ids), order, payment);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bogdan.ecommerce.email.coalescing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded timing wheel of values that expire a fixed window after they were added.
+ * <p>
+ * Time is cut into ticks and the wheel has one slot per tick of the window plus one,
+ * so every key in a slot expires on the same tick: adding and removing are O(1) and
+ * advancing only visits the slots whose tick has passed. A value is held at least
+ * the window and at most one tick longer, provided the wheel is advanced every tick.
+ * Not thread-safe.
+ */
+class ExpiringWheel<V> {
+
+    private final long tickNanos;
+    private final int ticksPerWindow;
+    private final int capacity;
+    private final long originNanos;
+    private final List<Set<String>> slots;
+    private final Map<String, Entry<V>> entries = new HashMap<>();
+    private long currentTick;
+
+    ExpiringWheel(long windowNanos, long tickNanos, int capacity, long nowNanos) {
+        this.tickNanos = tickNanos;
+        this.ticksPerWindow = (int) Math.max((windowNanos + tickNanos - 1) / tickNanos, 1);
+        this.capacity = capacity;
+        this.originNanos = nowNanos;
+        this.slots = new ArrayList<>(ticksPerWindow + 1);
+        for (int i = 0; i <= ticksPerWindow; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Holds the value until the window passes, replacing a value already held for the key.
+     *
+     * @return {@code false} when the wheel is full and the value was not held
+     */
+    boolean add(String key, V value) {
+        var previous = entries.get(key);
+        if (previous != null) {
+            slots.get(previous.slot()).remove(key);
+        } else if (entries.size() >= capacity) {
+            return false;
+        }
+        int slot = (int) ((currentTick + ticksPerWindow + 1) % slots.size());
+        slots.get(slot).add(key);
+        entries.put(key, new Entry<>(value, slot));
+        return true;
+    }
+
+    /**
+     * Replaces the value held for the key without moving it, so it still expires
+     * when the first value would have.
+     *
+     * @return {@code false} when no value is held for the key
+     */
+    boolean replace(String key, V value) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value, entry.slot()));
+        return true;
+    }
+
+    V get(String key) {
+        var entry = entries.get(key);
+        return entry == null ? null : entry.value();
+    }
+
+    V remove(String key) {
+        var entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        slots.get(entry.slot()).remove(key);
+        return entry.value();
+    }
+
+    /**
+     * Removes and returns the values whose window has passed.
+     */
+    List<V> advance(long nowNanos) {
+        var expired = new ArrayList<V>();
+        long nowTick = (nowNanos - originNanos) / tickNanos;
+        // past a full turn every slot has expired, so only the last turn is visited
+        currentTick = Math.max(currentTick, nowTick - slots.size());
+        while (currentTick < nowTick) {
+            currentTick++;
+            var slot = slots.get((int) (currentTick % slots.size()));
+            for (var key : slot) {
+                expired.add(entries.remove(key).value());
+            }
+            slot.clear();
+        }
+        return expired;
+    }
+
+    List<V> drain() {
+        var all = new ArrayList<V>(entries.size());
+        entries.values().forEach(entry -> all.add(entry.value()));
+        entries.clear();
+        slots.forEach(Set::clear);
+        return all;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, int slot) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.bogdan.ecommerce.email.retry;
+
+import java.time.Instant;
+
+/**
+ * An email given up on, published to the dead-letter topic. {@code mime} is the raw
+ * message, absent when the email could not even be rendered.
+ */
+public record EmailDeadLetter(
+        String template,
+        String destinationEmail,
+        int attempts,
+        String reason,
+        String error,
+        Instant firstFailedAt,
+        String mime
+) {
+}
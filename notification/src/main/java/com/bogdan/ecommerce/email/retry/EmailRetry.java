@@ -0,0 +1,38 @@
+package com.bogdan.ecommerce.email.retry;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * An email whose send failed, kept as the raw MIME message so a retry sends exactly
+ * what was rendered the first time. {@code deadLetterReason} is set once the email is
+ * given up on and waits to be published to the dead-letter topic.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Document("email_retry")
+public class EmailRetry {
+
+    @Id
+    private String id;
+    private String template;
+    private String destinationEmail;
+    private byte[] mime;
+    private int attempts;
+    @Indexed
+    private Instant nextAttemptAt;
+    private Instant firstFailedAt;
+    private String lastError;
+    private String deadLetterReason;
+}
@@ -0,0 +1,69 @@
+package com.bogdan.ecommerce.email.retry;
+
+import com.bogdan.ecommerce.email.EmailDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+/**
+ * Re-drives due emails of the {@link EmailRetryStore} through the
+ * {@link EmailDispatcher} in batches, on the scheduling thread so neither listener
+ * nor dispatch threads ever wait for a backoff or for the dead-letter topic. A batch
+ * stops early when the dispatcher is busy, leaving the rest for the next run; emails
+ * given up on are published to the dead-letter topic regardless.
+ */
+@Component
+@Slf4j
+public class EmailRetryScheduler {
+
+    private final EmailRetryStore store;
+    private final EmailDispatcher dispatcher;
+    private final int batchSize;
+    private final Counter retries;
+
+    public EmailRetryScheduler(
+            EmailRetryStore store,
+            EmailDispatcher dispatcher,
+            MeterRegistry meterRegistry,
+            @Value("${application.email.retry.batch-size:100}") int batchSize
+    ) {
+        this.store = store;
+        this.dispatcher = dispatcher;
+        this.batchSize = batchSize;
+        this.retries = Counter.builder("notification.email.retries")
+                .description("Number of failed emails handed back to the dispatcher")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.email.retry.poll-interval-ms:1000}",
+            fixedDelayString = "${application.email.retry.poll-interval-ms:1000}"
+    )
+    public void redrive() {
+        try {
+            var claimed = store.claimDue(batchSize);
+            var due = new ArrayList<EmailRetry>(claimed.size());
+            for (var retry : claimed) {
+                if (retry.getDeadLetterReason() != null) {
+                    store.deadLetter(retry);
+                } else {
+                    due.add(retry);
+                }
+            }
+            for (int i = 0; i < due.size(); i++) {
+                if (!dispatcher.redispatch(due.get(i))) {
+                    due.subList(i, due.size()).forEach(store::release);
+                    return;
+                }
+                retries.increment();
+            }
+        } catch (RuntimeException e) {
+            log.error("Cannot re-drive failed emails", e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.bogdan.ecommerce.email.retry;
+
+import com.bogdan.ecommerce.email.EmailTemplates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Mongo-backed queue of emails whose send failed.
+ * <p>
+ * A failed email is stored with its next attempt due after an exponential backoff
+ * with jitter: half of {@code initial-backoff-ms * 2^(attempts - 1)}, capped at
+ * {@code max-backoff-ms}, plus a random share of the other half, so instances
+ * recovering from the same SMTP outage do not retry in lockstep. Emails rejected for
+ * good by the server, emails that cannot be rendered and emails that failed
+ * {@code max-attempts} times are marked for the dead-letter topic instead and
+ * published by the {@link EmailRetryScheduler}, so a slow broker never holds up the
+ * dispatch worker that recorded the failure.
+ * <p>
+ * Emails the dispatch queue had no room for are stored here as well, due right away,
+ * so the Kafka listener never waits for the queue.
+ * <p>
+ * Due emails are claimed by pushing their next attempt a lease into the future, so
+ * several instances can drain the queue without sending an email twice.
+ */
+@Component
+@Slf4j
+public class EmailRetryStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, EmailDeadLetter> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String deadLetterTopic;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long leaseMs;
+    private final long sendTimeoutMs;
+    private final Counter scheduled;
+    private final Counter recovered;
+    private final Counter deferred;
+
+    public EmailRetryStore(
+            MongoTemplate mongoTemplate,
+            KafkaTemplate<String, EmailDeadLetter> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${application.email.retry.dead-letter-topic:notification-email-dlq}") String deadLetterTopic,
+            @Value("${application.email.retry.max-attempts:8}") int maxAttempts,
+            @Value("${application.email.retry.initial-backoff-ms:5000}") long initialBackoffMs,
+            @Value("${application.email.retry.max-backoff-ms:600000}") long maxBackoffMs,
+            @Value("${application.email.retry.lease-ms:60000}") long leaseMs,
+            @Value("${application.email.retry.send-timeout-ms:10000}") long sendTimeoutMs
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.deadLetterTopic = deadLetterTopic;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseMs = leaseMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.scheduled = Counter.builder("notification.email.retry.scheduled")
+                .description("Number of failed emails queued for a retry")
+                .register(meterRegistry);
+        this.recovered = Counter.builder("notification.email.retry.recovered")
+                .description("Number of emails sent by a retry")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("notification.email.retry.deferred")
+                .description("Number of emails stored because the dispatch queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores an email the dispatch queue had no room for, due right away; the
+     * scheduler hands it back to the dispatcher once the queue drained.
+     */
+    public void defer(EmailTemplates template, String destinationEmail, MimeMessage message) {
+        mongoTemplate.save(EmailRetry.builder()
+                .template(template.name())
+                .destinationEmail(destinationEmail)
+                .mime(toBytes(message))
+                .nextAttemptAt(Instant.now())
+                .build());
+        deferred.increment();
+    }
+
+    /**
+     * Records a failed send of {@code message}, which is {@code null} when the email
+     * could not be rendered. {@code retry} is the queued email when the failed send
+     * was itself a retry.
+     */
+    public void onFailure(EmailTemplates template, String destinationEmail, MimeMessage message, Exception error, EmailRetry retry) {
+        var now = Instant.now();
+        var entry = retry != null ? retry : EmailRetry.builder()
+                .template(template.name())
+                .destinationEmail(destinationEmail)
+                .build();
+        if (entry.getFirstFailedAt() == null) {
+            entry.setFirstFailedAt(now);
+        }
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(String.valueOf(error));
+        if (entry.getMime() == null && message != null) {
+            entry.setMime(toBytes(message));
+        }
+        if (entry.getMime() == null) {
+            entry.setDeadLetterReason("unrenderable");
+        } else if (isPermanent(error)) {
+            entry.setDeadLetterReason("rejected");
+        } else if (entry.getAttempts() >= maxAttempts) {
+            entry.setDeadLetterReason("exhausted");
+        }
+        if (entry.getDeadLetterReason() != null) {
+            entry.setNextAttemptAt(now);
+            mongoTemplate.save(entry);
+            return;
+        }
+        entry.setNextAttemptAt(now.plusMillis(backoffMs(entry.getAttempts())));
+        mongoTemplate.save(entry);
+        scheduled.increment();
+    }
+
+    public void onRecovered(EmailRetry retry) {
+        mongoTemplate.remove(Query.query(where("_id").is(retry.getId())), EmailRetry.class);
+        recovered.increment();
+    }
+
+    /**
+     * Claims up to {@code batchSize} emails whose next attempt is due, oldest first.
+     */
+    public List<EmailRetry> claimDue(int batchSize) {
+        var now = Instant.now();
+        var due = mongoTemplate.find(
+                Query.query(where("nextAttemptAt").lte(now))
+                        .with(Sort.by("nextAttemptAt"))
+                        .limit(batchSize),
+                EmailRetry.class
+        );
+        var lease = now.plusMillis(leaseMs);
+        var claimed = new ArrayList<EmailRetry>(due.size());
+        for (var retry : due) {
+            var result = mongoTemplate.updateFirst(
+                    Query.query(where("_id").is(retry.getId()).and("nextAttemptAt").is(retry.getNextAttemptAt())),
+                    Update.update("nextAttemptAt", lease),
+                    EmailRetry.class
+            );
+            if (result.getModifiedCount() == 1) {
+                retry.setNextAttemptAt(lease);
+                claimed.add(retry);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Hands a claimed email back to the queue without counting an attempt.
+     */
+    public void release(EmailRetry retry) {
+        mongoTemplate.updateFirst(
+                Query.query(where("_id").is(retry.getId())),
+                Update.update("nextAttemptAt", Instant.now()),
+                EmailRetry.class
+        );
+    }
+
+    long backoffMs(int attempts) {
+        long exponential = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 30));
+        long half = exponential / 2;
+        return half + ThreadLocalRandom.current().nextLong(exponential - half + 1);
+    }
+
+    /**
+     * Publishes a claimed email marked for the dead-letter topic and removes it; when
+     * the topic cannot be reached it is kept and published again after
+     * {@code max-backoff-ms}. Blocks up to {@code send-timeout-ms}.
+     */
+    public void deadLetter(EmailRetry entry) {
+        var reason = entry.getDeadLetterReason();
+        var deadLetter = new EmailDeadLetter(
+                entry.getTemplate(),
+                entry.getDestinationEmail(),
+                entry.getAttempts(),
+                reason,
+                entry.getLastError(),
+                entry.getFirstFailedAt(),
+                entry.getMime() == null ? null : new String(entry.getMime(), UTF_8)
+        );
+        try {
+            kafkaTemplate.send(deadLetterTopic, entry.getDestinationEmail(), deadLetter).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // keep the email queued, the dead letter is published again once it is due
+            log.error("Cannot publish the dead letter of the email to {}", entry.getDestinationEmail(), e);
+            mongoTemplate.updateFirst(
+                    Query.query(where("_id").is(entry.getId())),
+                    Update.update("nextAttemptAt", Instant.now().plusMillis(maxBackoffMs)),
+                    EmailRetry.class
+            );
+            return;
+        }
+        mongoTemplate.remove(entry);
+        log.warn("WARNING - Email to {} dead-lettered after {} attempts: {}", entry.getDestinationEmail(), entry.getAttempts(), reason);
+        Counter.builder("notification.email.dead-lettered")
+                .description("Number of emails published to the dead-letter topic")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean isPermanent(Exception error) {
+        if (error instanceof AddressException) {
+            return true;
+        }
+        // the server rejected recipients with a 5xx reply, 4xx ones are left in validUnsent
+        return error instanceof SendFailedException sendFailed
+                && sendFailed.getInvalidAddresses() != null
+                && sendFailed.getInvalidAddresses().length > 0;
+    }
+
+    private static byte[] toBytes(MimeMessage message) {
+        try {
+            var out = new ByteArrayOutputStream();
+            message.writeTo(out);
+            return out.toByteArray();
+        } catch (Exception e) {
+            log.warn("Cannot serialize the failed email", e);
+            return null;
+        }
+    }
+}
@@ -1,64 +1,117 @@
 package com.bogdan.ecommerce.kafka;
 
-import com.bogdan.ecommerce.email.EmailService;
+import com.bogdan.ecommerce.email.coalescing.ConfirmationCoalescer;
 import com.bogdan.ecommerce.kafka.order.OrderConfirmation;
 import com.bogdan.ecommerce.kafka.payment.PaymentConfirmation;
+import com.bogdan.ecommerce.notification.PendingEmailSweeper;
 import com.bogdan.ecommerce.notification.entity.Notification;
-import com.bogdan.ecommerce.notification.repository.NotificationRepository;
 import com.bogdan.ecommerce.notification.entity.NotificationType;
-import jakarta.mail.MessagingException;
-import lombok.RequiredArgsConstructor;
+import com.bogdan.ecommerce.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
-import static java.lang.String.format;
-
+/**
+ * Consumes order and payment confirmations a poll at a time.
+ * <p>
+ * Each batch is written to Mongo in one unordered bulk insert before its emails are
+ * handed to the {@link ConfirmationCoalescer}, and the listener container commits the offsets only once the listener
+ * returns, so a crash replays the whole batch. Notification ids are derived from
+ * the record coordinates, which makes a replayed insert a no-op. Notifications are
+ * stored with their email pending, so an email lost after the offsets were committed
+ * is queued again by the {@link PendingEmailSweeper}.
+ * <p>
+ * Records and batch sizes are counted per topic, batch writes are timed, and
+ * {@code notification.consumer.lag} records how long a record waited in the topic.
+ * The offset lag itself is exported by the Kafka client metrics
+ * ({@code kafka.consumer.fetch.manager.records.lag.max}).
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class NotificationsConsumer {
 
+    private static final String PAYMENT_TOPIC = "payment-topic";
+    private static final String ORDER_TOPIC = "order-topic";
+
     private final NotificationRepository repository;
-    private final EmailService emailService;
-    @KafkaListener(topics = "payment-topic")
-    public void consumePaymentSuccessNotifications(PaymentConfirmation paymentConfirmation) throws MessagingException {
-        log.info(format("Consuming the message from payment-topic Topic:: %s", paymentConfirmation));
-        repository.save(
-                Notification.builder()
-                        .type(NotificationType.PAYMENT_CONFIRMATION)
-                        .notificationDate(LocalDateTime.now())
-                        .paymentConfirmation(paymentConfirmation)
-                        .build()
-        );
-        var customerName = paymentConfirmation.customerFirstname() + " " + paymentConfirmation.customerLastname();
-        emailService.sendPaymentSuccessEmail(
-                paymentConfirmation.customerEmail(),
-                customerName,
-                paymentConfirmation.amount(),
-                paymentConfirmation.orderReference()
-        );
+    private final ConfirmationCoalescer coalescer;
+    private final MeterRegistry meterRegistry;
+
+    public NotificationsConsumer(NotificationRepository repository, ConfirmationCoalescer coalescer, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.coalescer = coalescer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @KafkaListener(topics = PAYMENT_TOPIC, batch = "true")
+    public void consumePaymentSuccessNotifications(List<ConsumerRecord<String, PaymentConfirmation>> records) {
+        persist(PAYMENT_TOPIC, records, paymentConfirmation -> Notification.builder()
+                .type(NotificationType.PAYMENT_CONFIRMATION)
+                .paymentConfirmation(paymentConfirmation));
+        records.forEach(record -> coalescer.onPaymentConfirmation(notificationId(record), record.value()));
+    }
+
+    @KafkaListener(topics = ORDER_TOPIC, batch = "true")
+    public void consumeOrderConfirmationNotifications(List<ConsumerRecord<String, OrderConfirmation>> records) {
+        persist(ORDER_TOPIC, records, orderConfirmation -> Notification.builder()
+                .type(NotificationType.ORDER_CONFIRMATION)
+                .orderConfirmation(orderConfirmation));
+        records.forEach(record -> coalescer.onOrderConfirmation(notificationId(record), record.value()));
+    }
+
+    private <T> void persist(
+            String topic,
+            List<ConsumerRecord<String, T>> records,
+            Function<T, Notification.NotificationBuilder> toNotification
+    ) {
+        var now = LocalDateTime.now();
+        long nowMs = System.currentTimeMillis();
+        var lag = Timer.builder("notification.consumer.lag")
+                .description("Time records spent in the topic before being consumed")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        records.stream()
+                .filter(record -> record.timestamp() >= 0)
+                .forEach(record -> lag.record(Math.max(nowMs - record.timestamp(), 0), TimeUnit.MILLISECONDS));
+        var notifications = records.stream()
+                .map(record -> toNotification.apply(record.value())
+                        .id(notificationId(record))
+                        .notificationDate(now)
+                        .emailPending(true)
+                        .emailQueuedDate(now)
+                        .build())
+                .toList();
+
+        var inserted = Timer.builder("notification.batch.persist")
+                .description("Time taken to write a batch of notifications")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .record(() -> repository.insertAllIgnoringDuplicates(notifications));
+
+        DistributionSummary.builder("notification.batch.size")
+                .description("Number of records per consumed batch")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .record(records.size());
+        Counter.builder("notification.consumed")
+                .description("Number of records consumed")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment(records.size());
+        log.info("Persisted {} of {} notifications from {}", inserted, records.size(), topic);
     }
 
-    @KafkaListener(topics = "order-topic")
-    public void consumeOrderConfirmationNotifications(OrderConfirmation orderConfirmation) throws MessagingException {
-        log.info(format("Consuming the message from order-topic Topic:: %s", orderConfirmation));
-        repository.save(
-                Notification.builder()
-                        .type(NotificationType.ORDER_CONFIRMATION)
-                        .notificationDate(LocalDateTime.now())
-                        .orderConfirmation(orderConfirmation)
-                        .build()
-        );
-        var customerName = orderConfirmation.customer().firstname() + " " + orderConfirmation.customer().lastname();
-        emailService.sendOrderConfirmationEmail(
-                orderConfirmation.customer().email(),
-                customerName,
-                orderConfirmation.totalAmount(),
-                orderConfirmation.orderReference(),
-                orderConfirmation.products()
-        );
+    private static String notificationId(ConsumerRecord<String, ?> record) {
+        return record.topic() + "-" + record.partition() + "-" + record.offset();
     }
 }
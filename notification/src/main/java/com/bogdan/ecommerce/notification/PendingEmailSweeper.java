@@ -0,0 +1,78 @@
+package com.bogdan.ecommerce.notification;
+
+import com.bogdan.ecommerce.email.coalescing.ConfirmationCoalescer;
+import com.bogdan.ecommerce.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queues the email of notifications again when it is still pending
+ * {@code grace-seconds} after it was queued.
+ * <p>
+ * The offsets of a batch are committed once its notifications are stored, while the
+ * emails wait in memory for the dispatcher; a crash or a shutdown that cannot drain
+ * the queue would lose them. Their notifications stay pending until the email was
+ * sent or handed to the retry queue, so this sweep sends them after a restart. An
+ * email sent right before a crash may be sent twice, never lost. The grace must
+ * exceed the time an email can spend queued, or healthy emails are sent twice.
+ */
+@Component
+@Slf4j
+public class PendingEmailSweeper {
+
+    private final NotificationRepository repository;
+    private final ConfirmationCoalescer coalescer;
+    private final long graceSeconds;
+    private final int batchSize;
+    private final Counter requeued;
+
+    public PendingEmailSweeper(
+            NotificationRepository repository,
+            ConfirmationCoalescer coalescer,
+            MeterRegistry meterRegistry,
+            @Value("${application.email.pending.grace-seconds:300}") long graceSeconds,
+            @Value("${application.email.pending.batch-size:100}") int batchSize
+    ) {
+        this.repository = repository;
+        this.coalescer = coalescer;
+        this.graceSeconds = graceSeconds;
+        this.batchSize = batchSize;
+        this.requeued = Counter.builder("notification.email.pending.requeued")
+                .description("Number of notifications whose pending email was queued again")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.email.pending.poll-interval-ms:60000}",
+            fixedDelayString = "${application.email.pending.poll-interval-ms:60000}"
+    )
+    public void sweep() {
+        try {
+            var now = LocalDateTime.now();
+            var pending = repository.claimPendingEmails(now.minusSeconds(graceSeconds), now, batchSize);
+            for (var notification : pending) {
+                if (notification.getOrderConfirmation() != null) {
+                    coalescer.onOrderConfirmation(notification.getId(), notification.getOrderConfirmation());
+                } else if (notification.getPaymentConfirmation() != null) {
+                    coalescer.onPaymentConfirmation(notification.getId(), notification.getPaymentConfirmation());
+                } else {
+                    repository.markEmailed(List.of(notification.getId()));
+                    continue;
+                }
+                requeued.increment();
+            }
+            if (!pending.isEmpty()) {
+                log.warn("WARNING - Queued the pending emails of {} notifications again", pending.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("Cannot queue pending emails again", e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -18,6 +19,7 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Document
+@CompoundIndex(name = "email_pending", def = "{'emailPending': 1, 'emailQueuedDate': 1}")
 public class Notification {
 
     @Id
@@ -26,4 +28,10 @@ public class Notification {
     private LocalDateTime notificationDate;
     private OrderConfirmation orderConfirmation;
     private PaymentConfirmation paymentConfirmation;
+    /**
+     * Set until the email was sent or handed to the retry queue; a notification still
+     * pending long after {@code emailQueuedDate} is queued again.
+     */
+    private boolean emailPending;
+    private LocalDateTime emailQueuedDate;
 }
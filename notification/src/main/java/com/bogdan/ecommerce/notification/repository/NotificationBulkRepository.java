@@ -0,0 +1,30 @@
+package com.bogdan.ecommerce.notification.repository;
+
+import com.bogdan.ecommerce.notification.entity.Notification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationBulkRepository {
+
+    /**
+     * Inserts the notifications in one unordered bulk write. Notifications whose id
+     * already exists are skipped, so replaying a batch does not duplicate them.
+     *
+     * @return the number of notifications actually inserted
+     */
+    int insertAllIgnoringDuplicates(List<Notification> notifications);
+
+    /**
+     * Clears the pending email flag of the notifications.
+     */
+    void markEmailed(Collection<String> ids);
+
+    /**
+     * Claims up to {@code limit} notifications whose email is still pending and was
+     * last queued before {@code queuedBefore}, by moving their queued date to
+     * {@code now}; a notification claimed by another instance is left out.
+     */
+    List<Notification> claimPendingEmails(LocalDateTime queuedBefore, LocalDateTime now, int limit);
+}
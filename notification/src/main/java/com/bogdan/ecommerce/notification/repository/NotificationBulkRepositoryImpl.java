@@ -0,0 +1,79 @@
+package com.bogdan.ecommerce.notification.repository;
+
+import com.bogdan.ecommerce.notification.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class NotificationBulkRepositoryImpl implements NotificationBulkRepository {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public int insertAllIgnoringDuplicates(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        try {
+            return mongoTemplate.bulkOps(BulkMode.UNORDERED, Notification.class)
+                    .insert(notifications)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            return e.getResult().getInsertedCount();
+        }
+    }
+
+    @Override
+    public void markEmailed(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+                Query.query(where("_id").in(ids)),
+                Update.update("emailPending", false),
+                Notification.class
+        );
+    }
+
+    @Override
+    public List<Notification> claimPendingEmails(LocalDateTime queuedBefore, LocalDateTime now, int limit) {
+        var pending = mongoTemplate.find(
+                Query.query(where("emailPending").is(true).and("emailQueuedDate").lt(queuedBefore))
+                        .with(Sort.by("emailQueuedDate"))
+                        .limit(limit),
+                Notification.class
+        );
+        var claimed = new ArrayList<Notification>(pending.size());
+        for (var notification : pending) {
+            var result = mongoTemplate.updateFirst(
+                    Query.query(where("_id").is(notification.getId())
+                            .and("emailQueuedDate").is(notification.getEmailQueuedDate())),
+                    Update.update("emailQueuedDate", now),
+                    Notification.class
+            );
+            if (result.getModifiedCount() == 1) {
+                notification.setEmailQueuedDate(now);
+                claimed.add(notification);
+            }
+        }
+        return claimed;
+    }
+}
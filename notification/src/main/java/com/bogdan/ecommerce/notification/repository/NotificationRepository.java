@@ -3,5 +3,5 @@ package com.bogdan.ecommerce.notification.repository;
 import com.bogdan.ecommerce.notification.entity.Notification;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface NotificationRepository extends MongoRepository<Notification, String> {
+public interface NotificationRepository extends MongoRepository<Notification, String>, NotificationBulkRepository {
 }
@@ -0,0 +1,257 @@
+package com.bogdan.ecommerce.email;
+
+import com.bogdan.ecommerce.email.retry.EmailRetry;
+import com.bogdan.ecommerce.email.retry.EmailRetryStore;
+import com.bogdan.ecommerce.notification.repository.NotificationRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the {@link EmailDispatcher} against an in-process GreenMail SMTP server.
+ */
+class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+    @Mock
+    private MessageListenerContainer listenerContainer;
+    @Mock
+    private EmailRetryStore retryStore;
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JavaMailSenderImpl mailSender;
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(listenerRegistry.getListenerContainers()).thenReturn(List.of(listenerContainer));
+        meterRegistry = new SimpleMeterRegistry();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void TestDispatch_WithManyEmails_ShouldSendThemOverFewConnections() throws Exception {
+        // Arrange
+        int emails = 1000;
+        int connections = 4;
+        dispatcher = dispatcher(emails, connections, emails, emails);
+        dispatcher.start();
+
+        // Act
+        for (int i = 0; i < emails; i++) {
+            dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer" + i + "@mail.com", List.of("n-" + i), message(i));
+        }
+
+        // Assert
+        assertTrue(greenMail.waitForIncomingEmail(30_000, emails));
+        // the server can see the last message before its worker recorded the send
+        dispatcher.stop();
+        assertEquals(emails, greenMail.getReceivedMessages().length);
+        assertTrue(meterRegistry.get("notification.email.connections.opened").counter().count() <= connections);
+        assertEquals(emails, meterRegistry.get("notification.email.send")
+                .tag("template", "ORDER_CONFIRMATION").tag("outcome", "sent").timer().count());
+    }
+
+    @Test
+    public void TestDispatch_WithQueueAboveThreshold_ShouldPauseListenersUntilDrained() throws Exception {
+        // Arrange
+        dispatcher = dispatcher(100, 2, 10, 2);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(EmailTemplates.PAYMENT_CONFIRMATION, "customer" + i + "@mail.com", List.of("n-" + i), message(i));
+        }
+        verify(listenerContainer).pause();
+        verify(listenerContainer, never()).resume();
+        dispatcher.start();
+
+        // Assert
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 10));
+        verify(listenerContainer, times(1)).resume();
+        assertEquals(1, meterRegistry.get("notification.email.listener.pauses").counter().count());
+    }
+
+    @Test
+    public void TestDispatch_WithFailingMessage_ShouldCountFailureAndKeepSending() throws Exception {
+        // Arrange
+        dispatcher = dispatcher(100, 1, 100, 10);
+        dispatcher.start();
+
+        // Act
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "broken@mail.com", List.of("n-0"), mimeMessage -> {
+            throw new IllegalStateException("template failed");
+        });
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer@mail.com", List.of("n-1"), message(1));
+
+        // Assert
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 1));
+        dispatcher.stop();
+        dispatcher = null;
+        assertEquals(1, meterRegistry.get("notification.email.send")
+                .tag("template", "ORDER_CONFIRMATION").tag("outcome", "failed").timer().count());
+        assertEquals(1, meterRegistry.get("notification.email.send")
+                .tag("template", "ORDER_CONFIRMATION").tag("outcome", "sent").timer().count());
+        verify(retryStore).onFailure(eq(EmailTemplates.ORDER_CONFIRMATION), eq("broken@mail.com"),
+                isNull(), any(IllegalStateException.class), isNull());
+        verify(notificationRepository).markEmailed(List.of("n-0"));
+        verify(notificationRepository).markEmailed(List.of("n-1"));
+    }
+
+    @Test
+    public void TestDispatch_WithSmtpDown_ShouldQueueRenderedEmailForRetry() throws Exception {
+        // Arrange
+        mailSender.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        dispatcher = dispatcher(100, 1, 100, 10);
+        dispatcher.start();
+
+        // Act
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer1@mail.com", List.of("n-1"), message(1));
+        dispatcher.stop();
+        dispatcher = null;
+
+        // Assert
+        verify(retryStore).onFailure(eq(EmailTemplates.ORDER_CONFIRMATION), eq("customer1@mail.com"),
+                notNull(), any(MessagingException.class), isNull());
+        verify(notificationRepository).markEmailed(List.of("n-1"));
+    }
+
+    @Test
+    public void TestDispatch_WithRetryStoreDown_ShouldLeaveNotificationPending() throws Exception {
+        // Arrange
+        mailSender.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        doThrow(new IllegalStateException("mongo down")).when(retryStore).onFailure(any(), any(), any(), any(), any());
+        dispatcher = dispatcher(100, 1, 100, 10);
+        dispatcher.start();
+
+        // Act
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer1@mail.com", List.of("n-1"), message(1));
+        dispatcher.stop();
+        dispatcher = null;
+
+        // Assert
+        verify(retryStore).onFailure(any(), any(), any(), any(), any());
+        verify(notificationRepository, never()).markEmailed(anyList());
+    }
+
+    @Test
+    public void TestRedispatch_WithQueuedRetry_ShouldSendStoredMessageAndClearIt() throws Exception {
+        // Arrange
+        var mimeMessage = mailSender.createMimeMessage();
+        message(7).prepare(mimeMessage);
+        var raw = new ByteArrayOutputStream();
+        mimeMessage.writeTo(raw);
+        var retry = EmailRetry.builder()
+                .id("retry-1")
+                .template(EmailTemplates.PAYMENT_CONFIRMATION.name())
+                .destinationEmail("customer7@mail.com")
+                .mime(raw.toByteArray())
+                .attempts(2)
+                .build();
+        dispatcher = dispatcher(100, 1, 100, 10);
+        dispatcher.start();
+
+        // Act
+        assertTrue(dispatcher.redispatch(retry));
+
+        // Assert
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 1));
+        assertEquals("Order confirmation 7", greenMail.getReceivedMessages()[0].getSubject());
+        dispatcher.stop();
+        dispatcher = null;
+        verify(retryStore).onRecovered(retry);
+        verify(notificationRepository, never()).markEmailed(anyList());
+    }
+
+    @Test
+    public void TestDispatch_WithFullQueue_ShouldDeferToRetryStoreWithoutBlocking() {
+        // Arrange
+        dispatcher = dispatcher(2, 1, 2, 1);
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer1@mail.com", List.of("n-1"), message(1));
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer2@mail.com", List.of("n-2"), message(2));
+
+        // Act
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer3@mail.com", List.of("n-3"), message(3));
+
+        // Assert
+        verify(retryStore).defer(eq(EmailTemplates.ORDER_CONFIRMATION), eq("customer3@mail.com"), notNull());
+        verify(notificationRepository).markEmailed(List.of("n-3"));
+        verify(notificationRepository, never()).markEmailed(List.of("n-1"));
+        verify(listenerContainer).pause();
+        assertEquals(1, meterRegistry.get("notification.email.send")
+                .tag("template", "ORDER_CONFIRMATION").tag("outcome", "deferred").timer().count());
+    }
+
+    @Test
+    public void TestRedispatch_WithBusyQueue_ShouldRefuseWithoutBlocking() {
+        // Arrange
+        dispatcher = dispatcher(100, 1, 2, 1);
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer1@mail.com", List.of("n-1"), message(1));
+        dispatcher.dispatch(EmailTemplates.ORDER_CONFIRMATION, "customer2@mail.com", List.of("n-2"), message(2));
+
+        // Act & Assert
+        assertFalse(dispatcher.redispatch(EmailRetry.builder()
+                .template(EmailTemplates.ORDER_CONFIRMATION.name())
+                .destinationEmail("customer3@mail.com")
+                .build()));
+    }
+
+    private EmailDispatcher dispatcher(int queueCapacity, int connections, int pauseThreshold, int resumeThreshold) {
+        return new EmailDispatcher(mailSender, listenerRegistry, retryStore, notificationRepository, meterRegistry,
+                queueCapacity, connections, pauseThreshold, resumeThreshold, 500, 30_000, 10_000);
+    }
+
+    private static MimeMessagePreparator message(int i) {
+        return mimeMessage -> {
+            var helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+            helper.setFrom("contact@aliboucoding.com");
+            helper.setTo("customer" + i + "@mail.com");
+            helper.setSubject("Order confirmation " + i);
+            helper.setText("<p>Order " + i + "</p>", true);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.bogdan.ecommerce.email;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rendering the order confirmation through {@link EmailRenderer} with
+ * processing the whole template per email. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.bogdan.ecommerce.email.EmailRenderBenchmark};
+ * the {@code gc} profiler is enabled, {@code gc.alloc.rate.norm} is the allocation per email.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailRenderBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int products;
+
+    private SpringTemplateEngine templateEngine;
+    private EmailRenderer renderer;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        templateEngine = EmailRendererTest.templateEngine();
+        renderer = new EmailRenderer(templateEngine);
+        variables = EmailRendererTest.orderVariables(products);
+    }
+
+    @Benchmark
+    public String prerendered() {
+        return renderer.render(EmailTemplates.ORDER_CONFIRMATION, variables);
+    }
+
+    @Benchmark
+    public String fullTemplate() {
+        var context = new Context();
+        context.setVariables(new HashMap<>(variables));
+        return templateEngine.process(EmailTemplates.ORDER_CONFIRMATION.getTemplate(), context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailRenderBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.bogdan.ecommerce.email;
+
+import com.bogdan.ecommerce.kafka.order.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailRendererTest {
+
+    private SpringTemplateEngine templateEngine;
+    private EmailRenderer renderer;
+
+    @BeforeEach
+    public void setUp() {
+        templateEngine = templateEngine();
+        renderer = new EmailRenderer(templateEngine);
+    }
+
+    @Test
+    public void TestRender_WithOrderConfirmation_ShouldMatchFullTemplateRender() {
+        // Arrange
+        var variables = orderVariables(3);
+
+        // Act
+        var html = renderer.render(EmailTemplates.ORDER_CONFIRMATION, variables);
+
+        // Assert
+        assertEquals(fullRender(EmailTemplates.ORDER_CONFIRMATION, variables), html);
+        assertEquals(3, html.split("<td>product-").length - 1);
+        assertTrue(html.contains("<span>Jane Doe</span>"));
+        assertTrue(html.contains("<span>ORD-1</span>"));
+        assertEquals(1, html.split("<style>").length - 1);
+    }
+
+    @Test
+    public void TestRender_WithPaymentConfirmation_ShouldMatchFullTemplateRender() {
+        // Arrange
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerName", "Jane Doe");
+        variables.put("amount", new BigDecimal("99.90"));
+        variables.put("orderReference", "ORD-1");
+
+        // Act
+        var html = renderer.render(EmailTemplates.PAYMENT_CONFIRMATION, variables);
+
+        // Assert
+        assertEquals(fullRender(EmailTemplates.PAYMENT_CONFIRMATION, variables), html);
+        assertTrue(html.contains("<span>99.90</span>"));
+    }
+
+    @Test
+    public void TestRender_WithConsecutiveEmails_ShouldNotLeakVariables() {
+        // Act
+        renderer.render(EmailTemplates.ORDER_CONFIRMATION, orderVariables(5));
+        var html = renderer.render(EmailTemplates.ORDER_CONFIRMATION, orderVariables(1));
+
+        // Assert
+        assertEquals(1, html.split("<td>product-").length - 1);
+    }
+
+    static SpringTemplateEngine templateEngine() {
+        var resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        var templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        return templateEngine;
+    }
+
+    static Map<String, Object> orderVariables(int products) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerName", "Jane Doe");
+        variables.put("totalAmount", new BigDecimal("99.90"));
+        variables.put("orderReference", "ORD-1");
+        variables.put("products", IntStream.range(0, products)
+                .mapToObj(i -> new Product(i, "product-" + i, "description", new BigDecimal("9.99"), 2))
+                .toList());
+        return variables;
+    }
+
+    private String fullRender(EmailTemplates template, Map<String, Object> variables) {
+        return templateEngine.process(template.getTemplate(), new Context(Locale.getDefault(), variables));
+    }
+}
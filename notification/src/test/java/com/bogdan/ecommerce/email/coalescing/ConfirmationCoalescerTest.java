@@ -0,0 +1,150 @@
+package com.bogdan.ecommerce.email.coalescing;
+
+import com.bogdan.ecommerce.email.EmailService;
+import com.bogdan.ecommerce.kafka.order.Customer;
+import com.bogdan.ecommerce.kafka.order.OrderConfirmation;
+import com.bogdan.ecommerce.kafka.payment.PaymentConfirmation;
+import com.bogdan.ecommerce.kafka.payment.PaymentMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ConfirmationCoalescerTest {
+
+    @Mock
+    private EmailService emailService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void TestOnConfirmations_WithBothWithinWindow_ShouldSendOneCombinedEmail() {
+        // Arrange
+        var coalescer = coalescer(true, 10);
+
+        // Act
+        coalescer.onOrderConfirmation("order-1", order("ORD-1"));
+        verifyNoInteractions(emailService);
+        coalescer.onPaymentConfirmation("payment-1", payment("ORD-1"));
+
+        // Assert
+        verify(emailService).sendOrderAndPaymentConfirmationEmail(
+                List.of("order-1", "payment-1"), "jane@mail.com", "Jane Doe", new BigDecimal("19.98"), new BigDecimal("19.98"), "ORD-1", List.of());
+        verify(emailService, never()).sendOrderConfirmationEmail(anyList(), anyString(), anyString(), any(), anyString(), anyList());
+        verify(emailService, never()).sendPaymentSuccessEmail(anyList(), anyString(), anyString(), any(), anyString());
+        assertEquals(1, outcome("merged"));
+        assertEquals(0, meterRegistry.get("notification.email.coalescing.pending").gauge().value());
+    }
+
+    @Test
+    public void TestOnConfirmations_WithPaymentFirst_ShouldSendOneCombinedEmail() {
+        // Arrange
+        var coalescer = coalescer(true, 10);
+
+        // Act
+        coalescer.onPaymentConfirmation("payment-1", payment("ORD-1"));
+        coalescer.onOrderConfirmation("order-1", order("ORD-1"));
+
+        // Assert
+        verify(emailService).sendOrderAndPaymentConfirmationEmail(
+                eq(List.of("payment-1", "order-1")), anyString(), anyString(), any(), any(), anyString(), anyList());
+        assertEquals(1, outcome("merged"));
+    }
+
+    @Test
+    public void TestOnConfirmations_WithoutCounterpart_ShouldSendSeparateEmailOnShutdown() {
+        // Arrange
+        var coalescer = coalescer(true, 10);
+        coalescer.onOrderConfirmation("order-1", order("ORD-1"));
+        coalescer.onPaymentConfirmation("payment-2", payment("ORD-2"));
+
+        // Act
+        coalescer.stop();
+
+        // Assert
+        verify(emailService).sendOrderConfirmationEmail(List.of("order-1"), "jane@mail.com", "Jane Doe", new BigDecimal("19.98"), "ORD-1", List.of());
+        verify(emailService).sendPaymentSuccessEmail(List.of("payment-2"), "jane@mail.com", "Jane Doe", new BigDecimal("19.98"), "ORD-2");
+    }
+
+    @Test
+    public void TestOnOrderConfirmation_WithRedelivery_ShouldSendOneEmailAcknowledgingBoth() {
+        // Arrange
+        var coalescer = coalescer(true, 10);
+        coalescer.onOrderConfirmation("order-1", order("ORD-1"));
+
+        // Act
+        coalescer.onOrderConfirmation("order-1b", order("ORD-1"));
+        coalescer.onOrderConfirmation("order-1", order("ORD-1"));
+        coalescer.stop();
+
+        // Assert
+        verify(emailService).sendOrderConfirmationEmail(
+                List.of("order-1", "order-1b"), "jane@mail.com", "Jane Doe", new BigDecimal("19.98"), "ORD-1", List.of());
+        assertEquals(0, meterRegistry.get("notification.email.coalescing.pending").gauge().value());
+    }
+
+    @Test
+    public void TestOnOrderConfirmation_WithFullWheel_ShouldSendRightAway() {
+        // Arrange
+        var coalescer = coalescer(true, 1);
+        coalescer.onOrderConfirmation("order-1", order("ORD-1"));
+
+        // Act
+        coalescer.onOrderConfirmation("order-2", order("ORD-2"));
+
+        // Assert
+        verify(emailService).sendOrderConfirmationEmail(anyList(), anyString(), anyString(), any(), anyString(), anyList());
+        assertEquals(1, outcome("overflow"));
+    }
+
+    @Test
+    public void TestOnOrderConfirmation_WithCoalescingDisabled_ShouldSendRightAway() {
+        // Arrange
+        var coalescer = coalescer(false, 10);
+
+        // Act
+        coalescer.onOrderConfirmation("order-1", order("ORD-1"));
+        coalescer.onPaymentConfirmation("payment-1", payment("ORD-1"));
+
+        // Assert
+        verify(emailService).sendOrderConfirmationEmail(anyList(), anyString(), anyString(), any(), anyString(), anyList());
+        verify(emailService).sendPaymentSuccessEmail(anyList(), anyString(), anyString(), any(), anyString());
+        verify(emailService, never()).sendOrderAndPaymentConfirmationEmail(anyList(), anyString(), anyString(), any(), any(), anyString(), anyList());
+    }
+
+    private ConfirmationCoalescer coalescer(boolean enabled, int maxPending) {
+        return new ConfirmationCoalescer(emailService, meterRegistry, enabled, 10, 250, maxPending);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("notification.email.coalescing").tag("outcome", outcome).counter().count();
+    }
+
+    private static OrderConfirmation order(String reference) {
+        return new OrderConfirmation(reference, new BigDecimal("19.98"), PaymentMethod.VISA,
+                new Customer("c-1", "Jane", "Doe", "jane@mail.com"), List.of());
+    }
+
+    private static PaymentConfirmation payment(String reference) {
+        return new PaymentConfirmation(reference, new BigDecimal("19.98"), PaymentMethod.VISA, "Jane", "Doe", "jane@mail.com");
+    }
+}
@@ -0,0 +1,107 @@
+package com.bogdan.ecommerce.email.coalescing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    public void TestAdvance_WithinWindow_ShouldKeepValue() {
+        // Arrange
+        var wheel = new ExpiringWheel<String>(10 * TICK, TICK, 10, 0);
+        wheel.add("ORD-1", "order");
+
+        // Act
+        var expired = wheel.advance(10 * TICK);
+
+        // Assert
+        assertTrue(expired.isEmpty());
+        assertEquals("order", wheel.remove("ORD-1"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void TestAdvance_PastWindow_ShouldExpireValue() {
+        // Arrange
+        var wheel = new ExpiringWheel<String>(10 * TICK, TICK, 10, 0);
+        wheel.advance(5 * TICK);
+        wheel.add("ORD-1", "order");
+        wheel.advance(12 * TICK);
+        wheel.add("ORD-2", "payment");
+
+        // Act
+        var expired = wheel.advance(16 * TICK);
+
+        // Assert
+        assertEquals(List.of("order"), expired);
+        assertNull(wheel.remove("ORD-1"));
+        assertEquals(List.of("payment"), wheel.advance(23 * TICK));
+    }
+
+    @Test
+    public void TestAdvance_AfterLongPause_ShouldExpireEverything() {
+        // Arrange
+        var wheel = new ExpiringWheel<String>(10 * TICK, TICK, 10, 0);
+        wheel.add("ORD-1", "a");
+        wheel.advance(3 * TICK);
+        wheel.add("ORD-2", "b");
+
+        // Act
+        var expired = wheel.advance(1_000 * TICK);
+
+        // Assert
+        assertEquals(2, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void TestReplace_WithHeldKey_ShouldKeepOriginalExpiry() {
+        // Arrange
+        var wheel = new ExpiringWheel<String>(10 * TICK, TICK, 10, 0);
+        wheel.add("ORD-1", "first");
+        wheel.advance(8 * TICK);
+
+        // Act
+        var replaced = wheel.replace("ORD-1", "redelivered");
+
+        // Assert
+        assertTrue(replaced);
+        assertEquals("redelivered", wheel.get("ORD-1"));
+        assertEquals(List.of("redelivered"), wheel.advance(11 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void TestReplace_WithUnknownKey_ShouldHoldNothing() {
+        // Arrange
+        var wheel = new ExpiringWheel<String>(10 * TICK, TICK, 10, 0);
+
+        // Act
+        var replaced = wheel.replace("ORD-1", "order");
+
+        // Assert
+        assertFalse(replaced);
+        assertNull(wheel.get("ORD-1"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void TestAdd_WhenFull_ShouldRejectNewKeysButReplaceHeldOnes() {
+        // Arrange
+        var wheel = new ExpiringWheel<String>(10 * TICK, TICK, 1, 0);
+        wheel.add("ORD-1", "first");
+
+        // Act & Assert
+        assertFalse(wheel.add("ORD-2", "other"));
+        assertTrue(wheel.add("ORD-1", "redelivered"));
+        assertEquals(List.of("redelivered"), wheel.drain());
+    }
+}
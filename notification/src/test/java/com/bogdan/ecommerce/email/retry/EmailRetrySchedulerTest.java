@@ -0,0 +1,77 @@
+package com.bogdan.ecommerce.email.retry;
+
+import com.bogdan.ecommerce.email.EmailDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailRetrySchedulerTest {
+
+    @Mock
+    private EmailRetryStore store;
+    @Mock
+    private EmailDispatcher dispatcher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailRetryScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new EmailRetryScheduler(store, dispatcher, meterRegistry, 3);
+    }
+
+    @Test
+    public void TestRedrive_WithBusyDispatcher_ShouldReleaseRestOfBatch() {
+        // Arrange
+        var first = retry("retry-1");
+        var second = retry("retry-2");
+        var third = retry("retry-3");
+        when(store.claimDue(3)).thenReturn(List.of(first, second, third));
+        when(dispatcher.redispatch(first)).thenReturn(true);
+        when(dispatcher.redispatch(second)).thenReturn(false);
+
+        // Act
+        scheduler.redrive();
+
+        // Assert
+        verify(store, never()).release(first);
+        verify(store).release(second);
+        verify(store).release(third);
+        verify(dispatcher, never()).redispatch(third);
+        assertEquals(1, meterRegistry.get("notification.email.retries").counter().count());
+    }
+
+    @Test
+    public void TestRedrive_WithEntryMarkedForDeadLetter_ShouldDeadLetterItWithoutRedispatch() {
+        // Arrange
+        var rejected = retry("retry-1");
+        rejected.setDeadLetterReason("rejected");
+        var due = retry("retry-2");
+        when(store.claimDue(3)).thenReturn(List.of(due, rejected));
+        when(dispatcher.redispatch(due)).thenReturn(false);
+
+        // Act
+        scheduler.redrive();
+
+        // Assert
+        verify(store).deadLetter(rejected);
+        verify(dispatcher, never()).redispatch(rejected);
+        verify(store, never()).release(rejected);
+        verify(store).release(due);
+    }
+
+    private static EmailRetry retry(String id) {
+        return EmailRetry.builder().id(id).template("ORDER_CONFIRMATION").destinationEmail("jane@mail.com").build();
+    }
+}
@@ -0,0 +1,218 @@
+package com.bogdan.ecommerce.email.retry;
+
+import com.bogdan.ecommerce.email.EmailTemplates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailRetryStoreTest {
+
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private KafkaTemplate<String, EmailDeadLetter> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailRetryStore store;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        store = new EmailRetryStore(mongoTemplate, kafkaTemplate, meterRegistry, "notification-email-dlq",
+                3, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS, 60_000, 1_000);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    public void TestOnFailure_WithConnectionFailure_ShouldQueueMessageWithBackoff() throws Exception {
+        // Act
+        var before = Instant.now();
+        store.onFailure(EmailTemplates.ORDER_CONFIRMATION, "jane@mail.com", message(), new MessagingException("connect failed"), null);
+
+        // Assert
+        var captor = ArgumentCaptor.forClass(EmailRetry.class);
+        verify(mongoTemplate).save(captor.capture());
+        var retry = captor.getValue();
+        assertEquals(1, retry.getAttempts());
+        assertEquals("ORDER_CONFIRMATION", retry.getTemplate());
+        assertNotNull(retry.getMime());
+        var delay = Duration.between(before, retry.getNextAttemptAt()).toMillis();
+        assertTrue(delay >= INITIAL_BACKOFF_MS / 2 - 50 && delay <= INITIAL_BACKOFF_MS + 50, "delay " + delay);
+        assertEquals(1, meterRegistry.get("notification.email.retry.scheduled").counter().count());
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void TestOnFailure_WithRejectedRecipient_ShouldMarkForDeadLetterWithoutPublishing() throws Exception {
+        // Arrange
+        var rejected = new SendFailedException("550 no such user", null,
+                new InternetAddress[0], new InternetAddress[0], new InternetAddress[]{new InternetAddress("jane@mail.com")});
+
+        // Act
+        var before = Instant.now();
+        store.onFailure(EmailTemplates.PAYMENT_CONFIRMATION, "jane@mail.com", message(), rejected, null);
+
+        // Assert
+        var captor = ArgumentCaptor.forClass(EmailRetry.class);
+        verify(mongoTemplate).save(captor.capture());
+        assertEquals("rejected", captor.getValue().getDeadLetterReason());
+        assertTrue(!captor.getValue().getNextAttemptAt().isBefore(before));
+        assertTrue(captor.getValue().getNextAttemptAt().isBefore(before.plusMillis(INITIAL_BACKOFF_MS / 2)));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        assertEquals(0, meterRegistry.get("notification.email.retry.scheduled").counter().count());
+    }
+
+    @Test
+    public void TestDeadLetter_WithRejectedEmail_ShouldPublishAndRemoveIt() throws Exception {
+        // Arrange
+        var retry = EmailRetry.builder()
+                .id("retry-1")
+                .template("PAYMENT_CONFIRMATION")
+                .destinationEmail("jane@mail.com")
+                .mime("Subject: Order confirmation\r\n\r\nbody".getBytes())
+                .attempts(1)
+                .deadLetterReason("rejected")
+                .build();
+
+        // Act
+        store.deadLetter(retry);
+
+        // Assert
+        var captor = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(kafkaTemplate).send(eq("notification-email-dlq"), eq("jane@mail.com"), captor.capture());
+        assertEquals("rejected", captor.getValue().reason());
+        assertTrue(captor.getValue().mime().contains("Subject: Order confirmation"));
+        verify(mongoTemplate).remove(retry);
+        assertEquals(1, meterRegistry.get("notification.email.dead-lettered").tag("reason", "rejected").counter().count());
+    }
+
+    @Test
+    public void TestOnFailure_WithLastAttempt_ShouldMarkRetryForDeadLetter() throws Exception {
+        // Arrange
+        var retry = EmailRetry.builder()
+                .id("retry-1")
+                .template("ORDER_CONFIRMATION")
+                .destinationEmail("jane@mail.com")
+                .mime("Subject: hi\r\n\r\nbody".getBytes())
+                .attempts(2)
+                .build();
+
+        // Act
+        store.onFailure(EmailTemplates.ORDER_CONFIRMATION, "jane@mail.com", null, new MessagingException("timeout"), retry);
+
+        // Assert
+        verify(mongoTemplate).save(retry);
+        assertEquals(3, retry.getAttempts());
+        assertEquals("exhausted", retry.getDeadLetterReason());
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void TestDeadLetter_WithUnrenderableEmail_ShouldPublishWithoutMessage() {
+        // Arrange
+        store.onFailure(EmailTemplates.ORDER_CONFIRMATION, "jane@mail.com", null, new IllegalStateException("template"), null);
+        var captor = ArgumentCaptor.forClass(EmailRetry.class);
+        verify(mongoTemplate).save(captor.capture());
+
+        // Act
+        store.deadLetter(captor.getValue());
+
+        // Assert
+        var deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(kafkaTemplate).send(eq("notification-email-dlq"), eq("jane@mail.com"), deadLetter.capture());
+        assertEquals("unrenderable", deadLetter.getValue().reason());
+        assertNull(deadLetter.getValue().mime());
+        assertNotNull(deadLetter.getValue().firstFailedAt());
+    }
+
+    @Test
+    public void TestDeadLetter_WithDeadLetterTopicDown_ShouldKeepEmailQueued() {
+        // Arrange
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        var retry = EmailRetry.builder()
+                .id("retry-1")
+                .template("ORDER_CONFIRMATION")
+                .destinationEmail("jane@mail.com")
+                .attempts(1)
+                .deadLetterReason("unrenderable")
+                .build();
+
+        // Act
+        store.deadLetter(retry);
+
+        // Assert
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(EmailRetry.class));
+        verify(mongoTemplate, never()).remove(any());
+        assertTrue(meterRegistry.find("notification.email.dead-lettered").counters().isEmpty());
+    }
+
+    @Test
+    public void TestDefer_WithRenderedEmail_ShouldStoreItDueNow() throws Exception {
+        // Act
+        var before = Instant.now();
+        store.defer(EmailTemplates.ORDER_CONFIRMATION, "jane@mail.com", message());
+
+        // Assert
+        var captor = ArgumentCaptor.forClass(EmailRetry.class);
+        verify(mongoTemplate).save(captor.capture());
+        var retry = captor.getValue();
+        assertEquals(0, retry.getAttempts());
+        assertNotNull(retry.getMime());
+        assertNull(retry.getDeadLetterReason());
+        assertTrue(!retry.getNextAttemptAt().isBefore(before) && !retry.getNextAttemptAt().isAfter(Instant.now()));
+        assertEquals(1, meterRegistry.get("notification.email.retry.deferred").counter().count());
+    }
+
+    @Test
+    public void TestBackoffMs_WithGrowingAttempts_ShouldDoubleWithJitterUpToCap() {
+        for (int attempts = 1; attempts <= 20; attempts++) {
+            // Act
+            long delay = store.backoffMs(attempts);
+
+            // Assert
+            long exponential = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << (attempts - 1));
+            assertTrue(delay >= exponential / 2 && delay <= exponential, "attempt " + attempts + " delay " + delay);
+        }
+    }
+
+    private static MimeMessage message() throws MessagingException {
+        var message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setFrom("contact@aliboucoding.com");
+        message.setRecipients(MimeMessage.RecipientType.TO, "jane@mail.com");
+        message.setSubject("Order confirmation");
+        message.setText("hello");
+        return message;
+    }
+}
@@ -0,0 +1,128 @@
+package com.bogdan.ecommerce.kafka;
+
+import com.bogdan.ecommerce.email.coalescing.ConfirmationCoalescer;
+import com.bogdan.ecommerce.kafka.order.Customer;
+import com.bogdan.ecommerce.kafka.order.OrderConfirmation;
+import com.bogdan.ecommerce.kafka.payment.PaymentConfirmation;
+import com.bogdan.ecommerce.kafka.payment.PaymentMethod;
+import com.bogdan.ecommerce.notification.entity.Notification;
+import com.bogdan.ecommerce.notification.entity.NotificationType;
+import com.bogdan.ecommerce.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationsConsumerTest {
+
+    @Mock
+    private NotificationRepository repository;
+    @Mock
+    private ConfirmationCoalescer coalescer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationsConsumer consumer;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new NotificationsConsumer(repository, coalescer, meterRegistry);
+    }
+
+    @Test
+    public void TestConsumeOrderConfirmations_WithBatch_ShouldInsertOnceThenSendEmails() throws Exception {
+        // Arrange
+        var records = List.of(orderRecord(10, "ORD-1"), orderRecord(11, "ORD-2"), orderRecord(12, "ORD-3"));
+        when(repository.insertAllIgnoringDuplicates(anyList())).thenReturn(3);
+
+        // Act
+        consumer.consumeOrderConfirmationNotifications(records);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder order = inOrder(repository, coalescer);
+        order.verify(repository).insertAllIgnoringDuplicates(captor.capture());
+        order.verify(coalescer).onOrderConfirmation("order-topic-0-10", records.get(0).value());
+        order.verify(coalescer).onOrderConfirmation("order-topic-0-12", records.get(2).value());
+        var notifications = captor.getValue();
+        assertEquals(List.of("order-topic-0-10", "order-topic-0-11", "order-topic-0-12"),
+                notifications.stream().map(Notification::getId).toList());
+        assertEquals(NotificationType.ORDER_CONFIRMATION, notifications.get(0).getType());
+        assertEquals("ORD-1", notifications.get(0).getOrderConfirmation().orderReference());
+        assertTrue(notifications.get(0).isEmailPending());
+        assertEquals(notifications.get(0).getNotificationDate(), notifications.get(0).getEmailQueuedDate());
+        assertEquals(3, meterRegistry.get("notification.consumed").tag("topic", "order-topic").counter().count());
+        assertEquals(1, meterRegistry.get("notification.batch.size").tag("topic", "order-topic").summary().count());
+        var lag = meterRegistry.get("notification.consumer.lag").tag("topic", "order-topic").timer();
+        assertEquals(3, lag.count());
+        assertTrue(lag.max(TimeUnit.MILLISECONDS) >= 1000);
+    }
+
+    @Test
+    public void TestConsumePaymentConfirmations_WithBatch_ShouldInsertOnceThenSendEmails() throws Exception {
+        // Arrange
+        var records = List.of(paymentRecord(0, "ORD-1"), paymentRecord(1, "ORD-2"));
+        when(repository.insertAllIgnoringDuplicates(anyList())).thenReturn(2);
+
+        // Act
+        consumer.consumePaymentSuccessNotifications(records);
+
+        // Assert
+        verify(repository).insertAllIgnoringDuplicates(anyList());
+        verify(coalescer).onPaymentConfirmation("payment-topic-0-0", records.get(0).value());
+        verify(coalescer).onPaymentConfirmation("payment-topic-0-1", records.get(1).value());
+        assertEquals(1, meterRegistry.get("notification.batch.persist").tag("topic", "payment-topic").timer().count());
+    }
+
+    @Test
+    public void TestConsumeOrderConfirmations_WithMongoDown_ShouldFailBatchWithoutEmails() throws Exception {
+        // Arrange
+        var records = List.of(orderRecord(10, "ORD-1"));
+        when(repository.insertAllIgnoringDuplicates(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> consumer.consumeOrderConfirmationNotifications(records));
+        verify(coalescer, never()).onOrderConfirmation(any(), any());
+    }
+
+    private static ConsumerRecord<String, OrderConfirmation> orderRecord(long offset, String reference) {
+        var confirmation = new OrderConfirmation(
+                reference,
+                BigDecimal.TEN,
+                PaymentMethod.VISA,
+                new Customer("c-1", "Jane", "Doe", "jane@mail.com"),
+                List.of()
+        );
+        return new ConsumerRecord<>("order-topic", 0, offset, System.currentTimeMillis() - 1000, TimestampType.CREATE_TIME,
+                -1, -1, reference, confirmation, new RecordHeaders(), Optional.empty());
+    }
+
+    private static ConsumerRecord<String, PaymentConfirmation> paymentRecord(long offset, String reference) {
+        var confirmation = new PaymentConfirmation(reference, BigDecimal.TEN, PaymentMethod.VISA, "Jane", "Doe", "jane@mail.com");
+        return new ConsumerRecord<>("payment-topic", 0, offset, reference, confirmation);
+    }
+}
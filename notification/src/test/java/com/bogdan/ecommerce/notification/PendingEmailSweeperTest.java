@@ -0,0 +1,84 @@
+package com.bogdan.ecommerce.notification;
+
+import com.bogdan.ecommerce.email.coalescing.ConfirmationCoalescer;
+import com.bogdan.ecommerce.kafka.order.Customer;
+import com.bogdan.ecommerce.kafka.order.OrderConfirmation;
+import com.bogdan.ecommerce.kafka.payment.PaymentConfirmation;
+import com.bogdan.ecommerce.kafka.payment.PaymentMethod;
+import com.bogdan.ecommerce.notification.entity.Notification;
+import com.bogdan.ecommerce.notification.entity.NotificationType;
+import com.bogdan.ecommerce.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PendingEmailSweeperTest {
+
+    @Mock
+    private NotificationRepository repository;
+    @Mock
+    private ConfirmationCoalescer coalescer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PendingEmailSweeper sweeper;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new PendingEmailSweeper(repository, coalescer, meterRegistry, 300, 50);
+    }
+
+    @Test
+    public void TestSweep_WithPendingNotifications_ShouldQueueTheirEmailsAgain() {
+        // Arrange
+        var order = new OrderConfirmation("ORD-1", BigDecimal.TEN, PaymentMethod.VISA,
+                new Customer("c-1", "Jane", "Doe", "jane@mail.com"), List.of());
+        var payment = new PaymentConfirmation("ORD-2", BigDecimal.TEN, PaymentMethod.VISA, "Jane", "Doe", "jane@mail.com");
+        when(repository.claimPendingEmails(any(), any(), anyInt())).thenReturn(List.of(
+                Notification.builder().id("order-topic-0-1").type(NotificationType.ORDER_CONFIRMATION).orderConfirmation(order).build(),
+                Notification.builder().id("payment-topic-0-4").type(NotificationType.PAYMENT_CONFIRMATION).paymentConfirmation(payment).build()
+        ));
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        var queuedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        var now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).claimPendingEmails(queuedBefore.capture(), now.capture(), eq(50));
+        assertEquals(Duration.ofSeconds(300), Duration.between(queuedBefore.getValue(), now.getValue()));
+        verify(coalescer).onOrderConfirmation("order-topic-0-1", order);
+        verify(coalescer).onPaymentConfirmation("payment-topic-0-4", payment);
+        assertEquals(2, meterRegistry.get("notification.email.pending.requeued").counter().count());
+    }
+
+    @Test
+    public void TestSweep_WithMongoDown_ShouldKeepRunning() {
+        // Arrange
+        when(repository.claimPendingEmails(any(), any(), anyInt())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verifyNoInteractions(coalescer);
+    }
+}
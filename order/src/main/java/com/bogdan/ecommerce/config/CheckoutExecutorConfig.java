@@ -0,0 +1,31 @@
+package com.bogdan.ecommerce.config;
+
+import com.bogdan.ecommerce.deadline.RequestDeadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class CheckoutExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor checkoutExecutor(
+            @Value("${application.checkout.pool-size:16}") int poolSize,
+            @Value("${application.checkout.queue-capacity:200}") int queueCapacity
+    ) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("checkout-");
+        executor.setTaskDecorator(RequestDeadline::propagate);
+        // a full queue runs the call on the request thread instead of failing the checkout
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.bogdan.ecommerce.config;
+
+import com.bogdan.ecommerce.deadline.DeadlineFeignClient;
+import com.bogdan.ecommerce.hedging.AbortableHttpClient;
+import com.bogdan.ecommerce.hedging.HedgingFeignClient;
+import com.bogdan.ecommerce.hedging.RequestHedger;
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feign client shared by all Feign interfaces: pooled Apache client, read timeout
+ * shortened to the request deadline, GETs hedged with the losing attempt aborted.
+ */
+@Configuration
+public class FeignClientConfig {
+
+    @Bean
+    public Client feignClient(CloseableHttpClient httpClient, RequestHedger hedger) {
+        return new HedgingFeignClient(new DeadlineFeignClient(new ApacheHttp5Client(new AbortableHttpClient(httpClient))), hedger);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bogdan.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class HedgingExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor hedgingExecutor(
+            @Value("${application.hedging.pool-size:32}") int poolSize
+    ) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        // no queue: a saturated pool skips the hedge instead of sending it late
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("hedging-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -14,4 +14,18 @@ public class KafkaOrderTopicConfig {
                 .name("order-topic")
                 .build();
     }
+
+    @Bean
+    public NewTopic paymentRequestTopic() {
+        return TopicBuilder
+                .name("payment-request-topic")
+                .build();
+    }
+
+    @Bean
+    public NewTopic productReleaseTopic() {
+        return TopicBuilder
+                .name("product-release-topic")
+                .build();
+    }
 }
@@ -0,0 +1,25 @@
+package com.bogdan.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OrderSubmissionExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor orderSubmissionExecutor(
+            @Value("${application.order-submission.concurrency:8}") int concurrency
+    ) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        // the worker never claims more submissions than there are free threads
+        executor.setQueueCapacity(concurrency);
+        executor.setThreadNamePrefix("order-submission-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
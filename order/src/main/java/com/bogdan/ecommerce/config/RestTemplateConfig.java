@@ -1,14 +1,52 @@
 package com.bogdan.ecommerce.config;
 
+import com.bogdan.ecommerce.deadline.RequestDeadline;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * The RestTemplate only talks to the product service, so its response timeout is
+     * the product one rather than the shared client default, shortened to the remaining
+     * request budget. The budget itself is passed on in the deadline header.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            CloseableHttpClient httpClient,
+            @Value("${application.config.product-timeout-ms:2000}") long productTimeoutMs
+    ) {
+        return builder
+                .requestFactory(() -> {
+                    var requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+                    requestFactory.setHttpContextFactory((method, uri) -> {
+                        var timeout = Timeout.ofMilliseconds(RequestDeadline.timeoutMs(productTimeoutMs));
+                        var context = HttpClientContext.create();
+                        context.setRequestConfig(RequestConfig.custom()
+                                .setConnectionRequestTimeout(timeout)
+                                .setResponseTimeout(timeout)
+                                .build());
+                        return context;
+                    });
+                    return requestFactory;
+                })
+                .additionalInterceptors((request, body, execution) -> {
+                    if (RequestDeadline.isSet()) {
+                        RequestDeadline.check("calling " + request.getURI().getPath());
+                        request.getHeaders().set(RequestDeadline.HEADER, String.valueOf(RequestDeadline.remainingMs()));
+                    }
+                    return execution.execute(request, body);
+                })
+                .build();
     }
 }
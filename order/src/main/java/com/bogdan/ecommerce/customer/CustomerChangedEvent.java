@@ -0,0 +1,7 @@
+package com.bogdan.ecommerce.customer;
+
+public record CustomerChangedEvent(
+    String customerId
+) {
+
+}
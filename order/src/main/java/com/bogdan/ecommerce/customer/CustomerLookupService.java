@@ -0,0 +1,104 @@
+package com.bogdan.ecommerce.customer;
+
+import com.bogdan.ecommerce.resilience.DownstreamCallGuard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Looks customers up through {@link CustomerClient} behind a bounded local cache.
+ * <p>
+ * Missing customers are cached too, with a shorter TTL, so retries with a bad ID do
+ * not hit the customer service every time. Entries are evicted early when the customer
+ * service publishes a change on {@code customer-topic}.
+ */
+@Service
+public class CustomerLookupService {
+
+    static final String CLIENT = "customer";
+
+    private final CustomerClient customerClient;
+    private final DownstreamCallGuard guard;
+    private final Cache<String, Optional<CustomerResponse>> cache;
+
+    public CustomerLookupService(
+            CustomerClient customerClient,
+            DownstreamCallGuard guard,
+            MeterRegistry meterRegistry,
+            @Value("${application.customer-cache.enabled:true}") boolean enabled,
+            @Value("${application.customer-cache.maximum-size:10000}") long maximumSize,
+            @Value("${application.customer-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${application.customer-cache.negative-ttl-seconds:30}") long negativeTtlSeconds
+    ) {
+        this.customerClient = customerClient;
+        this.guard = guard;
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CustomerExpiry(
+                        Duration.ofSeconds(ttlSeconds).toNanos(),
+                        Duration.ofSeconds(negativeTtlSeconds).toNanos()
+                ))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "customers");
+    }
+
+    public Optional<CustomerResponse> findCustomerById(String customerId) {
+        if (cache == null) {
+            return fetch(customerId);
+        }
+        return cache.get(customerId, this::fetch);
+    }
+
+    @KafkaListener(
+            topics = "customer-topic",
+            groupId = "order-customer-cache-#{T(java.util.UUID).randomUUID()}",
+            autoStartup = "${application.customer-cache.enabled:true}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (cache != null) {
+            cache.invalidate(event.customerId());
+        }
+    }
+
+    private Optional<CustomerResponse> fetch(String customerId) {
+        try {
+            return guard.call(CLIENT, () -> customerClient.findCustomerById(customerId));
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private record CustomerExpiry(long ttlNanos, long negativeTtlNanos)
+            implements Expiry<String, Optional<CustomerResponse>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<CustomerResponse> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<CustomerResponse> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<CustomerResponse> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.bogdan.ecommerce.exception;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class RequestKeyMismatchException extends RuntimeException {
+
+  private final String msg;
+}
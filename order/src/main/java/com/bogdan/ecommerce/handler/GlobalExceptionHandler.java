@@ -1,7 +1,11 @@
 package com.bogdan.ecommerce.handler;
 
+import com.bogdan.ecommerce.deadline.DeadlineExceededException;
 import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.exception.RequestInProgressException;
+import com.bogdan.ecommerce.exception.RequestKeyMismatchException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -42,6 +46,28 @@ public class GlobalExceptionHandler {
   public ResponseEntity<String> handle(BusinessException exp) {
     return ResponseEntity
         .status(HttpStatus.BAD_REQUEST)
-        .body(exp.getMsg());
+        .body(exp.getMessage());
+  }
+
+  @ExceptionHandler(RequestInProgressException.class)
+  public ResponseEntity<String> handle(RequestInProgressException exp) {
+    return ResponseEntity
+        .status(HttpStatus.CONFLICT)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(exp.getMessage());
+  }
+
+  @ExceptionHandler(RequestKeyMismatchException.class)
+  public ResponseEntity<String> handle(RequestKeyMismatchException exp) {
+    return ResponseEntity
+        .status(HttpStatus.UNPROCESSABLE_ENTITY)
+        .body(exp.getMessage());
+  }
+
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<String> handle(DeadlineExceededException exp) {
+    return ResponseEntity
+        .status(HttpStatus.GATEWAY_TIMEOUT)
+        .body(exp.getMessage());
   }
 }
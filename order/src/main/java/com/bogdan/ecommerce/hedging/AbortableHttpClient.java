@@ -0,0 +1,63 @@
+package com.bogdan.ecommerce.hedging;
+
+import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+/**
+ * Sends the requests of a {@link HedgedAttempt} so that the {@link RequestHedger} can
+ * abort them once the other attempt won: aborting closes the connection, and the
+ * blocked attempt fails right away instead of waiting for its response. The pooled
+ * client is owned by its bean and is not closed here.
+ */
+public class AbortableHttpClient extends CloseableHttpClient {
+
+    private final CloseableHttpClient delegate;
+
+    public AbortableHttpClient(CloseableHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(
+            HttpHost target,
+            ClassicHttpRequest request,
+            HttpContext context
+    ) throws IOException {
+        var attempt = HedgedAttempt.current();
+        if (attempt == null) {
+            return delegate.execute(target, request, context);
+        }
+        var abortable = abortable(request);
+        attempt.onAbort(abortable::cancel);
+        return delegate.execute(target, abortable, context);
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static HttpUriRequestBase abortable(ClassicHttpRequest request) throws ClientProtocolException {
+        try {
+            var abortable = new HttpUriRequestBase(request.getMethod(), request.getUri());
+            abortable.setVersion(request.getVersion());
+            abortable.setHeaders(request.getHeaders());
+            abortable.setEntity(request.getEntity());
+            return abortable;
+        } catch (URISyntaxException e) {
+            throw new ClientProtocolException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bogdan.ecommerce.hedging;
+
+/**
+ * Token bucket that caps hedges to a share of the calls: every call earns
+ * {@code ratio} of a token, every hedge spends a whole one, and at most
+ * {@code burst} tokens can be saved up. A slow dependency therefore sees at most
+ * {@code ratio} extra load instead of twice its traffic.
+ */
+class HedgeBudget {
+
+    private final double ratio;
+    private final double burst;
+    private double tokens;
+
+    HedgeBudget(double ratio, double burst) {
+        this.ratio = ratio;
+        this.burst = burst;
+        this.tokens = burst;
+    }
+
+    synchronized void onCall() {
+        tokens = Math.min(burst, tokens + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.bogdan.ecommerce.hedging;
+
+import java.util.concurrent.Callable;
+
+/**
+ * One attempt of a hedged call. Work running inside {@link #run} can register how to
+ * abort it, so the attempt that lost can be cut short instead of holding its thread
+ * and connection until it answers.
+ */
+final class HedgedAttempt {
+
+    private static final ThreadLocal<HedgedAttempt> CURRENT = new ThreadLocal<>();
+
+    private volatile Runnable abortAction;
+    private volatile boolean aborted;
+
+    /**
+     * The attempt running on this thread, {@code null} outside a hedged call.
+     */
+    static HedgedAttempt current() {
+        return CURRENT.get();
+    }
+
+    <T> T run(Callable<T> attempt) throws Exception {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return attempt.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Registers how to abort the work in progress, running it right away when the
+     * attempt was aborted already.
+     */
+    void onAbort(Runnable action) {
+        abortAction = action;
+        if (aborted) {
+            action.run();
+        }
+    }
+
+    void abort() {
+        aborted = true;
+        var action = abortAction;
+        if (action != null) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.bogdan.ecommerce.hedging;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * Hedges Feign GETs through the {@link RequestHedger}; other methods are not
+ * idempotent and are sent once. A second attempt goes through the load balanced
+ * URL again, so it usually lands on another instance.
+ */
+public class HedgingFeignClient implements Client {
+
+    private final Client delegate;
+    private final RequestHedger hedger;
+
+    public HedgingFeignClient(Client delegate, RequestHedger hedger) {
+        this.delegate = delegate;
+        this.hedger = hedger;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return delegate.execute(request, options);
+        }
+        try {
+            return hedger.call(clientOf(request), () -> delegate.execute(request, options), Response::close);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String clientOf(Request request) {
+        var template = request.requestTemplate();
+        return template != null && template.feignTarget() != null ? template.feignTarget().name() : "unknown";
+    }
+}
@@ -0,0 +1,44 @@
+package com.bogdan.ecommerce.hedging;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the latest call latencies of one client. The percentile is
+ * recomputed every {@code refreshEvery} samples instead of on every read.
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int refreshEvery;
+    private int next;
+    private int count;
+    private int sinceRefresh;
+    private long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+        this.refreshEvery = Math.max(size / 10, 1);
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (++sinceRefresh >= refreshEvery) {
+            sinceRefresh = 0;
+            var sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            var index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            percentileNanos = sorted[Math.max(index, 0)];
+        }
+    }
+
+    /**
+     * The configured percentile of the window, or {@code -1} until enough samples were seen.
+     */
+    synchronized long percentileNanos() {
+        return percentileNanos;
+    }
+}
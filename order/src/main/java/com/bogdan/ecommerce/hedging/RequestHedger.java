@@ -0,0 +1,274 @@
+package com.bogdan.ecommerce.hedging;
+
+import com.bogdan.ecommerce.deadline.RequestDeadline;
+import com.bogdan.ecommerce.resilience.DownstreamCallGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hedges idempotent calls: the first attempt runs on the caller thread, and when it
+ * has not answered within the configured latency percentile of its client, a second
+ * identical attempt is sent on the hedging executor and whichever answers first
+ * wins. The losing attempt is aborted, and a response it still produced is handed to
+ * a discard callback so its connection can be released.
+ * <p>
+ * Hedges are capped per client by a {@link HedgeBudget} and, when the call runs
+ * behind the {@link DownstreamCallGuard}, by a permit of its bulkhead; only
+ * successful attempts win, and a call fails only once every attempt failed. Calls,
+ * hedges and hedge wins are counted per client, so hedge rate is
+ * {@code hedges / calls} and win rate is {@code wins / hedges}.
+ */
+@Component
+public class RequestHedger {
+
+    private final Executor executor;
+    private final DownstreamCallGuard guard;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+    private final int budgetBurst;
+    private final int windowSize;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ConcurrentMap<String, ClientState> clients = new ConcurrentHashMap<>();
+
+    public RequestHedger(
+            @Qualifier("hedgingExecutor") Executor executor,
+            DownstreamCallGuard guard,
+            MeterRegistry meterRegistry,
+            @Value("${application.hedging.enabled:false}") boolean enabled,
+            @Value("${application.hedging.percentile:95}") double percentile,
+            @Value("${application.hedging.initial-delay-ms:50}") long initialDelayMs,
+            @Value("${application.hedging.min-delay-ms:5}") long minDelayMs,
+            @Value("${application.hedging.budget-ratio:0.05}") double budgetRatio,
+            @Value("${application.hedging.budget-burst:10}") int budgetBurst,
+            @Value("${application.hedging.window-size:1000}") int windowSize
+    ) {
+        this.executor = executor;
+        this.guard = guard;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.budgetRatio = budgetRatio;
+        this.budgetBurst = budgetBurst;
+        this.windowSize = windowSize;
+        // only fires the hedges, which are sent on the executor
+        var threadFactory = new CustomizableThreadFactory("hedging-timer-");
+        threadFactory.setDaemon(true);
+        this.timer = new ScheduledThreadPoolExecutor(1, threadFactory);
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    public <T> T call(String client, Callable<T> attempt, Consumer<T> discard) throws Exception {
+        if (!enabled) {
+            return attempt.call();
+        }
+        var state = clients.computeIfAbsent(client, this::newState);
+        state.calls.increment();
+        state.budget.onCall();
+
+        var call = new HedgedCall<>(state, guard.currentClient(), attempt, discard);
+        var delayNanos = state.delayNanos();
+        var hedgeTimer = timer.schedule(RequestDeadline.propagate(() -> call.sendHedge(delayNanos)),
+                delayNanos, TimeUnit.NANOSECONDS);
+        try {
+            return call.runPrimary();
+        } finally {
+            hedgeTimer.cancel(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private ClientState newState(String client) {
+        var state = new ClientState(
+                new LatencyWindow(windowSize, percentile),
+                new HedgeBudget(budgetRatio, budgetBurst),
+                counter("order.hedging.calls", "Number of hedgeable calls", client),
+                counter("order.hedging.hedges", "Number of hedge attempts sent", client),
+                counter("order.hedging.wins", "Number of hedge attempts that answered first", client)
+        );
+        Gauge.builder("order.hedging.delay", state, s -> TimeUnit.NANOSECONDS.toMillis(s.delayNanos()))
+                .description("Current delay in milliseconds before a call is hedged")
+                .tag("client", client)
+                .register(meterRegistry);
+        return state;
+    }
+
+    private Counter counter(String name, String description, String client) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    private class HedgedCall<T> {
+
+        private final ClientState state;
+        private final String guardedClient;
+        private final Callable<T> attempt;
+        private final Consumer<T> discard;
+        private final HedgedAttempt primary = new HedgedAttempt();
+        private final HedgedAttempt hedge = new HedgedAttempt();
+        private final CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+        private boolean primaryDone;
+        private boolean hedgeSent;
+        private HedgedAttempt winner;
+
+        HedgedCall(ClientState state, String guardedClient, Callable<T> attempt, Consumer<T> discard) {
+            this.state = state;
+            this.guardedClient = guardedClient;
+            this.attempt = attempt;
+            this.discard = discard;
+        }
+
+        T runPrimary() throws Exception {
+            T result;
+            try {
+                result = measure(primary);
+            } catch (Exception e) {
+                if (!finishPrimary()) {
+                    throw e;
+                }
+                try {
+                    return hedgeResult.get();
+                } catch (ExecutionException hedgeFailure) {
+                    throw e;
+                }
+            }
+            finishPrimary();
+            if (win(primary)) {
+                hedge.abort();
+                return result;
+            }
+            discard(result);
+            return hedgeResult.get();
+        }
+
+        /**
+         * Runs on the timer once the primary is slower than the percentile; sends the
+         * hedge unless the primary answered meanwhile or the budget, the bulkhead or
+         * the deadline does not allow it.
+         */
+        void sendHedge(long delayNanos) {
+            synchronized (this) {
+                if (primaryDone || RequestDeadline.remainingMs() < TimeUnit.NANOSECONDS.toMillis(delayNanos)) {
+                    return;
+                }
+                if (guardedClient != null && !guard.tryAcquirePermission(guardedClient)) {
+                    return;
+                }
+                if (!state.budget.tryAcquire()) {
+                    releasePermission();
+                    return;
+                }
+                hedgeSent = true;
+            }
+            try {
+                executor.execute(RequestDeadline.propagate(this::runHedge));
+                state.hedges.increment();
+            } catch (RejectedExecutionException e) {
+                releasePermission();
+                hedgeResult.completeExceptionally(e);
+            }
+        }
+
+        private void runHedge() {
+            try {
+                var result = measure(hedge);
+                if (win(hedge)) {
+                    state.wins.increment();
+                    primary.abort();
+                } else {
+                    discard(result);
+                }
+                hedgeResult.complete(result);
+            } catch (Throwable e) {
+                hedgeResult.completeExceptionally(e);
+            } finally {
+                releasePermission();
+            }
+        }
+
+        private T measure(HedgedAttempt handle) throws Exception {
+            long start = System.nanoTime();
+            var result = handle.run(attempt);
+            state.latencies.record(System.nanoTime() - start);
+            return result;
+        }
+
+        /**
+         * Marks the primary as done, so no hedge is sent anymore; tells whether one was.
+         */
+        private synchronized boolean finishPrimary() {
+            primaryDone = true;
+            return hedgeSent;
+        }
+
+        private synchronized boolean win(HedgedAttempt attempt) {
+            if (winner != null) {
+                return false;
+            }
+            winner = attempt;
+            return true;
+        }
+
+        private void discard(T result) {
+            if (discard != null) {
+                discard.accept(result);
+            }
+        }
+
+        private void releasePermission() {
+            if (guardedClient != null) {
+                guard.releasePermission(guardedClient);
+            }
+        }
+    }
+
+    private class ClientState {
+
+        final LatencyWindow latencies;
+        final HedgeBudget budget;
+        final Counter calls;
+        final Counter hedges;
+        final Counter wins;
+
+        ClientState(LatencyWindow latencies, HedgeBudget budget, Counter calls, Counter hedges, Counter wins) {
+            this.latencies = latencies;
+            this.budget = budget;
+            this.calls = calls;
+            this.hedges = hedges;
+            this.wins = wins;
+        }
+
+        long delayNanos() {
+            var observed = latencies.percentileNanos();
+            return Math.max(observed < 0 ? initialDelayNanos : observed, minDelayNanos);
+        }
+    }
+}
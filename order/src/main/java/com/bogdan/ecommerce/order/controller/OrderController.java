@@ -2,9 +2,13 @@ package com.bogdan.ecommerce.order.controller;
 
 import java.util.List;
 
+import com.bogdan.ecommerce.order.entity.OrderHistoryPage;
 import com.bogdan.ecommerce.order.entity.OrderRequest;
 import com.bogdan.ecommerce.order.entity.OrderResponse;
+import com.bogdan.ecommerce.order.service.IdempotentOrderService;
 import com.bogdan.ecommerce.order.service.OrderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -12,7 +16,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -21,12 +27,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class OrderController {
 
   private final OrderService service;
+  private final IdempotentOrderService idempotentOrderService;
 
+  /**
+   * Answers the order ID as a JSON string: Snowflake IDs do not fit the 53 bits that
+   * JavaScript clients can represent exactly.
+   */
   @PostMapping
-  public ResponseEntity<Integer> createOrder(
+  public ResponseEntity<JsonNode> createOrder(
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
       @RequestBody @Valid OrderRequest request
   ) {
-    return ResponseEntity.ok(this.service.createOrder(request));
+    var orderId = this.idempotentOrderService.createOrder(idempotencyKey, request);
+    return ResponseEntity.ok(TextNode.valueOf(String.valueOf(orderId)));
   }
 
   @GetMapping
@@ -34,9 +47,18 @@ public class OrderController {
     return ResponseEntity.ok(this.service.findAllOrders());
   }
 
+  @GetMapping(params = "customerId")
+  public ResponseEntity<OrderHistoryPage> findByCustomer(
+      @RequestParam("customerId") String customerId,
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "size", defaultValue = "20") int size
+  ) {
+    return ResponseEntity.ok(this.service.findByCustomer(customerId, after, size));
+  }
+
   @GetMapping("/{order-id}")
   public ResponseEntity<OrderResponse> findById(
-      @PathVariable("order-id") Integer orderId
+      @PathVariable("order-id") Long orderId
   ) {
     return ResponseEntity.ok(this.service.findById(orderId));
   }
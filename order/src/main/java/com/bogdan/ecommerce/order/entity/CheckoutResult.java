@@ -0,0 +1,13 @@
+package com.bogdan.ecommerce.order.entity;
+
+import com.bogdan.ecommerce.customer.CustomerResponse;
+import com.bogdan.ecommerce.product.model.PurchaseResponse;
+
+import java.util.List;
+
+public record CheckoutResult(
+    CustomerResponse customer,
+    List<PurchaseResponse> purchasedProducts
+) {
+
+}
@@ -1,15 +1,16 @@
 package com.bogdan.ecommerce.order.entity;
 
+import com.bogdan.ecommerce.id.SnowflakeId;
 import com.bogdan.ecommerce.orderline.OrderLine;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,14 +31,17 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @NoArgsConstructor
-@Table(name = "customer_order")
+@Table(
+    name = "customer_order",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"reference", "created_date"})
+)
 public class Order {
 
   @Id
-  @GeneratedValue
-  private Integer id;
+  @SnowflakeId
+  private Long id;
 
-  @Column(unique = true,  nullable = false)
+  @Column(nullable = false)
   private String reference;
 
   private BigDecimal totalAmount;
@@ -47,6 +51,9 @@ public class Order {
 
   private String customerId;
 
+  @Enumerated(EnumType.STRING)
+  private OrderStatus status;
+
   @OneToMany(mappedBy = "order")
   private List<OrderLine> orderLines;
 
@@ -0,0 +1,10 @@
+package com.bogdan.ecommerce.order.entity;
+
+import java.util.List;
+
+public record OrderHistoryPage(
+    List<OrderSummaryResponse> content,
+    String nextCursor
+) {
+
+}
@@ -12,7 +12,7 @@ import java.util.List;
 
 @JsonInclude(Include.NON_EMPTY)
 public record OrderRequest(
-    Integer id,
+    Long id,
     String reference,
     @Positive(message = "Order amount should be positive")
     BigDecimal amount,
@@ -0,0 +1,45 @@
+package com.bogdan.ecommerce.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Records which order a client request key produced; the primary key doubles as
+ * the unique index that deduplicates submissions across order instances. Keys are
+ * scoped by customer, and the hash of the request body tells a retry apart from a
+ * different request sent with the same key.
+ */
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@IdClass(OrderRequestKeyId.class)
+@NoArgsConstructor
+@Table(name = "order_request_key")
+public class OrderRequestKey {
+
+  @Id
+  private String customerId;
+
+  @Id
+  private String requestKey;
+
+  @Column(nullable = false)
+  private String requestHash;
+
+  private Long orderId;
+
+  @Column(updatable = false, nullable = false)
+  private LocalDateTime createdDate;
+}
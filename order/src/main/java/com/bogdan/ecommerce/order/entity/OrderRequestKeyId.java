@@ -0,0 +1,19 @@
+package com.bogdan.ecommerce.order.entity;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public class OrderRequestKeyId implements Serializable {
+
+  private String customerId;
+
+  private String requestKey;
+}
@@ -2,15 +2,19 @@ package com.bogdan.ecommerce.order.entity;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import java.math.BigDecimal;
 
 @JsonInclude(Include.NON_EMPTY)
 public record OrderResponse(
-    Integer id,
+    @JsonSerialize(using = ToStringSerializer.class)
+    Long id,
     String reference,
     BigDecimal amount,
     PaymentMethod paymentMethod,
-    String customerId
+    String customerId,
+    OrderStatus status
 ) {
 
 }
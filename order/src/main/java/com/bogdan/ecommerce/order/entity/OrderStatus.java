@@ -0,0 +1,7 @@
+package com.bogdan.ecommerce.order.entity;
+
+public enum OrderStatus {
+  PAYMENT_PENDING,
+  PAID,
+  PAYMENT_FAILED
+}
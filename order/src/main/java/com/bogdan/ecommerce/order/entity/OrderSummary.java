@@ -0,0 +1,85 @@
+package com.bogdan.ecommerce.order.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Denormalized order header served by the customer order history; written in the
+ * same transaction as the order and updated when its payment settles.
+ * <p>
+ * The id is the order's, assigned before saving, so the entity tells Spring Data
+ * whether it is new; otherwise {@code save} would merge and SELECT the row first.
+ */
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(
+    name = "customer_order_summary",
+    indexes = @Index(name = "idx_order_summary_customer_created", columnList = "customer_id, created_date, order_id")
+)
+public class OrderSummary implements Persistable<Long> {
+
+  @Id
+  private Long orderId;
+
+  @Column(nullable = false)
+  private String customerId;
+
+  @Column(nullable = false)
+  private String reference;
+
+  private BigDecimal totalAmount;
+
+  @Enumerated(EnumType.STRING)
+  private PaymentMethod paymentMethod;
+
+  @Enumerated(EnumType.STRING)
+  private OrderStatus status;
+
+  private int lineCount;
+
+  @Column(nullable = false)
+  private LocalDateTime createdDate;
+
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean persisted;
+
+  @Override
+  public Long getId() {
+    return orderId;
+  }
+
+  @Override
+  public boolean isNew() {
+    return !persisted;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markPersisted() {
+    persisted = true;
+  }
+}
@@ -0,0 +1,22 @@
+package com.bogdan.ecommerce.order.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@JsonInclude(Include.NON_EMPTY)
+public record OrderSummaryResponse(
+    @JsonSerialize(using = ToStringSerializer.class)
+    Long orderId,
+    String reference,
+    BigDecimal totalAmount,
+    PaymentMethod paymentMethod,
+    OrderStatus status,
+    int lineCount,
+    LocalDateTime createdDate
+) {
+
+}
@@ -3,21 +3,24 @@ package com.bogdan.ecommerce.order.mapper;
 import com.bogdan.ecommerce.order.entity.Order;
 import com.bogdan.ecommerce.order.entity.OrderRequest;
 import com.bogdan.ecommerce.order.entity.OrderResponse;
+import com.bogdan.ecommerce.order.entity.OrderStatus;
+import java.math.BigDecimal;
 import org.springframework.stereotype.Service;
 
 @Service
 public class OrderMapper {
 
 
-  public Order toOrder(OrderRequest request) {
+  public Order toOrder(OrderRequest request, String reference, BigDecimal totalAmount) {
     if (request == null) {
       return null;
     }
     return Order.builder()
-        .id(request.id())
-        .reference(request.reference())
+        .reference(reference)
+        .totalAmount(totalAmount)
         .paymentMethod(request.paymentMethod())
         .customerId(request.customerId())
+        .status(OrderStatus.PAYMENT_PENDING)
         .build();
   }
 
@@ -27,7 +30,8 @@ public class OrderMapper {
         order.getReference(),
         order.getTotalAmount(),
         order.getPaymentMethod(),
-        order.getCustomerId()
+        order.getCustomerId(),
+        order.getStatus()
     );
   }
 }
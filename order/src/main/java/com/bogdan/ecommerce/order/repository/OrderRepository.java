@@ -1,8 +1,18 @@
 package com.bogdan.ecommerce.order.repository;
 
 import com.bogdan.ecommerce.order.entity.Order;
+import com.bogdan.ecommerce.order.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+public interface OrderRepository extends JpaRepository<Order, Long> {
 
+  @Modifying
+  @Query("""
+      update Order o set o.status = :status, o.lastModifiedDate = CURRENT_TIMESTAMP
+      where o.id = :id and o.status = com.bogdan.ecommerce.order.entity.OrderStatus.PAYMENT_PENDING
+      """)
+  int updateStatusIfPending(@Param("id") Long id, @Param("status") OrderStatus status);
 }
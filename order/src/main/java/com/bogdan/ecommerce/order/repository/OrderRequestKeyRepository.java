@@ -0,0 +1,62 @@
+package com.bogdan.ecommerce.order.repository;
+
+import com.bogdan.ecommerce.order.entity.OrderRequestKey;
+import com.bogdan.ecommerce.order.entity.OrderRequestKeyId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface OrderRequestKeyRepository extends JpaRepository<OrderRequestKey, OrderRequestKeyId> {
+
+  /**
+   * Inserts the key, or takes over a claim that never got an order and is older than
+   * {@code staleBefore}; returns 0 when the key is held by a live claim or an order.
+   */
+  @Modifying
+  @Query(
+      value = """
+          INSERT INTO order_request_key (customer_id, request_key, request_hash, created_date)
+          VALUES (:customerId, :key, :requestHash, :now)
+          ON CONFLICT (customer_id, request_key) DO UPDATE
+          SET request_hash = excluded.request_hash, created_date = excluded.created_date
+          WHERE order_request_key.order_id IS NULL AND order_request_key.created_date < :staleBefore
+          """,
+      nativeQuery = true
+  )
+  int claim(
+      @Param("customerId") String customerId,
+      @Param("key") String key,
+      @Param("requestHash") String requestHash,
+      @Param("now") LocalDateTime now,
+      @Param("staleBefore") LocalDateTime staleBefore
+  );
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select k from OrderRequestKey k where k.customerId = :customerId and k.requestKey = :key")
+  Optional<OrderRequestKey> lockByRequestKey(@Param("customerId") String customerId, @Param("key") String key);
+
+  @Modifying
+  @Query("update OrderRequestKey k set k.orderId = :orderId where k.customerId = :customerId and k.requestKey = :key")
+  int assignOrder(@Param("customerId") String customerId, @Param("key") String key, @Param("orderId") Long orderId);
+
+  @Modifying
+  @Query("""
+      delete from OrderRequestKey k
+      where k.customerId = :customerId and k.requestKey = :key and k.createdDate = :claimedAt and k.orderId is null
+      """)
+  int deleteClaim(
+      @Param("customerId") String customerId,
+      @Param("key") String key,
+      @Param("claimedAt") LocalDateTime claimedAt
+  );
+
+  @Modifying
+  @Query("delete from OrderRequestKey k where k.createdDate < :before")
+  int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
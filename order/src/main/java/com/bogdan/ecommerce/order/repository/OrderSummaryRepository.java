@@ -0,0 +1,42 @@
+package com.bogdan.ecommerce.order.repository;
+
+import com.bogdan.ecommerce.order.entity.OrderStatus;
+import com.bogdan.ecommerce.order.entity.OrderSummary;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+  @Query("""
+      select s from OrderSummary s
+      where s.customerId = :customerId
+      order by s.createdDate desc, s.orderId desc
+      """)
+  List<OrderSummary> findLatest(@Param("customerId") String customerId, Pageable pageable);
+
+  /**
+   * Seeks past the cursor with a row-value comparison, which PostgreSQL resolves as a
+   * single range scan on idx_order_summary_customer_created whatever the page depth.
+   */
+  @Query("""
+      select s from OrderSummary s
+      where s.customerId = :customerId
+        and (s.createdDate, s.orderId) < (:createdDate, :orderId)
+      order by s.createdDate desc, s.orderId desc
+      """)
+  List<OrderSummary> findBefore(
+      @Param("customerId") String customerId,
+      @Param("createdDate") LocalDateTime createdDate,
+      @Param("orderId") Long orderId,
+      Pageable pageable
+  );
+
+  @Modifying
+  @Query("update OrderSummary s set s.status = :status where s.orderId = :orderId")
+  int updateStatus(@Param("orderId") Long orderId, @Param("status") OrderStatus status);
+}
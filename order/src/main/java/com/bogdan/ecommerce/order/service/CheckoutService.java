@@ -0,0 +1,102 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.customer.CustomerLookupService;
+import com.bogdan.ecommerce.customer.CustomerResponse;
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.product.ProductReleaseProducer;
+import com.bogdan.ecommerce.order.entity.CheckoutResult;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.product.client.ProductClient;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Validates the customer and reserves the products of an order.
+ * <p>
+ * In parallel mode both downstream calls run at the same time on the bounded
+ * checkout executor. If the customer lookup fails, the product reservation is
+ * released through the outbox as soon as it completes. If the reservation fails,
+ * the customer lookup is skipped when it has not started yet; a lookup already
+ * running is not interrupted, it finishes and its result is dropped.
+ */
+@Slf4j
+@Service
+public class CheckoutService {
+
+    private final CustomerLookupService customerLookupService;
+    private final ProductClient productClient;
+    private final ProductReleaseProducer productReleaseProducer;
+    private final Executor checkoutExecutor;
+    private final boolean parallel;
+
+    public CheckoutService(
+            CustomerLookupService customerLookupService,
+            ProductClient productClient,
+            ProductReleaseProducer productReleaseProducer,
+            @Qualifier("checkoutExecutor") Executor checkoutExecutor,
+            @Value("${application.checkout.parallel:true}") boolean parallel
+    ) {
+        this.customerLookupService = customerLookupService;
+        this.productClient = productClient;
+        this.productReleaseProducer = productReleaseProducer;
+        this.checkoutExecutor = checkoutExecutor;
+        this.parallel = parallel;
+    }
+
+    public CheckoutResult checkout(OrderRequest request) {
+        return parallel ? checkoutInParallel(request) : checkoutSequentially(request);
+    }
+
+    CheckoutResult checkoutSequentially(OrderRequest request) {
+        var customer = findCustomer(request.customerId());
+        var purchasedProducts = productClient.purchaseProducts(request.products());
+        return new CheckoutResult(customer, purchasedProducts);
+    }
+
+    CheckoutResult checkoutInParallel(OrderRequest request) {
+        var customerFuture = CompletableFuture.supplyAsync(
+                () -> findCustomer(request.customerId()), checkoutExecutor);
+        var productsFuture = CompletableFuture.supplyAsync(
+                () -> productClient.purchaseProducts(request.products()), checkoutExecutor);
+        try {
+            var customer = join(customerFuture);
+            return new CheckoutResult(customer, join(productsFuture));
+        } catch (RuntimeException e) {
+            customerFuture.cancel(false);
+            productsFuture.thenRun(() -> releaseProducts(request.products()));
+            throw e;
+        }
+    }
+
+    private CustomerResponse findCustomer(String customerId) {
+        return customerLookupService.findCustomerById(customerId)
+                .orElseThrow(() -> new BusinessException("Cannot create order:: No customer exists with the provided ID"));
+    }
+
+    private void releaseProducts(List<PurchaseRequest> products) {
+        try {
+            productReleaseProducer.releaseAbandonedCheckout(products);
+        } catch (RuntimeException e) {
+            log.error("Cannot store the release of products reserved by a failed checkout: {}", products, e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
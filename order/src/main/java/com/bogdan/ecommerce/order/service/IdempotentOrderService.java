@@ -0,0 +1,134 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.exception.RequestInProgressException;
+import com.bogdan.ecommerce.exception.RequestKeyMismatchException;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.entity.OrderRequestKey;
+import com.bogdan.ecommerce.order.service.OrderRequestKeyStore.RequestKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates order submissions by request key. Keys are scoped by customer, so two
+ * customers never share one, and a key sent again with a different request body is
+ * rejected with {@link RequestKeyMismatchException} instead of answering with the
+ * order the key first produced.
+ * <p>
+ * Submissions on the same instance are collapsed in memory: concurrent duplicates wait
+ * on the in-flight submission and later ones are answered from a short window of recent
+ * results. Across instances the key is claimed in {@code order_request_key} before any
+ * downstream call, and the order ID is attached to it in the order's own transaction,
+ * so a duplicate never reserves stock, charges payment or sends a confirmation again.
+ * A duplicate of a submission still running on another instance is rejected with
+ * {@link RequestInProgressException} instead of holding the request thread.
+ */
+@Slf4j
+@Service
+public class IdempotentOrderService {
+
+    private final OrderService orderService;
+    private final OrderRequestKeyStore keyStore;
+    private final Cache<RequestKey, Long> recentOrders;
+    private final ConcurrentHashMap<RequestKey, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentOrderService(
+            OrderService orderService,
+            OrderRequestKeyStore keyStore,
+            @Value("${application.idempotency.window-seconds:600}") long windowSeconds,
+            @Value("${application.idempotency.window-size:100000}") long windowSize
+    ) {
+        this.orderService = orderService;
+        this.keyStore = keyStore;
+        this.recentOrders = Caffeine.newBuilder()
+                .maximumSize(windowSize)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    public Long createOrder(String idempotencyKey, OrderRequest request) {
+        var clientKey = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : request.reference();
+        if (clientKey == null) {
+            return orderService.createOrder(request, null);
+        }
+        // the hash is part of the key, so a different body never matches a recent or in-flight submission
+        var key = new RequestKey(request.customerId(), clientKey, OrderRequestFingerprint.of(request));
+
+        var recentOrderId = recentOrders.getIfPresent(key);
+        if (recentOrderId != null) {
+            return recentOrderId;
+        }
+
+        var submission = new CompletableFuture<Long>();
+        var existing = inFlight.putIfAbsent(key, submission);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            var orderId = submit(key, request);
+            recentOrders.put(key, orderId);
+            submission.complete(orderId);
+            return orderId;
+        } catch (RuntimeException e) {
+            submission.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, submission);
+        }
+    }
+
+    private Long submit(RequestKey key, OrderRequest request) {
+        var claim = keyStore.claim(key);
+        if (claim.isEmpty()) {
+            return existingOrderId(key);
+        }
+        try {
+            return orderService.createOrder(request, claim.get());
+        } catch (RuntimeException e) {
+            release(claim.get());
+            throw e;
+        }
+    }
+
+    /**
+     * Answers a duplicate of a key claimed elsewhere without waiting for it: the
+     * client gets the order ID once there is one and is told to retry until then.
+     */
+    private Long existingOrderId(RequestKey key) {
+        var existing = keyStore.find(key);
+        if (existing.isPresent() && !existing.get().getRequestHash().equals(key.requestHash())) {
+            throw new RequestKeyMismatchException("This request key was already used for a different order request");
+        }
+        return existing
+                .map(OrderRequestKey::getOrderId)
+                .orElseThrow(() -> new RequestInProgressException(
+                        "An order with this request key is still being processed, please retry"));
+    }
+
+    private void release(OrderRequestKeyStore.Claim claim) {
+        try {
+            keyStore.release(claim);
+        } catch (RuntimeException e) {
+            log.warn("Cannot release request key {}, it is taken over once its lease expires: {}",
+                    claim.requestKey().key(), e.getMessage());
+        }
+    }
+
+    private static Long join(CompletableFuture<Long> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.id.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generates order references such as {@code ORD-0F4T2K8ZQ1M3A}: a Snowflake id in
+ * Crockford base32, fixed width so that references sort in creation order.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderReferenceGenerator {
+
+    static final String PREFIX = "ORD-";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 13;
+
+    private final SnowflakeIdGenerator idGenerator;
+
+    public String nextReference() {
+        return format(idGenerator.nextId());
+    }
+
+    static String format(long id) {
+        var chars = new char[PREFIX.length() + LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,37 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hashes an order request so that a request key reused with a different body can be
+ * told apart from a retry of the same request.
+ */
+public final class OrderRequestFingerprint {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    private OrderRequestFingerprint() {
+    }
+
+    /**
+     * @return the hex SHA-256 of the request serialized with sorted properties
+     */
+    public static String of(OrderRequest request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(MAPPER.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash order request", e);
+        }
+    }
+}
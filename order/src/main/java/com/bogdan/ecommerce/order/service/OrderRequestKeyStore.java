@@ -0,0 +1,119 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.exception.RequestInProgressException;
+import com.bogdan.ecommerce.order.entity.OrderRequestKey;
+import com.bogdan.ecommerce.order.entity.OrderRequestKeyId;
+import com.bogdan.ecommerce.order.repository.OrderRequestKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Stores request keys in {@code order_request_key}, scoped by customer and carrying
+ * the hash of the request they were first sent with.
+ * <p>
+ * A claim without an order is a lease: if its instance crashed before it could
+ * release the key, the claim is taken over once it is older than the lease, so
+ * retries of that request are not rejected forever. The claim time fences the
+ * previous holder, which can no longer place its order once the key was taken over.
+ * Keys are purged once they are older than the retention, which must exceed the
+ * time clients keep retrying.
+ */
+@Slf4j
+@Service
+public class OrderRequestKeyStore {
+
+    private final OrderRequestKeyRepository repository;
+    private final Duration claimLease;
+    private final Duration retention;
+
+    public OrderRequestKeyStore(
+            OrderRequestKeyRepository repository,
+            @Value("${application.idempotency.claim-lease-ms:60000}") long claimLeaseMs,
+            @Value("${application.idempotency.retention-hours:24}") long retentionHours
+    ) {
+        this.repository = repository;
+        this.claimLease = Duration.ofMillis(claimLeaseMs);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Commits the key on its own so that concurrent submissions on other instances
+     * see it immediately; returns nothing when the key was already taken.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Claim> claim(RequestKey key) {
+        // the column keeps microseconds, the claim time must compare equal once stored
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (repository.claim(key.customerId(), key.key(), key.requestHash(), now, now.minus(claimLease)) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new Claim(key, now));
+    }
+
+    /**
+     * Locks the key for the rest of the order's transaction, so the claim cannot be
+     * taken over while the order is placed; fails if it was taken over already.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void hold(Claim claim) {
+        var key = claim.requestKey();
+        var held = repository.lockByRequestKey(key.customerId(), key.key())
+                .filter(row -> row.getOrderId() == null && claim.claimedAt().equals(row.getCreatedDate()))
+                .isPresent();
+        if (!held) {
+            throw new RequestInProgressException("An order with this request key was taken over by another submission");
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void assignOrder(Claim claim, Long orderId) {
+        repository.assignOrder(claim.requestKey().customerId(), claim.requestKey().key(), orderId);
+    }
+
+    /**
+     * Gives up a claim whose order failed, unless it was taken over in the meantime.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(Claim claim) {
+        repository.deleteClaim(claim.requestKey().customerId(), claim.requestKey().key(), claim.claimedAt());
+    }
+
+    public Optional<OrderRequestKey> find(RequestKey key) {
+        return repository.findById(new OrderRequestKeyId(key.customerId(), key.key()));
+    }
+
+    @Scheduled(fixedDelayString = "${application.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        var purged = repository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} order request keys older than {}", purged, retention);
+        }
+    }
+
+    /**
+     * A client request key as scoped to the customer placing the order, together
+     * with the hash of the request it came with.
+     */
+    public record RequestKey(
+            String customerId,
+            String key,
+            String requestHash
+    ) {
+    }
+
+    public record Claim(
+            RequestKey requestKey,
+            LocalDateTime claimedAt
+    ) {
+    }
+}
@@ -1,80 +1,157 @@
 package com.bogdan.ecommerce.order.service;
 
 import com.bogdan.ecommerce.kafka.OrderConfirmation;
-import com.bogdan.ecommerce.customer.CustomerClient;
-import com.bogdan.ecommerce.exception.BusinessException;
 import com.bogdan.ecommerce.kafka.OrderProducer;
+import com.bogdan.ecommerce.order.entity.OrderHistoryPage;
+import com.bogdan.ecommerce.order.entity.OrderStatus;
 import com.bogdan.ecommerce.order.mapper.OrderMapper;
 import com.bogdan.ecommerce.order.entity.OrderRequest;
 import com.bogdan.ecommerce.order.entity.OrderResponse;
 import com.bogdan.ecommerce.order.repository.OrderRepository;
 import com.bogdan.ecommerce.orderline.OrderLineRequest;
 import com.bogdan.ecommerce.orderline.OrderLineService;
-import com.bogdan.ecommerce.payment.PaymentClient;
 import com.bogdan.ecommerce.payment.PaymentRequest;
-import com.bogdan.ecommerce.product.client.ProductClient;
+import com.bogdan.ecommerce.payment.PaymentRequestProducer;
+import com.bogdan.ecommerce.product.ProductReleaseProducer;
 import com.bogdan.ecommerce.product.model.PurchaseRequest;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
     private final OrderRepository repository;
     private final OrderMapper mapper;
-    private final CustomerClient customerClient;
-    private final PaymentClient paymentClient;
-    private final ProductClient productClient;
+    private final CheckoutService checkoutService;
+    private final PaymentRequestProducer paymentRequestProducer;
+    private final ProductReleaseProducer productReleaseProducer;
     private final OrderLineService orderLineService;
     private final OrderProducer orderProducer;
+    private final OrderRequestKeyStore keyStore;
+    private final OrderTotalCalculator totalCalculator;
+    private final OrderSummaryService summaryService;
+    private final OrderReferenceGenerator referenceGenerator;
 
+    /**
+     * Places the order; when a request key claim is given, the key is held for the
+     * whole transaction and the new order ID is attached to it. Once the checkout
+     * reserved the products, a rollback of this transaction gives them back through
+     * the outbox.
+     */
     @Transactional
-    public Integer createOrder(OrderRequest request) {
-        var customer = this.customerClient.findCustomerById(request.customerId())
-                .orElseThrow(() -> new BusinessException("Cannot create order:: No customer exists with the provided ID"));
-
-        var purchasedProducts = productClient.purchaseProducts(request.products());
-
-        var order = this.repository.save(mapper.toOrder(request));
-
-        for (PurchaseRequest purchaseRequest : request.products()) {
-            orderLineService.saveOrderLine(
-                    new OrderLineRequest(
-                            null,
-                            order.getId(),
-                            purchaseRequest.productId(),
-                            purchaseRequest.quantity()
-                    )
-            );
+    public Long createOrder(OrderRequest request, OrderRequestKeyStore.Claim claim) {
+        if (claim != null) {
+            keyStore.hold(claim);
         }
+        var checkout = this.checkoutService.checkout(request);
+        releaseProductsOnRollback(request.products());
+        var customer = checkout.customer();
+        var purchasedProducts = checkout.purchasedProducts();
+        var reference = referenceGenerator.nextReference();
+        var totalAmount = totalCalculator.total(purchasedProducts);
+        if (request.amount() != null && request.amount().compareTo(totalAmount) != 0) {
+            log.warn("Order {} was submitted with amount {} but its products total {}",
+                    reference, request.amount(), totalAmount);
+        }
+
+        var order = this.repository.save(mapper.toOrder(request, reference, totalAmount));
+
+        var orderLines = request.products()
+                .stream()
+                .map(purchaseRequest -> new OrderLineRequest(
+                        null,
+                        order.getId(),
+                        purchaseRequest.productId(),
+                        purchaseRequest.quantity()
+                ))
+                .toList();
+        orderLineService.saveOrderLines(order.getId(), orderLines);
+        summaryService.recordOrder(order, orderLines.size());
+
         var paymentRequest = new PaymentRequest(
-                request.amount(),
+                totalAmount,
                 request.paymentMethod(),
                 order.getId(),
                 order.getReference(),
                 customer
         );
-        paymentClient.requestOrderPayment(paymentRequest);
+        paymentRequestProducer.requestPayment(paymentRequest);
 
         orderProducer.sendOrderConfirmation(
                 new OrderConfirmation(
-                        request.reference(),
-                        request.amount(),
+                        order.getReference(),
+                        totalAmount,
                         request.paymentMethod(),
                         customer,
                         purchasedProducts
                 )
         );
 
+        if (claim != null) {
+            keyStore.assignOrder(claim, order.getId());
+        }
         return order.getId();
     }
 
+    private void releaseProductsOnRollback(List<PurchaseRequest> products) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    productReleaseProducer.releaseAbandonedCheckout(products);
+                } catch (RuntimeException e) {
+                    log.error("Cannot store the release of products reserved by a rolled back order: {}", products, e);
+                }
+            }
+        });
+    }
+
+    @Transactional
+    public void confirmPayment(Long orderId) {
+        if (repository.updateStatusIfPending(orderId, OrderStatus.PAID) == 0) {
+            log.info("Payment of order {} already settled", orderId);
+            return;
+        }
+        summaryService.updateStatus(orderId, OrderStatus.PAID);
+    }
+
+    /**
+     * Marks the order as failed and gives its reserved stock back. The status change is
+     * conditional, so a redelivered failure does not release the stock twice. The
+     * release goes through the outbox in the same transaction and is applied once per
+     * order by the product service, so no remote call runs inside the transaction.
+     */
+    @Transactional
+    public void compensateFailedPayment(Long orderId, String reason) {
+        if (repository.updateStatusIfPending(orderId, OrderStatus.PAYMENT_FAILED) == 0) {
+            log.info("Payment of order {} already settled", orderId);
+            return;
+        }
+        summaryService.updateStatus(orderId, OrderStatus.PAYMENT_FAILED);
+        log.warn("Payment of order {} failed, releasing its products: {}", orderId, reason);
+        productReleaseProducer.releaseOrder(orderId, orderLineService.findPurchasedProducts(orderId));
+    }
+
+    public OrderHistoryPage findByCustomer(String customerId, String after, int size) {
+        return summaryService.findByCustomer(customerId, after, size);
+    }
+
     public List<OrderResponse> findAllOrders() {
         return this.repository.findAll()
                 .stream()
@@ -82,7 +159,7 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
-    public OrderResponse findById(Integer id) {
+    public OrderResponse findById(Long id) {
         return this.repository.findById(id)
                 .map(this.mapper::fromOrder)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("No order found with the provided ID: %d", id)));
@@ -0,0 +1,100 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.order.entity.Order;
+import com.bogdan.ecommerce.order.entity.OrderHistoryPage;
+import com.bogdan.ecommerce.order.entity.OrderStatus;
+import com.bogdan.ecommerce.order.entity.OrderSummary;
+import com.bogdan.ecommerce.order.entity.OrderSummaryResponse;
+import com.bogdan.ecommerce.order.repository.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Maintains and serves the customer order history read model.
+ * <p>
+ * Pages are ordered newest first and addressed by an opaque cursor holding the
+ * {@code (createdDate, orderId)} of the last row, so each page is an index seek
+ * instead of an ever-growing OFFSET.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderSummaryService {
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final OrderSummaryRepository repository;
+
+    @Value("${application.orders.max-page-size:100}")
+    private int maxPageSize;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrder(Order order, int lineCount) {
+        repository.save(
+                OrderSummary.builder()
+                        .orderId(order.getId())
+                        .customerId(order.getCustomerId())
+                        .reference(order.getReference())
+                        .totalAmount(order.getTotalAmount())
+                        .paymentMethod(order.getPaymentMethod())
+                        .status(order.getStatus())
+                        .lineCount(lineCount)
+                        .createdDate(order.getCreatedDate())
+                        .build()
+        );
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateStatus(Long orderId, OrderStatus status) {
+        repository.updateStatus(orderId, status);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderHistoryPage findByCustomer(String customerId, String after, int size) {
+        var pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        var pageable = PageRequest.ofSize(pageSize);
+        var summaries = after == null
+                ? repository.findLatest(customerId, pageable)
+                : findBefore(customerId, after, pageable);
+        var content = summaries.stream()
+                .map(summary -> new OrderSummaryResponse(
+                        summary.getOrderId(),
+                        summary.getReference(),
+                        summary.getTotalAmount(),
+                        summary.getPaymentMethod(),
+                        summary.getStatus(),
+                        summary.getLineCount(),
+                        summary.getCreatedDate()
+                ))
+                .toList();
+        var nextCursor = content.size() == pageSize ? encodeCursor(content.get(content.size() - 1)) : null;
+        return new OrderHistoryPage(content, nextCursor);
+    }
+
+    private List<OrderSummary> findBefore(String customerId, String cursor, PageRequest pageable) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = decoded.indexOf(CURSOR_SEPARATOR);
+            var createdDate = LocalDateTime.parse(decoded.substring(0, separator));
+            var orderId = Long.valueOf(decoded.substring(separator + 1));
+            return repository.findBefore(customerId, createdDate, orderId, pageable);
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new BusinessException("Invalid order history cursor");
+        }
+    }
+
+    private static String encodeCursor(OrderSummaryResponse last) {
+        var cursor = last.createdDate() + CURSOR_SEPARATOR + last.orderId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.product.model.PurchaseResponse;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Computes order totals from the prices returned by the product service.
+ * <p>
+ * Prices are converted once to {@code long} cents and quantities to thousandths, and the
+ * lines are summed with plain {@code long} arithmetic; each line is rounded half-up to the
+ * cent, exactly like {@code price.multiply(quantity).setScale(2, HALF_UP)}. Inputs that do
+ * not fit that representation (sub-cent prices, finer quantities, overflow) fall back to the
+ * {@link BigDecimal} computation, so both paths always agree.
+ */
+@Service
+public class OrderTotalCalculator {
+
+    static final int SCALE = 2;
+    static final long QUANTITY_UNIT = 1000;
+    private static final double MAX_QUANTITY = 1e12;
+
+    public BigDecimal total(List<PurchaseResponse> products) {
+        int size = products.size();
+        long[] unitPrices = new long[size];
+        long[] quantities = new long[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                var product = products.get(i);
+                unitPrices[i] = product.price().movePointRight(SCALE).longValueExact();
+                quantities[i] = toQuantityUnits(product.quantity());
+            }
+            return BigDecimal.valueOf(totalMinorUnits(unitPrices, quantities), SCALE);
+        } catch (ArithmeticException e) {
+            return totalWithBigDecimal(products);
+        }
+    }
+
+    /**
+     * @param unitPrices prices in cents
+     * @param quantities quantities in thousandths
+     * @return the total in cents
+     * @throws ArithmeticException if the total overflows a {@code long}
+     */
+    static long totalMinorUnits(long[] unitPrices, long[] quantities) {
+        long total = 0;
+        for (int i = 0; i < unitPrices.length; i++) {
+            long line = Math.multiplyExact(unitPrices[i], quantities[i]);
+            total = Math.addExact(total, roundHalfUp(line));
+        }
+        return total;
+    }
+
+    static BigDecimal totalWithBigDecimal(List<PurchaseResponse> products) {
+        var total = BigDecimal.ZERO.setScale(SCALE);
+        for (var product : products) {
+            total = total.add(
+                    product.price()
+                            .multiply(BigDecimal.valueOf(product.quantity()))
+                            .setScale(SCALE, RoundingMode.HALF_UP)
+            );
+        }
+        return total;
+    }
+
+    static long toQuantityUnits(double quantity) {
+        if (!(Math.abs(quantity) < MAX_QUANTITY)) {
+            throw new ArithmeticException("Quantity out of range: " + quantity);
+        }
+        long units = Math.round(quantity * QUANTITY_UNIT);
+        if ((double) units / QUANTITY_UNIT != quantity) {
+            throw new ArithmeticException("Quantity has more than 3 decimals: " + quantity);
+        }
+        return units;
+    }
+
+    private static long roundHalfUp(long thousandths) {
+        long half = QUANTITY_UNIT / 2;
+        return thousandths >= 0
+                ? Math.addExact(thousandths, half) / QUANTITY_UNIT
+                : -(Math.addExact(Math.negateExact(thousandths), half) / QUANTITY_UNIT);
+    }
+}
@@ -1,10 +1,14 @@
 package com.bogdan.ecommerce.orderline;
 
 
+import com.bogdan.ecommerce.id.SnowflakeId;
 import com.bogdan.ecommerce.order.entity.Order;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -13,22 +17,32 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @Builder
 @Getter
 @Setter
 @Entity
+@EntityListeners(AuditingEntityListener.class)
 @NoArgsConstructor
-@Table(name = "customer_line")
+@Table(name = "customer_line", indexes = @Index(name = "idx_customer_line_order_id", columnList = "order_id"))
 public class OrderLine {
 
     @Id
-    @GeneratedValue
-    private Integer id;
-    @ManyToOne
+    @SnowflakeId
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
+    @Column(name = "order_id", insertable = false, updatable = false)
+    private Long orderId;
     private Integer productId;
     private double quantity;
+    @CreatedDate
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdDate;
 }
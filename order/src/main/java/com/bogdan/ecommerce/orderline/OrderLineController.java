@@ -6,9 +6,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/order-lines")
@@ -19,8 +21,15 @@ public class OrderLineController {
 
     @GetMapping("/order/{order-id}")
     public ResponseEntity<List<OrderLineResponse>> findByOrderId(
-            @PathVariable("order-id") Integer orderId
+            @PathVariable("order-id") Long orderId
     ) {
         return ResponseEntity.ok(service.findAllByOrderId(orderId));
     }
+
+    @GetMapping(params = "orderIds")
+    public ResponseEntity<Map<Long, List<OrderLineResponse>>> findByOrderIds(
+            @RequestParam("orderIds") List<Long> orderIds
+    ) {
+        return ResponseEntity.ok(service.findAllByOrderIds(orderIds));
+    }
 }
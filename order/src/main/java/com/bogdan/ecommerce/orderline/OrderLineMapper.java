@@ -7,7 +7,6 @@ import org.springframework.stereotype.Service;
 public class OrderLineMapper {
     public OrderLine toOrderLine(OrderLineRequest request) {
         return OrderLine.builder()
-                .id(request.orderId())
                 .productId(request.productId())
                 .order(
                         Order.builder()
@@ -18,9 +17,22 @@ public class OrderLineMapper {
                 .build();
     }
 
+    public OrderLine toOrderLine(Long orderId, OrderLineRequest request) {
+        return OrderLine.builder()
+                .productId(request.productId())
+                .order(
+                        Order.builder()
+                                .id(orderId)
+                                .build()
+                )
+                .quantity(request.quantity())
+                .build();
+    }
+
     public OrderLineResponse toOrderLineResponse(OrderLine orderLine) {
         return new OrderLineResponse(
                 orderLine.getId(),
+                orderLine.getProductId(),
                 orderLine.getQuantity()
         );
     }
@@ -2,9 +2,12 @@ package com.bogdan.ecommerce.orderline;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface OrderLineRepository extends JpaRepository<OrderLine, Integer> {
+public interface OrderLineRepository extends JpaRepository<OrderLine, Long> {
 
-    List<OrderLine> findAllByOrderId(Integer orderId);
+    List<OrderLine> findAllByOrderId(Long orderId);
+
+    List<OrderLine> findAllByOrderIdIn(Collection<Long> orderIds);
 }
@@ -1,8 +1,8 @@
 package com.bogdan.ecommerce.orderline;
 
 public record OrderLineRequest(
-        Integer id,
-        Integer orderId,
+        Long id,
+        Long orderId,
         Integer productId,
         double quantity
 ) {
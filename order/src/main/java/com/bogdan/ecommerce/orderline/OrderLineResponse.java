@@ -1,6 +1,11 @@
 package com.bogdan.ecommerce.orderline;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
 public record OrderLineResponse(
-        Integer id,
+        @JsonSerialize(using = ToStringSerializer.class)
+        Long id,
+        Integer productId,
         double quantity
 ) { }
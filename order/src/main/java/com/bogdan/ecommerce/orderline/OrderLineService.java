@@ -1,9 +1,17 @@
 package com.bogdan.ecommerce.orderline;
 
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -13,15 +21,63 @@ public class OrderLineService {
     private final OrderLineRepository repository;
     private final OrderLineMapper mapper;
 
-    public Integer saveOrderLine(OrderLineRequest request) {
+    @Value("${application.order-lines.max-batch-size:500}")
+    private int maxBatchSize;
+
+    public Long saveOrderLine(OrderLineRequest request) {
         var order = mapper.toOrderLine(request);
         return repository.save(order).getId();
     }
 
-    public List<OrderLineResponse> findAllByOrderId(Integer orderId) {
+    /**
+     * Persists all lines of an order in one flush; with JDBC batching and ids
+     * generated in process this costs a constant number of round trips per batch
+     * instead of one INSERT per line.
+     */
+    @Transactional
+    public List<Long> saveOrderLines(Long orderId, List<OrderLineRequest> requests) {
+        var orderLines = requests
+                .stream()
+                .map(request -> mapper.toOrderLine(orderId, request))
+                .toList();
+        return repository.saveAll(orderLines)
+                .stream()
+                .map(OrderLine::getId)
+                .toList();
+    }
+
+    public List<OrderLineResponse> findAllByOrderId(Long orderId) {
         return repository.findAllByOrderId(orderId)
                 .stream()
                 .map(mapper::toOrderLineResponse)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Loads the lines of several orders with a single IN query on the indexed
+     * order_id column; every requested order is present in the result, with an
+     * empty list when it has no lines.
+     */
+    public Map<Long, List<OrderLineResponse>> findAllByOrderIds(List<Long> orderIds) {
+        var distinctIds = new LinkedHashSet<>(orderIds);
+        if (distinctIds.size() > maxBatchSize) {
+            throw new BusinessException(String.format("Cannot load the lines of more than %d orders at once", maxBatchSize));
+        }
+        var linesByOrder = new LinkedHashMap<Long, List<OrderLineResponse>>();
+        distinctIds.forEach(orderId -> linesByOrder.put(orderId, new ArrayList<>()));
+        if (distinctIds.isEmpty()) {
+            return linesByOrder;
+        }
+        for (var orderLine : repository.findAllByOrderIdIn(distinctIds)) {
+            linesByOrder.get(orderLine.getOrderId()).add(mapper.toOrderLineResponse(orderLine));
+        }
+        return linesByOrder;
+    }
+
+    public List<PurchaseRequest> findPurchasedProducts(Long orderId) {
+        return repository.findAllByOrderId(orderId)
+                .stream()
+                .map(orderLine -> new PurchaseRequest(orderLine.getProductId(), orderLine.getQuantity()))
+                .toList();
+    }
 }
@@ -8,7 +8,7 @@ import java.math.BigDecimal;
 public record PaymentRequest(
     BigDecimal amount,
     PaymentMethod paymentMethod,
-    Integer orderId,
+    Long orderId,
     String orderReference,
     CustomerResponse customer
 ) {
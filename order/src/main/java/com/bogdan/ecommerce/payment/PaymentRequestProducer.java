@@ -0,0 +1,24 @@
+package com.bogdan.ecommerce.payment;
+
+import com.bogdan.ecommerce.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRequestProducer {
+
+    private final OutboxService outboxService;
+
+    public void requestPayment(PaymentRequest paymentRequest) {
+        log.info("Requesting payment of order {}", paymentRequest.orderReference());
+        outboxService.publish(
+                "payment-request-topic",
+                paymentRequest.orderReference(),
+                "paymentRequested",
+                paymentRequest
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.bogdan.ecommerce.payment;
+
+import com.bogdan.ecommerce.order.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Completes the payment step of the order saga with the outcome replied by the payment service.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentResultConsumer {
+
+    private final OrderService orderService;
+
+    @KafkaListener(topics = "payment-result-topic", groupId = "order-payment-saga")
+    public void onPaymentResult(PaymentResult result) {
+        log.info("Payment of order {} {}", result.orderReference(), result.status());
+        if (result.status() == PaymentResultStatus.COMPLETED) {
+            orderService.confirmPayment(result.orderId());
+        } else {
+            orderService.compensateFailedPayment(result.orderId(), result.reason());
+        }
+    }
+}
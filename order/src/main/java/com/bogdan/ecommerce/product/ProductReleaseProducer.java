@@ -0,0 +1,50 @@
+package com.bogdan.ecommerce.product;
+
+import com.bogdan.ecommerce.outbox.OutboxService;
+import com.bogdan.ecommerce.product.model.ProductRelease;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gives reserved stock back through the outbox instead of calling the product service,
+ * so a release survives product outages and restarts of this instance. Every release
+ * carries an ID that the product service applies only once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductReleaseProducer {
+
+    static final String TOPIC = "product-release-topic";
+
+    private final OutboxService outboxService;
+
+    /**
+     * Releases the stock of a checkout whose order was never created; it commits on its
+     * own because the order's transaction, if any, is being rolled back.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseAbandonedCheckout(List<PurchaseRequest> products) {
+        publish(new ProductRelease("checkout-" + UUID.randomUUID(), products));
+    }
+
+    /**
+     * Releases the stock of an order whose payment failed, in the caller's transaction;
+     * the release ID is derived from the order so it is applied once per order.
+     */
+    public void releaseOrder(Long orderId, List<PurchaseRequest> products) {
+        publish(new ProductRelease("order-" + orderId, products));
+    }
+
+    private void publish(ProductRelease release) {
+        log.info("Releasing products of {}", release.releaseId());
+        outboxService.publish(TOPIC, release.releaseId(), "productRelease", release);
+    }
+}
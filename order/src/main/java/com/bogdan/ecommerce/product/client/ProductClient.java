@@ -3,7 +3,7 @@ package com.bogdan.ecommerce.product.client;
 import com.bogdan.ecommerce.exception.BusinessException;
 import com.bogdan.ecommerce.product.model.PurchaseRequest;
 import com.bogdan.ecommerce.product.model.PurchaseResponse;
-import lombok.RequiredArgsConstructor;
+import com.bogdan.ecommerce.resilience.DownstreamCallGuard;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -19,14 +19,29 @@ import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @Service
-@RequiredArgsConstructor
 public class ProductClient {
 
-    @Value("${application.config.product-url}")
-    private String productUrl;
+    static final String CLIENT = "product";
+
+    private final String productUrl;
     private final RestTemplate restTemplate;
+    private final DownstreamCallGuard guard;
+
+    public ProductClient(
+            @Value("${application.config.product-url}") String productUrl,
+            RestTemplate restTemplate,
+            DownstreamCallGuard guard
+    ) {
+        this.productUrl = productUrl;
+        this.restTemplate = restTemplate;
+        this.guard = guard;
+    }
 
     public List<PurchaseResponse> purchaseProducts(List<PurchaseRequest> requestBody) {
+        return guard.call(CLIENT, () -> purchase(requestBody));
+    }
+
+    private List<PurchaseResponse> purchase(List<PurchaseRequest> requestBody) {
         HttpHeaders headers = new HttpHeaders();
         headers.set(CONTENT_TYPE, APPLICATION_JSON_VALUE);
 
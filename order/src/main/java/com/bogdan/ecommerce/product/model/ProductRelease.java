@@ -0,0 +1,9 @@
+package com.bogdan.ecommerce.product.model;
+
+import java.util.List;
+
+public record ProductRelease(
+        String releaseId,
+        List<PurchaseRequest> products
+) {
+}
@@ -0,0 +1,103 @@
+package com.bogdan.ecommerce.resilience;
+
+import com.bogdan.ecommerce.deadline.DeadlineExceededException;
+import com.bogdan.ecommerce.deadline.RequestDeadline;
+import com.bogdan.ecommerce.exception.BusinessException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs synchronous downstream calls behind a per-client circuit breaker and bulkhead.
+ * <p>
+ * Both are configured per client under {@code resilience4j.circuitbreaker.instances}
+ * and {@code resilience4j.bulkhead.instances}, and their state is exported by the
+ * resilience4j Micrometer binders. A call rejected by either, or one that times out,
+ * fails fast with a {@link BusinessException} instead of holding a request thread;
+ * rejections are counted in {@code order.downstream.rejected}. Extra attempts made on
+ * behalf of a guarded call, such as hedges, take their own permit of its bulkhead.
+ */
+@Component
+public class DownstreamCallGuard {
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamCallGuard(
+            BulkheadRegistry bulkheadRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry
+    ) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(String client, Supplier<T> call) {
+        var bulkhead = bulkheadRegistry.bulkhead(client);
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker(client);
+        var previousClient = CURRENT_CLIENT.get();
+        CURRENT_CLIENT.set(client);
+        try {
+            return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call)).get();
+        } catch (CallNotPermittedException e) {
+            rejected(client, "circuit-open");
+            throw new BusinessException("The " + client + " service is unavailable:: circuit breaker is open");
+        } catch (BulkheadFullException e) {
+            rejected(client, "bulkhead-full");
+            throw new BusinessException("The " + client + " service is overloaded:: too many concurrent calls");
+        } catch (ResourceAccessException | RetryableException e) {
+            if (RequestDeadline.isExpired()) {
+                throw new DeadlineExceededException("Request deadline exceeded while calling the " + client + " service");
+            }
+            throw new BusinessException("The " + client + " service did not respond:: " + e.getMessage());
+        } finally {
+            if (previousClient == null) {
+                CURRENT_CLIENT.remove();
+            } else {
+                CURRENT_CLIENT.set(previousClient);
+            }
+        }
+    }
+
+    /**
+     * Client of the guarded call running on this thread, {@code null} outside one.
+     */
+    public String currentClient() {
+        return CURRENT_CLIENT.get();
+    }
+
+    /**
+     * Takes a permit of the client's bulkhead without waiting; every permit taken must
+     * be given back with {@link #releasePermission}.
+     */
+    public boolean tryAcquirePermission(String client) {
+        return bulkheadRegistry.bulkhead(client).tryAcquirePermission();
+    }
+
+    public void releasePermission(String client) {
+        bulkheadRegistry.bulkhead(client).onComplete();
+    }
+
+    private void rejected(String client, String reason) {
+        Counter.builder("order.downstream.rejected")
+                .description("Number of downstream calls rejected without being attempted")
+                .tag("client", client)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,77 @@
+package com.bogdan.ecommerce.submission;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@NoArgsConstructor
+@Table(
+        name = "order_submission",
+        indexes = {
+                @Index(name = "idx_order_submission_status", columnList = "status, created_date"),
+                @Index(name = "uk_order_submission_request_key", columnList = "customer_id, request_key", unique = true)
+        }
+)
+public class OrderSubmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private String customerId;
+
+    private String requestKey;
+
+    /**
+     * Hash of the payload, so that a key sent again with a different request is rejected.
+     */
+    private String requestHash;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SubmissionStatus status;
+
+    private Long orderId;
+
+    private String failureReason;
+
+    /**
+     * Earliest time a queued submission may be claimed again, set while its request key
+     * is being placed elsewhere.
+     */
+    private LocalDateTime nextAttemptAt;
+
+    @CreatedDate
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdDate;
+
+    @LastModifiedDate
+    private LocalDateTime lastModifiedDate;
+}
@@ -0,0 +1,53 @@
+package com.bogdan.ecommerce.submission;
+
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/orders/submissions")
+@RequiredArgsConstructor
+public class OrderSubmissionController {
+
+    private final OrderSubmissionService service;
+    private final OrderSubmissionEvents events;
+
+    @PostMapping
+    public ResponseEntity<OrderSubmissionResponse> submit(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid OrderRequest request
+    ) {
+        var submission = this.service.submit(idempotencyKey, request);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/orders/submissions/" + submission.id()))
+                .body(submission);
+    }
+
+    @GetMapping("/{submission-id}")
+    public ResponseEntity<OrderSubmissionResponse> findById(
+            @PathVariable("submission-id") UUID submissionId
+    ) {
+        return ResponseEntity.ok(this.service.findById(submissionId));
+    }
+
+    @GetMapping(value = "/{submission-id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @PathVariable("submission-id") UUID submissionId
+    ) {
+        return this.events.subscribe(this.service.findById(submissionId));
+    }
+}
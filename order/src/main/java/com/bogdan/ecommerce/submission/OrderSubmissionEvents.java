@@ -0,0 +1,111 @@
+package com.bogdan.ecommerce.submission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams submission status changes to SSE subscribers.
+ * <p>
+ * Changes made on this instance are pushed right away; subscribed submissions are
+ * also re-read periodically so that changes made by the worker of another instance
+ * reach the subscriber too.
+ */
+@Slf4j
+@Component
+public class OrderSubmissionEvents {
+
+    private final OrderSubmissionRepository repository;
+    private final long timeoutMs;
+    private final Map<UUID, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public OrderSubmissionEvents(
+            OrderSubmissionRepository repository,
+            @Value("${application.order-submission.sse-timeout-ms:60000}") long timeoutMs
+    ) {
+        this.repository = repository;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribe(OrderSubmissionResponse current) {
+        var emitter = new SseEmitter(timeoutMs);
+        if (current.status().isTerminal()) {
+            if (send(emitter, current)) {
+                emitter.complete();
+            }
+            return emitter;
+        }
+        var subscription = subscriptions.computeIfAbsent(current.id(), id -> new Subscription(current.status()));
+        subscription.emitters.add(emitter);
+        emitter.onCompletion(() -> unsubscribe(current.id(), emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(current.id(), emitter));
+        send(emitter, current);
+        return emitter;
+    }
+
+    public void publish(OrderSubmissionResponse update) {
+        var subscription = subscriptions.get(update.id());
+        if (subscription == null || subscription.lastStatus == update.status()) {
+            return;
+        }
+        subscription.lastStatus = update.status();
+        for (var emitter : subscription.emitters) {
+            if (send(emitter, update) && update.status().isTerminal()) {
+                emitter.complete();
+            }
+        }
+        if (update.status().isTerminal()) {
+            subscriptions.remove(update.id());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.order-submission.sse-refresh-interval-ms:1000}")
+    public void refresh() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        try {
+            repository.findAllById(List.copyOf(subscriptions.keySet()))
+                    .forEach(submission -> publish(OrderSubmissionResponse.from(submission)));
+        } catch (RuntimeException e) {
+            log.warn("Cannot refresh order submission subscriptions: {}", e.getMessage());
+        }
+    }
+
+    private void unsubscribe(UUID id, SseEmitter emitter) {
+        subscriptions.computeIfPresent(id, (key, subscription) -> {
+            subscription.emitters.remove(emitter);
+            return subscription.emitters.isEmpty() ? null : subscription;
+        });
+    }
+
+    private static boolean send(SseEmitter emitter, OrderSubmissionResponse response) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(response));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscription {
+
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile SubmissionStatus lastStatus;
+
+        private Subscription(SubmissionStatus lastStatus) {
+            this.lastStatus = lastStatus;
+        }
+    }
+}
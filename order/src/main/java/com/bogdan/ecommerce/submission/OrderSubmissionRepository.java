@@ -0,0 +1,35 @@
+package com.bogdan.ecommerce.submission;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderSubmissionRepository extends JpaRepository<OrderSubmission, UUID> {
+
+    @Query(
+            value = """
+                    SELECT * FROM order_submission
+                    WHERE status = 'QUEUED' AND (next_attempt_at IS NULL OR next_attempt_at <= :now)
+                    ORDER BY created_date LIMIT :limit FOR UPDATE SKIP LOCKED
+                    """,
+            nativeQuery = true
+    )
+    List<OrderSubmission> lockNextQueued(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    Optional<OrderSubmission> findByCustomerIdAndRequestKey(String customerId, String requestKey);
+
+    @Modifying
+    @Query("""
+            update OrderSubmission s set s.status = com.bogdan.ecommerce.submission.SubmissionStatus.QUEUED,
+                s.lastModifiedDate = :now
+            where s.status = com.bogdan.ecommerce.submission.SubmissionStatus.PROCESSING
+                and s.lastModifiedDate < :before
+            """)
+    int requeueStale(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,32 @@
+package com.bogdan.ecommerce.submission;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@JsonInclude(Include.NON_EMPTY)
+public record OrderSubmissionResponse(
+        UUID id,
+        SubmissionStatus status,
+        @JsonSerialize(using = ToStringSerializer.class)
+        Long orderId,
+        String failureReason,
+        LocalDateTime createdDate,
+        LocalDateTime lastModifiedDate
+) {
+
+    static OrderSubmissionResponse from(OrderSubmission submission) {
+        return new OrderSubmissionResponse(
+                submission.getId(),
+                submission.getStatus(),
+                submission.getOrderId(),
+                submission.getFailureReason(),
+                submission.getCreatedDate(),
+                submission.getLastModifiedDate()
+        );
+    }
+}
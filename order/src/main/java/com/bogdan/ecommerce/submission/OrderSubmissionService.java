@@ -0,0 +1,71 @@
+package com.bogdan.ecommerce.submission;
+
+import com.bogdan.ecommerce.exception.RequestKeyMismatchException;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.service.OrderRequestFingerprint;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class OrderSubmissionService {
+
+    private final OrderSubmissionRepository repository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Queues an already validated order request; it is placed later by {@link OrderSubmissionWorker}.
+     * A request key the customer already submitted answers with that submission instead of
+     * queueing another one, unless it came with a different request.
+     */
+    public OrderSubmissionResponse submit(String idempotencyKey, OrderRequest request) {
+        var requestKey = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : request.reference();
+        var requestHash = OrderRequestFingerprint.of(request);
+        if (requestKey != null) {
+            var existing = findExisting(request.customerId(), requestKey, requestHash);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        try {
+            var submission = repository.saveAndFlush(
+                    OrderSubmission.builder()
+                            .customerId(request.customerId())
+                            .requestKey(requestKey)
+                            .requestHash(requestHash)
+                            .payload(objectMapper.writeValueAsString(request))
+                            .status(SubmissionStatus.QUEUED)
+                            .build()
+            );
+            return OrderSubmissionResponse.from(submission);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order request", e);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent submit with the same key won the unique index
+            return findExisting(request.customerId(), requestKey, requestHash).orElseThrow(() -> e);
+        }
+    }
+
+    public OrderSubmissionResponse findById(UUID id) {
+        return repository.findById(id)
+                .map(OrderSubmissionResponse::from)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("No order submission found with the provided ID: %s", id)));
+    }
+
+    private Optional<OrderSubmissionResponse> findExisting(String customerId, String requestKey, String requestHash) {
+        return repository.findByCustomerIdAndRequestKey(customerId, requestKey)
+                .map(submission -> {
+                    if (!requestHash.equals(submission.getRequestHash())) {
+                        throw new RequestKeyMismatchException("This request key was already used for a different order request");
+                    }
+                    return OrderSubmissionResponse.from(submission);
+                });
+    }
+}
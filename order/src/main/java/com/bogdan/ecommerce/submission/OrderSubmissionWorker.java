@@ -0,0 +1,170 @@
+package com.bogdan.ecommerce.submission;
+
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.exception.RequestInProgressException;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.service.IdempotentOrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Places queued order submissions with bounded concurrency.
+ * <p>
+ * Each poll claims at most as many submissions as there are free worker threads, using
+ * {@code SKIP LOCKED} so several instances can share the queue. Submissions left in
+ * {@code PROCESSING} by a crashed instance are queued again after a while; placing them
+ * twice is safe because orders are deduplicated by request key. A submission whose key
+ * is still being placed elsewhere is queued again with a delay rather than re-claimed on
+ * the very next poll.
+ */
+@Slf4j
+@Component
+public class OrderSubmissionWorker {
+
+    private static final int MAX_FAILURE_REASON_LENGTH = 255;
+
+    private final OrderSubmissionRepository repository;
+    private final IdempotentOrderService orderService;
+    private final OrderSubmissionEvents events;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore permits;
+    private final long staleAfterMs;
+    private final long inProgressRetryMs;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+
+    public OrderSubmissionWorker(
+            OrderSubmissionRepository repository,
+            IdempotentOrderService orderService,
+            OrderSubmissionEvents events,
+            ObjectMapper objectMapper,
+            @Qualifier("orderSubmissionExecutor") ThreadPoolTaskExecutor executor,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.order-submission.stale-after-ms:300000}") long staleAfterMs,
+            @Value("${application.order-submission.in-progress-retry-ms:1000}") long inProgressRetryMs
+    ) {
+        this.repository = repository;
+        this.orderService = orderService;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.permits = new Semaphore(executor.getMaxPoolSize());
+        this.staleAfterMs = staleAfterMs;
+        this.inProgressRetryMs = inProgressRetryMs;
+        this.completedCounter = Counter.builder("order.submission.processed")
+                .tag("outcome", "completed")
+                .description("Number of order submissions placed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.submission.processed")
+                .tag("outcome", "failed")
+                .description("Number of order submissions that could not be placed")
+                .register(meterRegistry);
+        Gauge.builder("order.submission.in-flight", this, OrderSubmissionWorker::inFlight)
+                .description("Number of order submissions being placed on this instance")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.order-submission.poll-interval-ms:200}")
+    public void poll() {
+        try {
+            int free = permits.availablePermits();
+            if (free == 0) {
+                return;
+            }
+            var claimed = transactionTemplate.execute(status -> claim(free));
+            if (claimed != null) {
+                claimed.forEach(this::dispatch);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot claim queued order submissions: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.order-submission.stale-check-interval-ms:60000}")
+    public void requeueStale() {
+        var now = LocalDateTime.now();
+        Integer requeued = transactionTemplate.execute(
+                status -> repository.requeueStale(now.minusNanos(staleAfterMs * 1_000_000), now));
+        if (requeued != null && requeued > 0) {
+            log.warn("Queued {} stale order submissions again", requeued);
+        }
+    }
+
+    List<OrderSubmission> claim(int limit) {
+        var submissions = repository.lockNextQueued(limit, LocalDateTime.now());
+        submissions.forEach(submission -> submission.setStatus(SubmissionStatus.PROCESSING));
+        return repository.saveAll(submissions);
+    }
+
+    OrderSubmission process(OrderSubmission submission) {
+        try {
+            var request = objectMapper.readValue(submission.getPayload(), OrderRequest.class);
+            var requestKey = submission.getRequestKey() != null
+                    ? submission.getRequestKey()
+                    : submission.getId().toString();
+            submission.setOrderId(orderService.createOrder(requestKey, request));
+            submission.setStatus(SubmissionStatus.COMPLETED);
+            submission.setNextAttemptAt(null);
+            completedCounter.increment();
+        } catch (RequestInProgressException e) {
+            // the same request key is being placed elsewhere, its order ID is picked up on a later poll
+            submission.setStatus(SubmissionStatus.QUEUED);
+            submission.setNextAttemptAt(LocalDateTime.now().plusNanos(inProgressRetryMs * 1_000_000));
+        } catch (Exception e) {
+            var reason = e instanceof BusinessException businessException ? businessException.getMsg() : e.getMessage();
+            log.warn("Order submission {} failed: {}", submission.getId(), reason);
+            submission.setStatus(SubmissionStatus.FAILED);
+            submission.setFailureReason(truncate(reason));
+            failedCounter.increment();
+        }
+        var saved = repository.save(submission);
+        events.publish(OrderSubmissionResponse.from(saved));
+        return saved;
+    }
+
+    int inFlight() {
+        return executor.getMaxPoolSize() - permits.availablePermits();
+    }
+
+    private void dispatch(OrderSubmission submission) {
+        events.publish(OrderSubmissionResponse.from(submission));
+        permits.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    process(submission);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // left in PROCESSING, requeueStale picks it up again
+            permits.release();
+            log.warn("Cannot dispatch order submission {}: {}", submission.getId(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String reason) {
+        return reason != null && reason.length() > MAX_FAILURE_REASON_LENGTH
+                ? reason.substring(0, MAX_FAILURE_REASON_LENGTH)
+                : reason;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bogdan.ecommerce.submission;
+
+public enum SubmissionStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,131 @@
+create table customer_order
+(
+    id                 bigint       not null,
+    reference          varchar(255) not null,
+    total_amount       numeric(38, 2),
+    payment_method     varchar(255),
+    customer_id        varchar(255),
+    status             varchar(255),
+    created_date       timestamp(6) not null,
+    last_modified_date timestamp(6),
+    primary key (id, created_date),
+    unique (reference, created_date)
+) partition by range (created_date);
+
+create table customer_line
+(
+    id           bigint           not null,
+    order_id     bigint,
+    product_id   integer,
+    quantity     double precision not null,
+    created_date timestamp(6)     not null,
+    primary key (id, created_date)
+) partition by range (created_date);
+
+create index idx_customer_line_order_id on customer_line (order_id);
+
+-- Detached partitions end up here in chunks of rows; the jsonb payload is
+-- compressed by TOAST.
+create table if not exists order_archive
+(
+    id             bigserial primary key,
+    table_name     varchar(63)  not null,
+    partition_name varchar(63)  not null,
+    chunk          integer      not null,
+    row_count      integer      not null,
+    first_id       bigint       not null,
+    last_id        bigint       not null,
+    payload        jsonb        not null,
+    archived_date  timestamp(6) not null default now()
+);
+
+-- The partitions of the next months are created by PartitionMaintenance; these
+-- cover the writes that happen before it first runs.
+do
+$$
+    declare
+        month date;
+        tbl   text;
+    begin
+        for month in select generate_series(date_trunc('month', now()), date_trunc('month', now()) + interval '3 months', interval '1 month')::date
+            loop
+                foreach tbl in array array ['customer_order', 'customer_line']
+                    loop
+                        execute format('create table if not exists %I partition of %I for values from (%L) to (%L)',
+                                       tbl || '_p' || to_char(month, 'YYYY_MM'), tbl, month, (month + interval '1 month')::date);
+                    end loop;
+            end loop;
+    end
+$$;
+
+create table if not exists customer_order_summary
+(
+    order_id       bigint       not null
+        primary key,
+    customer_id    varchar(255) not null,
+    reference      varchar(255) not null,
+    total_amount   numeric(38, 2),
+    payment_method varchar(255),
+    status         varchar(255),
+    line_count     integer      not null,
+    created_date   timestamp(6) not null
+);
+
+create index if not exists idx_order_summary_customer_created on customer_order_summary (customer_id, created_date, order_id);
+
+create table if not exists order_request_key
+(
+    customer_id  varchar(255) not null,
+    request_key  varchar(255) not null,
+    request_hash varchar(64)  not null,
+    order_id     bigint,
+    created_date timestamp(6) not null,
+    primary key (customer_id, request_key)
+);
+
+create table if not exists order_submission
+(
+    id                 uuid         not null
+        primary key,
+    customer_id        varchar(255),
+    request_key        varchar(255),
+    request_hash       varchar(64),
+    payload            text         not null,
+    status             varchar(255) not null,
+    order_id           bigint,
+    failure_reason     varchar(255),
+    next_attempt_at    timestamp(6),
+    created_date       timestamp(6) not null,
+    last_modified_date timestamp(6)
+);
+
+create index if not exists idx_order_submission_status on order_submission (status, created_date);
+
+create unique index if not exists uk_order_submission_request_key on order_submission (customer_id, request_key);
+
+create table if not exists order_outbox_event
+(
+    id              bigint       not null
+        primary key,
+    topic           varchar(255) not null,
+    message_key     varchar(255),
+    type            varchar(255) not null,
+    payload         text         not null,
+    created_date    timestamp(6) not null,
+    attempts        integer      not null default 0,
+    last_error      varchar(255),
+    next_attempt_at timestamp(6),
+    parked_date     timestamp(6)
+);
+
+create sequence if not exists order_outbox_event_seq increment by 50;
+
+-- Snowflake node ids leased to the running instances of each service.
+create table if not exists id_generator_node
+(
+    service_name     varchar(255) not null,
+    node_id          integer      not null,
+    instance_id      varchar(255) not null,
+    lease_expires_at timestamp(6) not null,
+    primary key (service_name, node_id)
+);
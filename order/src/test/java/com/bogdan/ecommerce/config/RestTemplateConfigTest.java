@@ -0,0 +1,56 @@
+package com.bogdan.ecommerce.config;
+
+import com.bogdan.ecommerce.deadline.DeadlineExceededException;
+import com.bogdan.ecommerce.deadline.RequestDeadline;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RestTemplateConfigTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void TestRestTemplate_WithDeadline_ShouldSendRemainingBudget() {
+        // Arrange
+        var restTemplate = new RestTemplateConfig().restTemplate(new RestTemplateBuilder(), HttpClients.createDefault(), 2000);
+        var server = MockRestServiceServer.bindTo(restTemplate).build();
+        var sentBudget = new AtomicLong();
+        server.expect(requestTo("http://product/release"))
+                .andExpect(request -> sentBudget.set(Long.parseLong(request.getHeaders().getFirst(RequestDeadline.HEADER))))
+                .andRespond(withSuccess());
+        RequestDeadline.start(5000);
+
+        // Act
+        restTemplate.postForEntity("http://product/release", null, Void.class);
+
+        // Assert
+        server.verify();
+        assertTrue(sentBudget.get() > 0 && sentBudget.get() <= 5000, "sent " + sentBudget.get());
+    }
+
+    @Test
+    public void TestRestTemplate_WithExpiredDeadline_ShouldNotCallDownstream() {
+        // Arrange
+        var restTemplate = new RestTemplateConfig().restTemplate(new RestTemplateBuilder(), HttpClients.createDefault(), 2000);
+        var server = MockRestServiceServer.bindTo(restTemplate).build();
+        RequestDeadline.start(0);
+
+        // Act & Assert
+        assertThrows(DeadlineExceededException.class,
+                () -> restTemplate.postForEntity("http://product/release", null, Void.class));
+        server.verify();
+    }
+}
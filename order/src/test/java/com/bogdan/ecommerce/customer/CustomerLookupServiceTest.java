@@ -0,0 +1,97 @@
+package com.bogdan.ecommerce.customer;
+
+import com.bogdan.ecommerce.resilience.DownstreamCallGuard;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerLookupServiceTest {
+
+    @Mock
+    private CustomerClient customerClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamCallGuard guard;
+
+    private final CustomerResponse customer = new CustomerResponse("1", "john", "doe", "john@mail.com");
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new DownstreamCallGuard(BulkheadRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults(), meterRegistry);
+    }
+
+    @Test
+    public void TestFindCustomerById_WithRepeatedLookups_ShouldCallCustomerServiceOnce() {
+        // Arrange
+        var lookupService = new CustomerLookupService(customerClient, guard, meterRegistry, true, 100, 300, 30);
+        when(customerClient.findCustomerById("1")).thenReturn(Optional.of(customer));
+
+        // Act
+        lookupService.findCustomerById("1");
+        var result = lookupService.findCustomerById("1");
+
+        // Assert
+        assertEquals(Optional.of(customer), result);
+        verify(customerClient, times(1)).findCustomerById("1");
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "customers").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void TestFindCustomerById_WithMissingCustomer_ShouldCacheNegativeResult() {
+        // Arrange
+        var lookupService = new CustomerLookupService(customerClient, guard, meterRegistry, true, 100, 300, 30);
+        when(customerClient.findCustomerById("2")).thenReturn(Optional.empty());
+
+        // Act
+        lookupService.findCustomerById("2");
+        var result = lookupService.findCustomerById("2");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(customerClient, times(1)).findCustomerById("2");
+    }
+
+    @Test
+    public void TestOnCustomerChanged_WithCachedCustomer_ShouldEvictIt() {
+        // Arrange
+        var lookupService = new CustomerLookupService(customerClient, guard, meterRegistry, true, 100, 300, 30);
+        when(customerClient.findCustomerById("1")).thenReturn(Optional.of(customer));
+        lookupService.findCustomerById("1");
+
+        // Act
+        lookupService.onCustomerChanged(new CustomerChangedEvent("1"));
+        lookupService.findCustomerById("1");
+
+        // Assert
+        verify(customerClient, times(2)).findCustomerById("1");
+    }
+
+    @Test
+    public void TestFindCustomerById_WithCacheDisabled_ShouldAlwaysCallCustomerService() {
+        // Arrange
+        var lookupService = new CustomerLookupService(customerClient, guard, meterRegistry, false, 100, 300, 30);
+        when(customerClient.findCustomerById("1")).thenReturn(Optional.of(customer));
+
+        // Act
+        lookupService.findCustomerById("1");
+        lookupService.findCustomerById("1");
+
+        // Assert
+        verify(customerClient, times(2)).findCustomerById("1");
+    }
+}
@@ -0,0 +1,103 @@
+package com.bogdan.ecommerce.hedging;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AbortableHttpClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService executor;
+    private CloseableHttpClient httpClient;
+    private Client client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        executor = Executors.newSingleThreadExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/customers", exchange -> {
+            try {
+                if (exchange.getRequestURI().getPath().endsWith("/slow")) {
+                    Thread.sleep(2000);
+                }
+                var body = "{\"id\":\"1\"}".getBytes(UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        httpClient = HttpClients.createDefault();
+        client = new ApacheHttp5Client(new AbortableHttpClient(httpClient));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void TestExecute_WithAbortedAttempt_ShouldFailWithoutWaitingForResponse() {
+        // Arrange
+        var attempt = new HedgedAttempt();
+        executor.execute(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            attempt.abort();
+        });
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(IOException.class, () -> attempt.run(() -> client.execute(get("/customers/slow"), new Request.Options())));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsedMs < 1000, "failed after " + elapsedMs + "ms");
+    }
+
+    @Test
+    public void TestExecute_OutsideAttempt_ShouldSendRequest() throws Exception {
+        // Act
+        try (var response = client.execute(get("/customers/1"), new Request.Options())) {
+
+            // Assert
+            assertEquals(200, response.status());
+            assertEquals("{\"id\":\"1\"}", new String(response.body().asInputStream().readAllBytes(), UTF_8));
+        }
+    }
+
+    private Request get(String path) {
+        var url = "http://localhost:" + server.getAddress().getPort() + path;
+        return Request.create(Request.HttpMethod.GET, url, Map.of(), null, UTF_8, null);
+    }
+}
@@ -0,0 +1,287 @@
+package com.bogdan.ecommerce.hedging;
+
+import com.bogdan.ecommerce.resilience.DownstreamCallGuard;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestHedgerTest {
+
+    private static final String CLIENT = "customer-service";
+    private static final String GUARDED_CLIENT = "customer";
+
+    private final List<RequestHedger> hedgers = new ArrayList<>();
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hedgers.forEach(RequestHedger::shutdown);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void TestCall_WithSlowPrimary_ShouldReturnHedgeAndAbortPrimary() throws Exception {
+        // Arrange
+        var hedger = hedger(true, 10);
+        var attempts = new AtomicInteger();
+        var caller = Thread.currentThread();
+        var primaryAborted = new AtomicBoolean();
+
+        // Act
+        long start = System.nanoTime();
+        var result = hedger.call(CLIENT, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                HedgedAttempt.current().onAbort(caller::interrupt);
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    primaryAborted.set(true);
+                    throw e;
+                }
+                return "primary";
+            }
+            return "hedge";
+        }, null);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals("hedge", result);
+        assertTrue(elapsedMs < 400, "answered after " + elapsedMs + "ms");
+        assertTrue(primaryAborted.get());
+        assertEquals(1, counter("order.hedging.calls"));
+        assertEquals(1, counter("order.hedging.hedges"));
+        assertEquals(1, counter("order.hedging.wins"));
+    }
+
+    @Test
+    public void TestCall_WithSlowHedge_ShouldReturnPrimaryAndDiscardHedge() throws Exception {
+        // Arrange
+        var hedger = hedger(true, 10);
+        var attempts = new AtomicInteger();
+        var discarded = Collections.synchronizedList(new ArrayList<String>());
+        var hedgeDone = new CountDownLatch(1);
+
+        // Act
+        var result = hedger.call(CLIENT, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(100);
+                return "primary";
+            }
+            Thread.sleep(300);
+            hedgeDone.countDown();
+            return "hedge";
+        }, discarded::add);
+
+        // Assert
+        assertEquals("primary", result);
+        assertTrue(hedgeDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(List.of("hedge"), discarded);
+        assertEquals(0, counter("order.hedging.wins"));
+    }
+
+    @Test
+    public void TestCall_WithFastPrimary_ShouldNotHedge() throws Exception {
+        // Arrange
+        var hedger = hedger(true, 10);
+        var attempts = new AtomicInteger();
+
+        var caller = Thread.currentThread();
+        var onCaller = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertEquals("primary", hedger.call(CLIENT, () -> {
+                attempts.incrementAndGet();
+                if (Thread.currentThread() == caller) {
+                    onCaller.incrementAndGet();
+                }
+                return "primary";
+            }, null));
+        }
+
+        // Assert
+        assertEquals(20, attempts.get());
+        assertEquals(20, onCaller.get());
+        assertEquals(20, counter("order.hedging.calls"));
+        assertEquals(0, counter("order.hedging.hedges"));
+    }
+
+    @Test
+    public void TestCall_WithSpentBudget_ShouldWaitForPrimary() throws Exception {
+        // Arrange
+        var hedger = hedger(true, 1);
+        var attempts = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            hedger.call(CLIENT, () -> {
+                attempts.incrementAndGet();
+                Thread.sleep(50);
+                return "slow";
+            }, null);
+        }
+
+        // Assert
+        assertEquals(4, attempts.get());
+        assertEquals(3, counter("order.hedging.calls"));
+        assertEquals(1, counter("order.hedging.hedges"));
+    }
+
+    @Test
+    public void TestCall_WithFullBulkhead_ShouldNotHedge() throws Exception {
+        // Arrange
+        var bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        var guard = new DownstreamCallGuard(bulkheadRegistry, CircuitBreakerRegistry.ofDefaults(), meterRegistry);
+        var hedger = hedger(guard, true, 10);
+        var attempts = new AtomicInteger();
+
+        // Act
+        var result = guard.call(GUARDED_CLIENT, () -> {
+            try {
+                return hedger.call(CLIENT, () -> {
+                    attempts.incrementAndGet();
+                    Thread.sleep(100);
+                    return "primary";
+                }, null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Assert
+        assertEquals("primary", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, counter("order.hedging.hedges"));
+        assertEquals(1, bulkheadRegistry.bulkhead(GUARDED_CLIENT).getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    public void TestCall_WithBulkheadPermitLeft_ShouldHedgeAndReleasePermit() throws Exception {
+        // Arrange
+        var bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        var guard = new DownstreamCallGuard(bulkheadRegistry, CircuitBreakerRegistry.ofDefaults(), meterRegistry);
+        var hedger = hedger(guard, true, 10);
+        var hedgeDone = new CountDownLatch(1);
+        var attempts = new AtomicInteger();
+
+        // Act
+        guard.call(GUARDED_CLIENT, () -> {
+            try {
+                return hedger.call(CLIENT, () -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        Thread.sleep(100);
+                        return "primary";
+                    }
+                    Thread.sleep(150);
+                    hedgeDone.countDown();
+                    return "hedge";
+                }, null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Assert
+        assertEquals(1, counter("order.hedging.hedges"));
+        assertTrue(hedgeDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(2, bulkheadRegistry.bulkhead(GUARDED_CLIENT).getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    public void TestCall_WithFailingPrimary_ShouldReturnSuccessfulHedge() throws Exception {
+        // Arrange
+        var hedger = hedger(true, 10);
+        var attempts = new AtomicInteger();
+
+        // Act
+        var result = hedger.call(CLIENT, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(100);
+                throw new IOException("connection reset");
+            }
+            Thread.sleep(200);
+            return "hedge";
+        }, null);
+
+        // Assert
+        assertEquals("hedge", result);
+        assertEquals(1, counter("order.hedging.wins"));
+    }
+
+    @Test
+    public void TestCall_WithBothAttemptsFailing_ShouldThrowOriginalException() {
+        // Arrange
+        var hedger = hedger(true, 10);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> hedger.call(CLIENT, () -> {
+            Thread.sleep(50);
+            throw new IOException("connection reset");
+        }, null));
+        assertEquals(1, counter("order.hedging.hedges"));
+    }
+
+    @Test
+    public void TestCall_WithHedgingDisabled_ShouldCallOnceOnCallerThread() throws Exception {
+        // Arrange
+        var hedger = hedger(false, 10);
+        var caller = Thread.currentThread();
+
+        // Act
+        var result = hedger.call(CLIENT, () -> Thread.currentThread() == caller, null);
+
+        // Assert
+        assertTrue(result);
+        assertTrue(meterRegistry.find("order.hedging.calls").counters().isEmpty());
+    }
+
+    private RequestHedger hedger(boolean enabled, int budgetBurst) {
+        var guard = new DownstreamCallGuard(BulkheadRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults(), meterRegistry);
+        return hedger(guard, enabled, budgetBurst);
+    }
+
+    private RequestHedger hedger(DownstreamCallGuard guard, boolean enabled, int budgetBurst) {
+        var hedger = new RequestHedger(executor, guard, meterRegistry, enabled, 95, 10, 5, 0.0, budgetBurst, 100);
+        hedgers.add(hedger);
+        return hedger;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("client", CLIENT).counter().count();
+    }
+}
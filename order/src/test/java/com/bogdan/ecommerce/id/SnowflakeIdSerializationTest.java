@@ -0,0 +1,84 @@
+package com.bogdan.ecommerce.id;
+
+import com.bogdan.ecommerce.order.entity.OrderResponse;
+import com.bogdan.ecommerce.order.entity.OrderStatus;
+import com.bogdan.ecommerce.order.entity.OrderSummaryResponse;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.orderline.OrderLineResponse;
+import com.bogdan.ecommerce.submission.OrderSubmissionResponse;
+import com.bogdan.ecommerce.submission.SubmissionStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdSerializationTest {
+
+    private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private long id;
+
+    @BeforeEach
+    public void setUp() {
+        id = new SnowflakeIdGenerator(7).nextId();
+    }
+
+    @Test
+    public void TestSerialize_WithOrderResponse_ShouldWriteIdAsString() throws Exception {
+        // Arrange
+        var response = new OrderResponse(id, "ORD-1", BigDecimal.TEN, PaymentMethod.PAYPAL, "customer-1", OrderStatus.PAYMENT_PENDING);
+
+        // Act
+        var json = objectMapper.readTree(objectMapper.writeValueAsString(response));
+
+        // Assert
+        assertTrue(id > MAX_SAFE_INTEGER);
+        assertTrue(json.get("id").isTextual());
+        assertEquals(String.valueOf(id), json.get("id").asText());
+    }
+
+    @Test
+    public void TestSerialize_WithOrderSummaryResponse_ShouldWriteOrderIdAsString() throws Exception {
+        // Arrange
+        var response = new OrderSummaryResponse(id, "ORD-1", BigDecimal.TEN, PaymentMethod.PAYPAL, OrderStatus.PAYMENT_PENDING, 1, null);
+
+        // Act
+        var json = objectMapper.readTree(objectMapper.writeValueAsString(response));
+
+        // Assert
+        assertTrue(json.get("orderId").isTextual());
+        assertEquals(String.valueOf(id), json.get("orderId").asText());
+    }
+
+    @Test
+    public void TestSerialize_WithOrderLineResponse_ShouldWriteIdAsString() throws Exception {
+        // Arrange
+        var response = new OrderLineResponse(id, 1, 2);
+
+        // Act
+        var json = objectMapper.readTree(objectMapper.writeValueAsString(response));
+
+        // Assert
+        assertTrue(json.get("id").isTextual());
+        assertEquals(String.valueOf(id), json.get("id").asText());
+    }
+
+    @Test
+    public void TestSerialize_WithOrderSubmissionResponse_ShouldWriteOrderIdAsString() throws Exception {
+        // Arrange
+        var response = new OrderSubmissionResponse(UUID.randomUUID(), SubmissionStatus.COMPLETED, id, null, null, null);
+
+        // Act
+        var json = objectMapper.readTree(objectMapper.writeValueAsString(response));
+
+        // Assert
+        assertTrue(json.get("orderId").isTextual());
+        assertEquals(String.valueOf(id), json.get("orderId").asText());
+    }
+}
@@ -0,0 +1,102 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.customer.CustomerLookupService;
+import com.bogdan.ecommerce.customer.CustomerResponse;
+import com.bogdan.ecommerce.order.entity.CheckoutResult;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.product.ProductReleaseProducer;
+import com.bogdan.ecommerce.product.client.ProductClient;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import com.bogdan.ecommerce.product.model.PurchaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the checkout latency of the sequential and the parallel mode against
+ * downstreams that answer after a fixed delay; sample mode reports p50 and p99.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bogdan.ecommerce.order.service.CheckoutBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({"5", "20"})
+    private long downstreamLatencyMs;
+
+    private ExecutorService executor;
+    private CheckoutService checkoutService;
+    private OrderRequest request;
+
+    @Setup
+    public void setUp() {
+        var products = List.of(new PurchaseRequest(1, 2));
+        var customer = new CustomerResponse("1", "john", "doe", "john@mail.com");
+        var purchasedProducts = List.of(new PurchaseResponse(1, "meat", "angus", BigDecimal.valueOf(1000), 2));
+        request = new OrderRequest(null, "ref-1", BigDecimal.valueOf(2000), PaymentMethod.VISA, "1", products);
+
+        var customerLookupService = mock(CustomerLookupService.class);
+        var productClient = mock(ProductClient.class);
+        when(customerLookupService.findCustomerById("1")).thenAnswer(invocation -> {
+            Thread.sleep(downstreamLatencyMs);
+            return Optional.of(customer);
+        });
+        when(productClient.purchaseProducts(products)).thenAnswer(invocation -> {
+            Thread.sleep(downstreamLatencyMs);
+            return purchasedProducts;
+        });
+        executor = Executors.newFixedThreadPool(4);
+        checkoutService = new CheckoutService(
+                customerLookupService, productClient, mock(ProductReleaseProducer.class), executor, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public CheckoutResult sequential() {
+        return checkoutService.checkoutSequentially(request);
+    }
+
+    @Benchmark
+    public CheckoutResult parallel() {
+        return checkoutService.checkoutInParallel(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CheckoutBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
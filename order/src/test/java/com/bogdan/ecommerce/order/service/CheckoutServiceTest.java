@@ -0,0 +1,128 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.customer.CustomerLookupService;
+import com.bogdan.ecommerce.customer.CustomerResponse;
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.order.entity.CheckoutResult;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.product.ProductReleaseProducer;
+import com.bogdan.ecommerce.product.client.ProductClient;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import com.bogdan.ecommerce.product.model.PurchaseResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckoutServiceTest {
+
+    @Mock
+    private CustomerLookupService customerLookupService;
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private ProductReleaseProducer productReleaseProducer;
+
+    private ExecutorService executor;
+    private CheckoutService checkoutService;
+
+    private final CustomerResponse customer = new CustomerResponse("1", "john", "doe", "john@mail.com");
+    private final List<PurchaseRequest> products = List.of(new PurchaseRequest(1, 2));
+    private final List<PurchaseResponse> purchasedProducts = List.of(
+            new PurchaseResponse(1, "meat", "angus", BigDecimal.valueOf(1000), 2)
+    );
+    private final OrderRequest request = new OrderRequest(
+            null, "ref-1", BigDecimal.valueOf(2000), PaymentMethod.VISA, "1", products
+    );
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(4);
+        checkoutService = new CheckoutService(customerLookupService, productClient, productReleaseProducer, executor, true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void TestCheckout_WithValidRequest_ShouldReturnCustomerAndPurchasedProducts() {
+        // Arrange
+        when(customerLookupService.findCustomerById("1")).thenReturn(Optional.of(customer));
+        when(productClient.purchaseProducts(products)).thenReturn(purchasedProducts);
+
+        // Act
+        CheckoutResult result = checkoutService.checkout(request);
+
+        // Assert
+        assertEquals(customer, result.customer());
+        assertEquals(purchasedProducts, result.purchasedProducts());
+        verify(productReleaseProducer, never()).releaseAbandonedCheckout(products);
+    }
+
+    @Test
+    public void TestCheckout_WithMissingCustomer_ShouldReleaseReservedProducts() {
+        // Arrange
+        when(customerLookupService.findCustomerById("1")).thenReturn(Optional.empty());
+        when(productClient.purchaseProducts(products)).thenReturn(purchasedProducts);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> checkoutService.checkout(request));
+        verify(productReleaseProducer, timeout(1000)).releaseAbandonedCheckout(products);
+    }
+
+    @Test
+    public void TestCheckout_WithFailedPurchase_ShouldNotReleaseProducts() {
+        // Arrange
+        when(customerLookupService.findCustomerById("1")).thenReturn(Optional.of(customer));
+        when(productClient.purchaseProducts(products)).thenThrow(new BusinessException("Insufficient stock"));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> checkoutService.checkout(request));
+        verify(productReleaseProducer, never()).releaseAbandonedCheckout(products);
+    }
+
+    @Test
+    public void TestCheckout_WithParallelMode_ShouldReserveProductsWhileLookingUpCustomer() throws Exception {
+        // Arrange
+        CountDownLatch purchaseStarted = new CountDownLatch(1);
+        when(customerLookupService.findCustomerById("1")).thenAnswer(invocation -> {
+            // completes only if the reservation runs at the same time as the lookup
+            assertTrue(purchaseStarted.await(5, TimeUnit.SECONDS));
+            return Optional.of(customer);
+        });
+        when(productClient.purchaseProducts(products)).thenAnswer(invocation -> {
+            purchaseStarted.countDown();
+            return purchasedProducts;
+        });
+
+        // Act
+        CheckoutResult result = checkoutService.checkoutInParallel(request);
+
+        // Assert
+        assertEquals(customer, result.customer());
+        assertEquals(purchasedProducts, result.purchasedProducts());
+    }
+}
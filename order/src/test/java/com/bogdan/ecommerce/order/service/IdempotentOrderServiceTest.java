@@ -0,0 +1,261 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.exception.RequestInProgressException;
+import com.bogdan.ecommerce.exception.RequestKeyMismatchException;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.entity.OrderRequestKey;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.order.service.OrderRequestKeyStore.RequestKey;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotentOrderServiceTest {
+
+    private static final int THREADS = 32;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRequestKeyStore keyStore;
+
+    private IdempotentOrderService idempotentOrderService;
+
+    private final Map<String, OrderRequestKey> keys = new ConcurrentHashMap<>();
+
+    private final OrderRequest request = new OrderRequest(
+            null, "ref-1", BigDecimal.valueOf(2000), PaymentMethod.VISA, "1", List.of(new PurchaseRequest(1, 2))
+    );
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotentOrderService = new IdempotentOrderService(orderService, keyStore, 600, 1000);
+
+        // Emulates the primary key (customer_id, request_key) of order_request_key
+        when(keyStore.claim(any())).thenAnswer(invocation -> {
+            RequestKey key = invocation.getArgument(0);
+            var claimedAt = LocalDateTime.now();
+            var row = new OrderRequestKey(key.customerId(), key.key(), key.requestHash(), null, claimedAt);
+            return keys.putIfAbsent(idOf(key), row) == null
+                    ? Optional.of(new OrderRequestKeyStore.Claim(key, claimedAt))
+                    : Optional.empty();
+        });
+        doAnswer(invocation -> {
+            OrderRequestKeyStore.Claim claim = invocation.getArgument(0);
+            keys.remove(idOf(claim.requestKey()));
+            return null;
+        }).when(keyStore).release(any());
+        when(keyStore.find(any())).thenAnswer(invocation -> Optional.ofNullable(keys.get(idOf(invocation.getArgument(0)))));
+    }
+
+    @Test
+    public void TestCreateOrder_WithRepeatedKey_ShouldReturnOriginalOrderId() {
+        // Arrange
+        when(orderService.createOrder(eq(request), claimOf("key-1"))).thenReturn(42L);
+
+        // Act
+        var first = idempotentOrderService.createOrder("key-1", request);
+        var second = idempotentOrderService.createOrder("key-1", request);
+
+        // Assert
+        assertEquals(42L, first);
+        assertEquals(42L, second);
+        verify(orderService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    public void TestCreateOrder_WithoutHeader_ShouldUseOrderReferenceAsKey() {
+        // Arrange
+        when(orderService.createOrder(eq(request), claimOf("ref-1"))).thenReturn(7L);
+
+        // Act
+        idempotentOrderService.createOrder(null, request);
+        var result = idempotentOrderService.createOrder(" ", request);
+
+        // Assert
+        assertEquals(7L, result);
+        verify(orderService, times(1)).createOrder(eq(request), claimOf("ref-1"));
+    }
+
+    @Test
+    public void TestCreateOrder_WithKeyClaimedByAnotherInstance_ShouldReturnItsOrderId() {
+        // Arrange
+        store("key-2", 99L);
+
+        // Act
+        var result = idempotentOrderService.createOrder("key-2", request);
+
+        // Assert
+        assertEquals(99L, result);
+        verify(orderService, never()).createOrder(any(), any());
+    }
+
+    @Test
+    public void TestCreateOrder_WithKeyStillBeingPlacedByAnotherInstance_ShouldRejectWithoutWaiting() {
+        // Arrange
+        store("key-6", null);
+
+        // Act & Assert
+        assertThrows(RequestInProgressException.class, () -> idempotentOrderService.createOrder("key-6", request));
+        verify(orderService, never()).createOrder(any(), any());
+    }
+
+    @Test
+    public void TestCreateOrder_WithKeyReusedForDifferentRequest_ShouldRejectAsMismatch() {
+        // Arrange
+        var otherRequest = new OrderRequest(
+                null, "ref-1", BigDecimal.valueOf(3000), PaymentMethod.VISA, "1", List.of(new PurchaseRequest(1, 3))
+        );
+        when(orderService.createOrder(eq(request), claimOf("key-7"))).thenReturn(11L);
+        idempotentOrderService.createOrder("key-7", request);
+
+        // Act & Assert
+        assertThrows(RequestKeyMismatchException.class, () -> idempotentOrderService.createOrder("key-7", otherRequest));
+        verify(orderService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    public void TestCreateOrder_WithSameKeyFromAnotherCustomer_ShouldCreateSeparateOrder() {
+        // Arrange
+        var otherCustomer = new OrderRequest(
+                null, "ref-1", BigDecimal.valueOf(2000), PaymentMethod.VISA, "2", List.of(new PurchaseRequest(1, 2))
+        );
+        when(orderService.createOrder(eq(request), claimOf("key-8"))).thenReturn(12L);
+        when(orderService.createOrder(eq(otherCustomer), claimOf("key-8"))).thenReturn(13L);
+
+        // Act
+        var first = idempotentOrderService.createOrder("key-8", request);
+        var second = idempotentOrderService.createOrder("key-8", otherCustomer);
+
+        // Assert
+        assertEquals(12L, first);
+        assertEquals(13L, second);
+    }
+
+    @Test
+    public void TestCreateOrder_WithFailedSubmission_ShouldReleaseKeyForRetry() {
+        // Arrange
+        when(orderService.createOrder(eq(request), claimOf("key-3")))
+                .thenThrow(new BusinessException("Insufficient stock"))
+                .thenReturn(5L);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> idempotentOrderService.createOrder("key-3", request));
+        verify(keyStore).release(claimOf("key-3"));
+        assertEquals(5L, idempotentOrderService.createOrder("key-3", request));
+    }
+
+    @Test
+    public void TestCreateOrder_WithConcurrentDuplicates_ShouldCreateOrderOnce() throws Exception {
+        // Arrange
+        when(orderService.createOrder(eq(request), claimOf("key-4"))).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            store("key-4", 42L);
+            return 42L;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return idempotentOrderService.createOrder("key-4", request);
+                }));
+            }
+            start.countDown();
+
+            // Assert
+            for (var result : results) {
+                assertEquals(42L, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(orderService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    public void TestCreateOrder_WithConcurrentDuplicatesAcrossInstances_ShouldCreateOrderOnceAndAskOthersToRetry() throws Exception {
+        // Arrange
+        var otherInstance = new IdempotentOrderService(orderService, keyStore, 600, 1000);
+        when(orderService.createOrder(eq(request), claimOf("key-5"))).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            store("key-5", 43L);
+            return 43L;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                var instance = i % 2 == 0 ? idempotentOrderService : otherInstance;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return instance.createOrder("key-5", request);
+                }));
+            }
+            start.countDown();
+
+            // Assert
+            for (var result : results) {
+                try {
+                    assertEquals(43L, result.get());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(RequestInProgressException.class, e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(orderService, times(1)).createOrder(any(), any());
+    }
+
+    private void store(String key, Long orderId) {
+        var requestKey = new RequestKey(request.customerId(), key, OrderRequestFingerprint.of(request));
+        keys.put(idOf(requestKey), new OrderRequestKey(
+                requestKey.customerId(), key, requestKey.requestHash(), orderId, LocalDateTime.now()));
+    }
+
+    private static String idOf(RequestKey key) {
+        return key.customerId() + "/" + key.key();
+    }
+
+    private static OrderRequestKeyStore.Claim claimOf(String key) {
+        return argThat(claim -> claim != null && claim.requestKey().key().equals(key));
+    }
+}
@@ -0,0 +1,25 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.id.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderReferenceGeneratorTest {
+
+    @Test
+    public void TestNextReference_WithSuccessiveCalls_ShouldSortInCreationOrder() {
+        // Arrange
+        var referenceGenerator = new OrderReferenceGenerator(new SnowflakeIdGenerator(5));
+
+        // Act
+        var first = referenceGenerator.nextReference();
+        var second = referenceGenerator.nextReference();
+
+        // Assert
+        assertTrue(first.matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"));
+        assertEquals(first.length(), second.length());
+        assertTrue(first.compareTo(second) < 0);
+    }
+}
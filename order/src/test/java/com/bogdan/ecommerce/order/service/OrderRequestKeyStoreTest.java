@@ -0,0 +1,166 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.exception.RequestInProgressException;
+import com.bogdan.ecommerce.order.service.OrderRequestKeyStore.RequestKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the claim SQL against PostgreSQL, since {@code ON CONFLICT ... DO UPDATE WHERE}
+ * is not supported by H2. These tests need a Docker daemon for the container and are
+ * skipped without one; the dedup logic on top of the store is covered by
+ * {@link IdempotentOrderServiceTest} either way.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.application.id-generator.node-id=1",
+        "application.idempotency.claim-lease-ms=60000",
+        "application.idempotency.retention-hours=24"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(OrderRequestKeyStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderRequestKeyStoreTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OrderRequestKeyStore keyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("delete from order_request_key");
+    }
+
+    @Test
+    public void TestClaim_WithLiveClaim_ShouldRejectDuplicate() {
+        // Act
+        var first = keyStore.claim(requestKey("key-1"));
+        var second = keyStore.claim(requestKey("key-1"));
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertFalse(second.isPresent());
+    }
+
+    @Test
+    public void TestClaim_WithSameKeyFromAnotherCustomer_ShouldClaimSeparately() {
+        // Arrange
+        keyStore.claim(requestKey("key-5")).orElseThrow();
+
+        // Act
+        var other = keyStore.claim(new RequestKey("2", "key-5", "hash"));
+
+        // Assert
+        assertTrue(other.isPresent());
+    }
+
+    @Test
+    public void TestClaim_WithCrashedClaimer_ShouldLetRetryTakeOverAfterLease() {
+        // Arrange
+        var crashed = keyStore.claim(requestKey("key-2")).orElseThrow();
+        age("key-2", "2 minutes");
+
+        // Act
+        var retry = keyStore.claim(requestKey("key-2"));
+
+        // Assert
+        assertTrue(retry.isPresent());
+        assertNotEquals(crashed.claimedAt(), retry.get().claimedAt());
+        assertThrows(RequestInProgressException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> keyStore.hold(crashed)));
+        transactionTemplate.executeWithoutResult(status -> {
+            keyStore.hold(retry.get());
+            keyStore.assignOrder(retry.get(), 42L);
+        });
+        assertEquals(42L, keyStore.find(requestKey("key-2")).orElseThrow().getOrderId());
+    }
+
+    @Test
+    public void TestClaim_WithPlacedOrder_ShouldNeverBeTakenOver() {
+        // Arrange
+        var claim = keyStore.claim(requestKey("key-3")).orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> {
+            keyStore.hold(claim);
+            keyStore.assignOrder(claim, 7L);
+        });
+        age("key-3", "2 minutes");
+
+        // Act
+        var retry = keyStore.claim(requestKey("key-3"));
+
+        // Assert
+        assertFalse(retry.isPresent());
+        assertEquals(7L, keyStore.find(requestKey("key-3")).orElseThrow().getOrderId());
+    }
+
+    @Test
+    public void TestRelease_WithTakenOverClaim_ShouldKeepNewClaim() {
+        // Arrange
+        var crashed = keyStore.claim(requestKey("key-4")).orElseThrow();
+        age("key-4", "2 minutes");
+        var retry = keyStore.claim(requestKey("key-4")).orElseThrow();
+
+        // Act
+        keyStore.release(crashed);
+
+        // Assert
+        assertEquals(retry.claimedAt(), keyStore.find(requestKey("key-4")).orElseThrow().getCreatedDate());
+    }
+
+    @Test
+    public void TestPurge_WithKeysOlderThanRetention_ShouldDeleteOnlyThem() {
+        // Arrange
+        keyStore.claim(requestKey("old-key"));
+        keyStore.claim(requestKey("new-key"));
+        age("old-key", "25 hours");
+
+        // Act
+        keyStore.purge();
+
+        // Assert
+        assertFalse(keyStore.find(requestKey("old-key")).isPresent());
+        assertTrue(keyStore.find(requestKey("new-key")).isPresent());
+    }
+
+    private static RequestKey requestKey(String key) {
+        return new RequestKey("1", key, "hash");
+    }
+
+    private void age(String key, String interval) {
+        jdbcTemplate.update(
+                "update order_request_key set created_date = created_date - cast(? as interval) where request_key = ?",
+                interval, key);
+    }
+}
@@ -0,0 +1,212 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.customer.CustomerResponse;
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.kafka.OrderProducer;
+import com.bogdan.ecommerce.order.entity.CheckoutResult;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.entity.OrderStatus;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.order.mapper.OrderMapper;
+import com.bogdan.ecommerce.order.repository.OrderRepository;
+import com.bogdan.ecommerce.orderline.OrderLineService;
+import com.bogdan.ecommerce.payment.PaymentRequestProducer;
+import com.bogdan.ecommerce.product.ProductReleaseProducer;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository repository;
+
+    @Mock
+    private OrderMapper mapper;
+
+    @Mock
+    private CheckoutService checkoutService;
+
+    @Mock
+    private PaymentRequestProducer paymentRequestProducer;
+
+    @Mock
+    private ProductReleaseProducer productReleaseProducer;
+
+    @Mock
+    private OrderLineService orderLineService;
+
+    @Mock
+    private OrderProducer orderProducer;
+
+    @Mock
+    private OrderRequestKeyStore keyStore;
+
+    @Mock
+    private OrderTotalCalculator totalCalculator;
+
+    @Mock
+    private OrderSummaryService summaryService;
+
+    @Mock
+    private OrderReferenceGenerator referenceGenerator;
+
+    private OrderService orderService;
+
+    private final List<PurchaseRequest> purchasedProducts = List.of(new PurchaseRequest(1, 2));
+    private final CustomerResponse customer = new CustomerResponse("customer-1", "john", "doe", "john@mail.com");
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        orderService = new OrderService(repository, mapper, checkoutService, paymentRequestProducer,
+                productReleaseProducer, orderLineService, orderProducer, keyStore, totalCalculator,
+                summaryService, referenceGenerator);
+        when(orderLineService.findPurchasedProducts(1L)).thenReturn(purchasedProducts);
+    }
+
+    @Test
+    public void TestConfirmPayment_WithPendingOrder_ShouldMarkOrderPaid() {
+        // Arrange
+        when(repository.updateStatusIfPending(1L, OrderStatus.PAID)).thenReturn(1);
+
+        // Act
+        orderService.confirmPayment(1L);
+
+        // Assert
+        verify(summaryService).updateStatus(1L, OrderStatus.PAID);
+        verify(productReleaseProducer, never()).releaseOrder(anyLong(), any());
+    }
+
+    @Test
+    public void TestConfirmPayment_WithRedeliveredResult_ShouldNotUpdateSummaryAgain() {
+        // Arrange
+        when(repository.updateStatusIfPending(1L, OrderStatus.PAID)).thenReturn(1).thenReturn(0);
+
+        // Act
+        orderService.confirmPayment(1L);
+        orderService.confirmPayment(1L);
+
+        // Assert
+        verify(summaryService, times(1)).updateStatus(1L, OrderStatus.PAID);
+    }
+
+    @Test
+    public void TestCompensateFailedPayment_WithPendingOrder_ShouldMarkFailedAndReleaseProducts() {
+        // Arrange
+        when(repository.updateStatusIfPending(1L, OrderStatus.PAYMENT_FAILED)).thenReturn(1);
+
+        // Act
+        orderService.compensateFailedPayment(1L, "Card declined");
+
+        // Assert
+        verify(summaryService).updateStatus(1L, OrderStatus.PAYMENT_FAILED);
+        verify(productReleaseProducer).releaseOrder(1L, purchasedProducts);
+    }
+
+    @Test
+    public void TestCompensateFailedPayment_WithRedeliveredFailure_ShouldReleaseProductsOnce() {
+        // Arrange
+        when(repository.updateStatusIfPending(1L, OrderStatus.PAYMENT_FAILED)).thenReturn(1).thenReturn(0);
+
+        // Act
+        orderService.compensateFailedPayment(1L, "Card declined");
+        orderService.compensateFailedPayment(1L, "Card declined");
+
+        // Assert
+        verify(productReleaseProducer, times(1)).releaseOrder(1L, purchasedProducts);
+        verify(summaryService, times(1)).updateStatus(1L, OrderStatus.PAYMENT_FAILED);
+    }
+
+    @Test
+    public void TestCompensateFailedPayment_WithPaidOrder_ShouldNotReleaseProducts() {
+        // Arrange
+        when(repository.updateStatusIfPending(1L, OrderStatus.PAYMENT_FAILED)).thenReturn(0);
+
+        // Act
+        orderService.compensateFailedPayment(1L, "Card declined");
+
+        // Assert
+        verify(productReleaseProducer, never()).releaseOrder(anyLong(), any());
+        verify(summaryService, never()).updateStatus(anyLong(), any());
+    }
+
+    @Test
+    public void TestCreateOrder_WithTransactionRolledBackAfterCheckout_ShouldReleaseProducts() {
+        // Arrange
+        var request = orderRequest();
+        when(checkoutService.checkout(request)).thenReturn(new CheckoutResult(customer, List.of()));
+        when(totalCalculator.total(any())).thenReturn(BigDecimal.TEN);
+        when(repository.save(any())).thenThrow(new IllegalStateException("connection lost"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            assertThrows(IllegalStateException.class, () -> orderService.createOrder(request, null));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(productReleaseProducer).releaseAbandonedCheckout(purchasedProducts);
+    }
+
+    @Test
+    public void TestCreateOrder_WithCommittedTransaction_ShouldKeepProductsReserved() {
+        // Arrange
+        var request = orderRequest();
+        when(checkoutService.checkout(request)).thenReturn(new CheckoutResult(customer, List.of()));
+        when(totalCalculator.total(any())).thenReturn(BigDecimal.TEN);
+        when(repository.save(any())).thenThrow(new IllegalStateException("connection lost"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            assertThrows(IllegalStateException.class, () -> orderService.createOrder(request, null));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(productReleaseProducer, never()).releaseAbandonedCheckout(any());
+    }
+
+    @Test
+    public void TestCreateOrder_WithFailedCheckout_ShouldLeaveReleaseToCheckout() {
+        // Arrange
+        var request = orderRequest();
+        when(checkoutService.checkout(request)).thenThrow(new BusinessException("No customer"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            assertThrows(BusinessException.class, () -> orderService.createOrder(request, null));
+
+            // Assert
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private OrderRequest orderRequest() {
+        return new OrderRequest(null, null, BigDecimal.TEN, PaymentMethod.PAYPAL, "customer-1", purchasedProducts);
+    }
+}
@@ -0,0 +1,155 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.order.entity.Order;
+import com.bogdan.ecommerce.order.entity.OrderStatus;
+import com.bogdan.ecommerce.order.entity.OrderSummary;
+import com.bogdan.ecommerce.order.entity.OrderSummaryResponse;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.order.repository.OrderSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.application.id-generator.node-id=1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(OrderSummaryService.class)
+class OrderSummaryServiceTest {
+
+    private static final int ORDERS = 55;
+
+    @Autowired
+    private OrderSummaryService summaryService;
+
+    @Autowired
+    private OrderSummaryRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @BeforeEach
+    public void setUp() {
+        // every fifth order shares its creation time with the previous one to exercise the tie-breaker
+        repository.saveAll(IntStream.rangeClosed(1, ORDERS)
+                .mapToObj(id -> summary(id, "customer-1", start.plusMinutes(id - (id % 5 == 0 ? 1 : 0))))
+                .toList());
+        repository.saveAll(IntStream.rangeClosed(ORDERS + 1, ORDERS + 10)
+                .mapToObj(id -> summary(id, "customer-2", start.plusMinutes(id)))
+                .toList());
+        repository.flush();
+    }
+
+    @Test
+    public void TestFindByCustomer_WithCursor_ShouldWalkAllOrdersNewestFirst() {
+        // Arrange
+        var seen = new ArrayList<OrderSummaryResponse>();
+        String cursor = null;
+
+        // Act
+        do {
+            var page = summaryService.findByCustomer("customer-1", cursor, 20);
+            seen.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(ORDERS, seen.size());
+        assertEquals(ORDERS, seen.stream().map(OrderSummaryResponse::orderId).distinct().count());
+        var expectedOrder = new ArrayList<>(seen);
+        expectedOrder.sort(Comparator.comparing(OrderSummaryResponse::createdDate)
+                .thenComparing(OrderSummaryResponse::orderId)
+                .reversed());
+        assertEquals(expectedOrder, seen);
+    }
+
+    @Test
+    public void TestFindByCustomer_WithLastPartialPage_ShouldReturnNoCursor() {
+        // Act
+        var page = summaryService.findByCustomer("customer-2", null, 20);
+
+        // Assert
+        assertEquals(10, page.content().size());
+        assertEquals((long) ORDERS + 10, page.content().get(0).orderId());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void TestFindByCustomer_WithInvalidCursor_ShouldThrowBusinessException() {
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> summaryService.findByCustomer("customer-1", "not-a-cursor", 20));
+    }
+
+    @Test
+    public void TestRecordOrder_WithNewOrder_ShouldInsertWithoutSelectingFirst() {
+        // Arrange
+        var order = Order.builder()
+                .id(1_000L)
+                .customerId("customer-3")
+                .reference("ref-1000")
+                .totalAmount(BigDecimal.TEN)
+                .paymentMethod(PaymentMethod.VISA)
+                .status(OrderStatus.PAYMENT_PENDING)
+                .createdDate(start)
+                .build();
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        summaryService.recordOrder(order, 2);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(2, repository.findById(1_000L).orElseThrow().getLineCount());
+    }
+
+    @Test
+    public void TestUpdateStatus_WithSettledPayment_ShouldUpdateSummary() {
+        // Act
+        summaryService.updateStatus(1L, OrderStatus.PAID);
+        entityManager.clear();
+
+        // Assert
+        List<OrderSummaryResponse> content = summaryService.findByCustomer("customer-1", null, 100).content();
+        assertEquals(OrderStatus.PAID, content.get(content.size() - 1).status());
+    }
+
+    private static OrderSummary summary(long orderId, String customerId, LocalDateTime createdDate) {
+        return OrderSummary.builder()
+                .orderId(orderId)
+                .customerId(customerId)
+                .reference("ref-" + orderId)
+                .totalAmount(BigDecimal.TEN)
+                .paymentMethod(PaymentMethod.VISA)
+                .status(OrderStatus.PAYMENT_PENDING)
+                .lineCount(1)
+                .createdDate(createdDate)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.product.model.PurchaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code long} minor-unit total with the chained {@link BigDecimal} one.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bogdan.ecommerce.order.service.OrderTotalBenchmark} and
+ * {@code -prof gc} to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private List<PurchaseResponse> products;
+    private long[] unitPrices;
+    private long[] quantities;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        products = new ArrayList<>(lines);
+        unitPrices = new long[lines];
+        quantities = new long[lines];
+        for (int i = 0; i < lines; i++) {
+            long cents = 1 + random.nextInt(1_000_000);
+            int quantity = 1 + random.nextInt(20);
+            products.add(new PurchaseResponse(i, "product", "description", BigDecimal.valueOf(cents, 2), quantity));
+            unitPrices[i] = cents;
+            quantities[i] = quantity * OrderTotalCalculator.QUANTITY_UNIT;
+        }
+    }
+
+    @Benchmark
+    public long minorUnitsLoop() {
+        return OrderTotalCalculator.totalMinorUnits(unitPrices, quantities);
+    }
+
+    @Benchmark
+    public BigDecimal minorUnitsFromApi() {
+        return new OrderTotalCalculator().total(products);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return OrderTotalCalculator.totalWithBigDecimal(products);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderTotalBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
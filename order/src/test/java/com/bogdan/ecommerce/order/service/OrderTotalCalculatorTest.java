@@ -0,0 +1,92 @@
+package com.bogdan.ecommerce.order.service;
+
+import com.bogdan.ecommerce.product.model.PurchaseResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderTotalCalculatorTest {
+
+    private static final int SAMPLES = 10_000;
+
+    private final OrderTotalCalculator calculator = new OrderTotalCalculator();
+
+    @Test
+    public void TestTotal_WithPricesAndQuantities_ShouldSumLineTotals() {
+        // Arrange
+        var products = List.of(
+                product("19.99", 3),
+                product("0.05", 0.5),
+                product("100", 1.25)
+        );
+
+        // Act
+        var total = calculator.total(products);
+
+        // Assert
+        assertEquals(new BigDecimal("185.00"), total);
+    }
+
+    @Test
+    public void TestTotal_WithNoProducts_ShouldReturnZero() {
+        // Act & Assert
+        assertEquals(new BigDecimal("0.00"), calculator.total(List.of()));
+    }
+
+    @Test
+    public void TestTotal_WithRandomCentPricesAndQuantities_ShouldEqualBigDecimalTotal() {
+        var random = new Random(1);
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            // Arrange
+            var products = new ArrayList<PurchaseResponse>();
+            int lines = random.nextInt(20);
+            for (int i = 0; i < lines; i++) {
+                var price = BigDecimal.valueOf(random.nextLong(100_000_000L), random.nextInt(3));
+                double quantity = random.nextInt(1_000_000) / Math.pow(10, random.nextInt(4));
+                products.add(new PurchaseResponse(i, "product", "description", price, quantity));
+            }
+
+            // Act & Assert
+            assertEquals(OrderTotalCalculator.totalWithBigDecimal(products), calculator.total(products), products::toString);
+        }
+    }
+
+    @Test
+    public void TestTotal_WithValuesOutsideMinorUnits_ShouldFallBackToBigDecimal() {
+        var random = new Random(2);
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            // Arrange
+            var products = List.of(
+                    product(BigDecimal.valueOf(random.nextLong(), random.nextInt(6)), random.nextDouble() * 1000),
+                    product(BigDecimal.valueOf(random.nextLong(1_000_000L), 2), random.nextInt(100))
+            );
+
+            // Act & Assert
+            assertEquals(OrderTotalCalculator.totalWithBigDecimal(products), calculator.total(products), products::toString);
+        }
+    }
+
+    @Test
+    public void TestTotalMinorUnits_WithHalfCentLine_ShouldRoundHalfUp() {
+        // Arrange
+        long[] unitPrices = {1, -1};
+        long[] quantities = {500, 500};
+
+        // Act & Assert
+        assertEquals(1, OrderTotalCalculator.totalMinorUnits(new long[]{1}, new long[]{500}));
+        assertEquals(0, OrderTotalCalculator.totalMinorUnits(unitPrices, quantities));
+    }
+
+    private static PurchaseResponse product(String price, double quantity) {
+        return product(new BigDecimal(price), quantity);
+    }
+
+    private static PurchaseResponse product(BigDecimal price, double quantity) {
+        return new PurchaseResponse(1, "product", "description", price, quantity);
+    }
+}
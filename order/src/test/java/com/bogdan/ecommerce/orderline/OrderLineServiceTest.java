@@ -0,0 +1,132 @@
+package com.bogdan.ecommerce.orderline;
+
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.order.entity.Order;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.order.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.application.id-generator.node-id=1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import({OrderLineService.class, OrderLineMapper.class})
+class OrderLineServiceTest {
+
+    private static final int LINES = 200;
+    private static final int ORDERS = 100;
+
+    @Autowired
+    private OrderLineService orderLineService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderLineRepository orderLineRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void TestSaveOrderLines_WithManyLines_ShouldUseConstantNumberOfStatements() {
+        // Arrange
+        Order order = orderRepository.saveAndFlush(Order.builder()
+                .reference("ref-1")
+                .paymentMethod(PaymentMethod.VISA)
+                .customerId("1")
+                .build());
+        List<OrderLineRequest> requests = IntStream.range(0, LINES)
+                .mapToObj(i -> new OrderLineRequest(null, order.getId(), i, 1))
+                .toList();
+        statistics.clear();
+
+        // Act
+        List<Long> ids = orderLineService.saveOrderLines(order.getId(), requests);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(LINES, ids.size());
+        assertEquals(LINES, statistics.getEntityInsertCount());
+        // 4 insert batches of 50 plus a handful of pooled sequence calls
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected a constant number of statements but got " + statistics.getPrepareStatementCount());
+        assertEquals(LINES, orderLineRepository.findAllByOrderId(order.getId()).size());
+    }
+
+    @Test
+    public void TestFindAllByOrderIds_WithManyOrders_ShouldLoadLinesGroupedByOrderInOneStatement() {
+        // Arrange
+        List<Order> orders = IntStream.range(0, ORDERS)
+                .mapToObj(i -> orderRepository.save(Order.builder()
+                        .reference("batch-" + i)
+                        .paymentMethod(PaymentMethod.VISA)
+                        .customerId("1")
+                        .build()))
+                .toList();
+        orders.forEach(order -> orderLineService.saveOrderLines(order.getId(), List.of(
+                new OrderLineRequest(null, order.getId(), 1, 2),
+                new OrderLineRequest(null, order.getId(), 2, 1)
+        )));
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> orderIds = new ArrayList<>(orders.stream().map(Order::getId).toList());
+        orderIds.add(-1L);
+        statistics.clear();
+
+        // Act
+        Map<Long, List<OrderLineResponse>> linesByOrder = orderLineService.findAllByOrderIds(orderIds);
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(ORDERS + 1, linesByOrder.size());
+        assertEquals(Set.of(1, 2), linesByOrder.get(orders.get(0).getId())
+                .stream()
+                .map(OrderLineResponse::productId)
+                .collect(Collectors.toSet()));
+        assertTrue(linesByOrder.get(-1L).isEmpty());
+    }
+
+    @Test
+    public void TestFindAllByOrderIds_WithTooManyOrders_ShouldThrowBusinessException() {
+        // Arrange
+        List<Long> orderIds = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> orderLineService.findAllByOrderIds(orderIds));
+    }
+}
@@ -0,0 +1,125 @@
+package com.bogdan.ecommerce.partition;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs partition maintenance against the order schema built by the Flyway migrations,
+ * since H2 knows neither partitioned tables nor jsonb.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.application.id-generator.node-id=1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderPartitionMaintenanceTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void TestMaintain_WithCurrentMonth_ShouldCreateUpcomingPartitionsOfEveryTable() {
+        // Arrange
+        var maintenance = maintenance("2020-01-15T10:00:00Z");
+
+        // Act
+        maintenance.maintain();
+        maintenance.maintain();
+        insertOrder(1L, "2020-04-30 23:59:59");
+
+        // Assert
+        assertNotNull(regclass("customer_order_p2020_01"));
+        assertNotNull(regclass("customer_order_p2020_04"));
+        assertNotNull(regclass("customer_line_p2020_04"));
+        assertNull(regclass("customer_order_p2020_05"));
+        assertEquals(1, count("select count(*) from customer_order_p2020_04"));
+    }
+
+    @Test
+    public void TestMaintain_WithPartitionsPastRetention_ShouldArchiveAndDropOnlyThem() {
+        // Arrange
+        maintenance("2018-01-15T10:00:00Z").maintain();
+        insertOrder(11L, "2018-01-03 08:00:00");
+        insertOrder(12L, "2018-01-20 08:00:00");
+        insertOrder(13L, "2018-01-31 08:00:00");
+        insertOrder(14L, "2018-03-02 08:00:00");
+
+        // Act
+        maintenance("2019-03-15T10:00:00Z").maintain();
+
+        // Assert
+        assertNull(regclass("customer_order_p2018_01"));
+        assertNull(regclass("customer_order_p2018_02"));
+        assertNotNull(regclass("customer_order_p2018_03"));
+        assertEquals(1, count("select count(*) from customer_order where id = 14"));
+        assertEquals(0, count("select count(*) from customer_order where id between 11 and 13"));
+        assertEquals(List.of(2, 1), jdbcTemplate.queryForList(
+                "select row_count from order_archive where partition_name = 'customer_order_p2018_01' order by chunk",
+                Integer.class
+        ));
+        assertEquals(List.of(11L, 12L, 13L), jdbcTemplate.queryForList(
+                "select (e ->> 'id')::bigint from order_archive, jsonb_array_elements(payload) e "
+                        + "where partition_name = 'customer_order_p2018_01' order by 1",
+                Long.class
+        ));
+        assertEquals(0, count("select count(*) from order_archive where partition_name = 'customer_order_p2018_02'"));
+    }
+
+    private PartitionMaintenance maintenance(String now) {
+        return new PartitionMaintenance(
+                jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                Clock.fixed(Instant.parse(now), ZoneOffset.UTC),
+                List.of("customer_order", "customer_line"),
+                "order_archive",
+                true,
+                3,
+                12,
+                2
+        );
+    }
+
+    private void insertOrder(Long id, String createdDate) {
+        jdbcTemplate.update(
+                "insert into customer_order (id, reference, created_date) values (?, ?, cast(? as timestamp))",
+                id, "ORD-" + id, createdDate
+        );
+    }
+
+    private String regclass(String table) {
+        return jdbcTemplate.queryForObject("select cast(to_regclass(?) as text)", String.class, table);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
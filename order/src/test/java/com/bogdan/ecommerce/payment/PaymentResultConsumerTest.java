@@ -0,0 +1,46 @@
+package com.bogdan.ecommerce.payment;
+
+import com.bogdan.ecommerce.order.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PaymentResultConsumerTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private PaymentResultConsumer consumer;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        consumer = new PaymentResultConsumer(orderService);
+    }
+
+    @Test
+    public void TestOnPaymentResult_WithCompletedPayment_ShouldConfirmOrder() {
+        // Act
+        consumer.onPaymentResult(new PaymentResult(1L, "ORD-1", PaymentResultStatus.COMPLETED, 10L, null));
+
+        // Assert
+        verify(orderService).confirmPayment(1L);
+        verify(orderService, never()).compensateFailedPayment(anyLong(), any());
+    }
+
+    @Test
+    public void TestOnPaymentResult_WithFailedPayment_ShouldCompensateOrder() {
+        // Act
+        consumer.onPaymentResult(new PaymentResult(1L, "ORD-1", PaymentResultStatus.FAILED, null, "Card declined"));
+
+        // Assert
+        verify(orderService).compensateFailedPayment(1L, "Card declined");
+        verify(orderService, never()).confirmPayment(anyLong());
+    }
+}
@@ -0,0 +1,214 @@
+package com.bogdan.ecommerce.product.client;
+
+import com.bogdan.ecommerce.config.RestTemplateConfig;
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import com.bogdan.ecommerce.resilience.DownstreamCallGuard;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@link ProductClient} against a local stub of the product service that is
+ * made slow, failing or saturated on purpose.
+ */
+class ProductClientFaultInjectionTest {
+
+    private static final long TIMEOUT_MS = 300;
+    private static final String PURCHASED = "[{\"productId\":1,\"name\":\"meat\",\"description\":\"angus\",\"price\":1000,\"quantity\":2}]";
+
+    private final List<PurchaseRequest> products = List.of(new PurchaseRequest(1, 2));
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private volatile StubBehaviour behaviour;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpClient httpClient;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private ProductClient productClient;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/v1/products", exchange -> {
+            hits.incrementAndGet();
+            try {
+                behaviour.handle(exchange);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        var bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        var guard = new DownstreamCallGuard(bulkheadRegistry, circuitBreakerRegistry, meterRegistry);
+
+        httpClient = HttpClients.createDefault();
+        var restTemplate = new RestTemplateConfig().restTemplate(new RestTemplateBuilder(), httpClient, TIMEOUT_MS);
+        var productUrl = "http://localhost:" + server.getAddress().getPort() + "/api/v1/products";
+        productClient = new ProductClient(productUrl, restTemplate, guard);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        httpClient.close();
+    }
+
+    @Test
+    public void TestPurchaseProducts_WithHealthyProductService_ShouldReturnPurchasedProducts() {
+        // Arrange
+        behaviour = exchange -> respond(exchange, 200, PURCHASED);
+
+        // Act
+        var purchased = productClient.purchaseProducts(products);
+
+        // Assert
+        assertEquals(1, purchased.size());
+        assertEquals("meat", purchased.get(0).name());
+    }
+
+    @Test
+    public void TestPurchaseProducts_WithSlowProductService_ShouldTimeOutWithBusinessException() {
+        // Arrange
+        behaviour = exchange -> {
+            Thread.sleep(5 * TIMEOUT_MS);
+            respond(exchange, 200, PURCHASED);
+        };
+
+        // Act
+        long start = System.nanoTime();
+        var exception = assertThrows(BusinessException.class, () -> productClient.purchaseProducts(products));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(exception.getMsg().startsWith("The product service did not respond"));
+        assertTrue(elapsedMs < 3 * TIMEOUT_MS, "timed out after " + elapsedMs + "ms");
+    }
+
+    @Test
+    public void TestPurchaseProducts_WithFailingProductService_ShouldOpenCircuitAndFailFast() {
+        // Arrange
+        behaviour = exchange -> respond(exchange, 500, "boom");
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> productClient.purchaseProducts(products));
+        }
+
+        // Act
+        var exception = assertThrows(BusinessException.class, () -> productClient.purchaseProducts(products));
+
+        // Assert
+        assertTrue(exception.getMsg().contains("circuit breaker is open"));
+        assertEquals(4, hits.get());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("product").getState());
+        assertEquals(1, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "product").tag("state", "open").gauge().value());
+        assertEquals(1, meterRegistry.get("order.downstream.rejected")
+                .tag("client", "product").tag("reason", "circuit-open").counter().count());
+    }
+
+    @Test
+    public void TestPurchaseProducts_WithClientErrors_ShouldKeepCircuitClosed() {
+        // Arrange
+        behaviour = exchange -> respond(exchange, 400, "Insufficient stock");
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            assertThrows(HttpClientErrorException.class, () -> productClient.purchaseProducts(products));
+        }
+
+        // Assert
+        assertEquals(6, hits.get());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("product").getState());
+    }
+
+    @Test
+    public void TestPurchaseProducts_WithSaturatedBulkhead_ShouldRejectExcessCalls() throws Exception {
+        // Arrange
+        var release = new CountDownLatch(1);
+        behaviour = exchange -> {
+            release.await(5, TimeUnit.SECONDS);
+            respond(exchange, 200, PURCHASED);
+        };
+        var inFlight = List.of(
+                CompletableFuture.supplyAsync(() -> productClient.purchaseProducts(products)),
+                CompletableFuture.supplyAsync(() -> productClient.purchaseProducts(products))
+        );
+        while (hits.get() < 2) {
+            Thread.sleep(5);
+        }
+
+        // Act
+        var exception = assertThrows(BusinessException.class, () -> productClient.purchaseProducts(products));
+        release.countDown();
+
+        // Assert
+        assertTrue(exception.getMsg().contains("too many concurrent calls"));
+        for (var call : inFlight) {
+            assertEquals(1, call.get(5, TimeUnit.SECONDS).size());
+        }
+        assertEquals(2, hits.get());
+        assertEquals(1, meterRegistry.get("order.downstream.rejected")
+                .tag("client", "product").tag("reason", "bulkhead-full").counter().count());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    @FunctionalInterface
+    private interface StubBehaviour {
+        void handle(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+}
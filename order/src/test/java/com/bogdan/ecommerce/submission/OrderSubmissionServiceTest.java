@@ -0,0 +1,111 @@
+package com.bogdan.ecommerce.submission;
+
+import com.bogdan.ecommerce.exception.RequestKeyMismatchException;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.order.service.OrderRequestFingerprint;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSubmissionServiceTest {
+
+    @Mock
+    private OrderSubmissionRepository repository;
+
+    private OrderSubmissionService service;
+
+    private final OrderRequest request = new OrderRequest(
+            null, "ref-1", BigDecimal.valueOf(2000), PaymentMethod.VISA, "1", List.of(new PurchaseRequest(1, 2))
+    );
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new OrderSubmissionService(repository, new ObjectMapper());
+        when(repository.findByCustomerIdAndRequestKey("1", "key-1")).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any(OrderSubmission.class))).thenAnswer(invocation -> {
+            OrderSubmission submission = invocation.getArgument(0);
+            submission.setId(UUID.randomUUID());
+            return submission;
+        });
+    }
+
+    @Test
+    public void TestSubmit_WithNewKey_ShouldQueueSubmission() {
+        // Act
+        var result = service.submit("key-1", request);
+
+        // Assert
+        assertEquals(SubmissionStatus.QUEUED, result.status());
+        verify(repository).saveAndFlush(any(OrderSubmission.class));
+    }
+
+    @Test
+    public void TestSubmit_WithRepeatedKey_ShouldReturnExistingSubmission() {
+        // Arrange
+        var existing = existing(OrderRequestFingerprint.of(request));
+        when(repository.findByCustomerIdAndRequestKey("1", "key-1")).thenReturn(Optional.of(existing));
+
+        // Act
+        var result = service.submit("key-1", request);
+
+        // Assert
+        assertEquals(existing.getId(), result.id());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void TestSubmit_WithKeyReusedForDifferentRequest_ShouldRejectAsMismatch() {
+        // Arrange
+        when(repository.findByCustomerIdAndRequestKey("1", "key-1")).thenReturn(Optional.of(existing("other-hash")));
+
+        // Act & Assert
+        assertThrows(RequestKeyMismatchException.class, () -> service.submit("key-1", request));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void TestSubmit_WithConcurrentSubmitOfSameKey_ShouldReturnWinningSubmission() {
+        // Arrange
+        var existing = existing(OrderRequestFingerprint.of(request));
+        when(repository.findByCustomerIdAndRequestKey("1", "key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(existing));
+        when(repository.saveAndFlush(any(OrderSubmission.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_order_submission_request_key"));
+
+        // Act
+        var result = service.submit("key-1", request);
+
+        // Assert
+        assertEquals(existing.getId(), result.id());
+    }
+
+    private static OrderSubmission existing(String requestHash) {
+        return OrderSubmission.builder()
+                .id(UUID.randomUUID())
+                .customerId("1")
+                .requestKey("key-1")
+                .requestHash(requestHash)
+                .payload("{}")
+                .status(SubmissionStatus.QUEUED)
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.bogdan.ecommerce.submission;
+
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.exception.RequestInProgressException;
+import com.bogdan.ecommerce.order.entity.OrderRequest;
+import com.bogdan.ecommerce.order.entity.PaymentMethod;
+import com.bogdan.ecommerce.order.service.IdempotentOrderService;
+import com.bogdan.ecommerce.product.model.PurchaseRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSubmissionWorkerTest {
+
+    private static final int CONCURRENCY = 4;
+
+    @Mock
+    private OrderSubmissionRepository repository;
+
+    @Mock
+    private IdempotentOrderService orderService;
+
+    @Mock
+    private OrderSubmissionEvents events;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private OrderSubmissionWorker worker;
+
+    private final OrderRequest request = new OrderRequest(
+            null, "ref-1", BigDecimal.valueOf(2000), PaymentMethod.VISA, "1", List.of(new PurchaseRequest(1, 2))
+    );
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(CONCURRENCY);
+        executor.setMaxPoolSize(CONCURRENCY);
+        executor.setQueueCapacity(CONCURRENCY);
+        executor.initialize();
+        worker = new OrderSubmissionWorker(repository, orderService, events, objectMapper, executor,
+                transactionManager, meterRegistry, 300000, 1000);
+        when(repository.save(any(OrderSubmission.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void TestProcess_WithPlacedOrder_ShouldCompleteSubmission() throws Exception {
+        // Arrange
+        var submission = submission("key-1");
+        when(orderService.createOrder("key-1", request)).thenReturn(42L);
+
+        // Act
+        var result = worker.process(submission);
+
+        // Assert
+        assertEquals(SubmissionStatus.COMPLETED, result.getStatus());
+        assertEquals(42L, result.getOrderId());
+        verify(events).publish(OrderSubmissionResponse.from(result));
+        assertEquals(1, meterRegistry.get("order.submission.processed").tag("outcome", "completed").counter().count());
+    }
+
+    @Test
+    public void TestProcess_WithoutRequestKey_ShouldUseSubmissionIdAsKey() throws Exception {
+        // Arrange
+        var submission = submission(null);
+        when(orderService.createOrder(submission.getId().toString(), request)).thenReturn(7L);
+
+        // Act
+        var result = worker.process(submission);
+
+        // Assert
+        assertEquals(7L, result.getOrderId());
+    }
+
+    @Test
+    public void TestProcess_WithRejectedOrder_ShouldFailSubmissionWithReason() throws Exception {
+        // Arrange
+        var submission = submission("key-2");
+        when(orderService.createOrder("key-2", request)).thenThrow(new BusinessException("Insufficient stock"));
+
+        // Act
+        var result = worker.process(submission);
+
+        // Assert
+        assertEquals(SubmissionStatus.FAILED, result.getStatus());
+        assertEquals("Insufficient stock", result.getFailureReason());
+        assertEquals(1, meterRegistry.get("order.submission.processed").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    public void TestProcess_WithLongFailureMessage_ShouldTruncateReasonToColumnLength() throws Exception {
+        // Arrange
+        var submission = submission("key-4");
+        when(orderService.createOrder("key-4", request)).thenThrow(new IllegalStateException("x".repeat(1000)));
+
+        // Act
+        var result = worker.process(submission);
+
+        // Assert
+        assertEquals(SubmissionStatus.FAILED, result.getStatus());
+        assertEquals(255, result.getFailureReason().length());
+    }
+
+    @Test
+    public void TestProcess_WithKeyInProgressElsewhere_ShouldQueueSubmissionAgain() throws Exception {
+        // Arrange
+        var submission = submission("key-3");
+        when(orderService.createOrder("key-3", request)).thenThrow(new RequestInProgressException("still being processed"));
+
+        // Act
+        var result = worker.process(submission);
+
+        // Assert
+        assertEquals(SubmissionStatus.QUEUED, result.getStatus());
+        assertTrue(result.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(0, meterRegistry.get("order.submission.processed").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    public void TestPoll_WithBusyWorkers_ShouldNotClaimMoreThanConcurrency() throws Exception {
+        // Arrange
+        var release = new CountDownLatch(1);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        when(repository.lockNextQueued(anyInt(), any())).thenAnswer(invocation -> IntStream.range(0, invocation.<Integer>getArgument(0))
+                .mapToObj(i -> submission("key-" + UUID.randomUUID()))
+                .toList());
+        when(orderService.createOrder(anyString(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return 1L;
+        });
+
+        // Act
+        worker.poll();
+        worker.poll();
+
+        // Assert
+        verify(repository).lockNextQueued(eq(CONCURRENCY), any());
+        assertEquals(CONCURRENCY, worker.inFlight());
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= CONCURRENCY);
+        assertEquals(0, worker.inFlight());
+    }
+
+    @Test
+    public void TestPoll_WithEmptyQueue_ShouldNotCallOrderService() throws Exception {
+        // Arrange
+        when(repository.lockNextQueued(anyInt(), any())).thenReturn(List.of());
+
+        // Act
+        worker.poll();
+
+        // Assert
+        verify(orderService, never()).createOrder(anyString(), any());
+    }
+
+    private OrderSubmission submission(String requestKey) {
+        try {
+            return OrderSubmission.builder()
+                    .id(UUID.randomUUID())
+                    .requestKey(requestKey)
+                    .payload(objectMapper.writeValueAsString(request))
+                    .status(SubmissionStatus.QUEUED)
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
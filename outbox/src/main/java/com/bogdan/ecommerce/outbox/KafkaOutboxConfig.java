@@ -0,0 +1,35 @@
+package com.bogdan.ecommerce.outbox;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@Configuration
+public class KafkaOutboxConfig {
+
+    /**
+     * The relay sends the JSON already stored in the outbox, so values are plain strings.
+     * Linger and a large batch size let the producer pack a whole outbox batch into few requests.
+     */
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate(
+            KafkaProperties kafkaProperties,
+            @Value("${application.outbox.linger-ms:20}") int lingerMs,
+            @Value("${application.outbox.producer-batch-size:262144}") int producerBatchSize
+    ) {
+        var config = kafkaProperties.buildProducerProperties(null);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+}
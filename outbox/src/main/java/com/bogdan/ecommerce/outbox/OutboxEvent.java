@@ -0,0 +1,76 @@
+package com.bogdan.ecommerce.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message waiting to be relayed to Kafka.
+ * <p>
+ * The table and sequence names here are defaults; services sharing a database map
+ * their own in {@code META-INF/orm.xml}, e.g. {@code order_outbox_event}.
+ */
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@NoArgsConstructor
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @CreatedDate
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdDate;
+
+    /**
+     * Number of failed sends so far.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    private String lastError;
+
+    /**
+     * Earliest time a failed event is sent again.
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Set once the event is given up on; parked events stay in the table for inspection
+     * and are relayed again when this is cleared.
+     */
+    private LocalDateTime parkedDate;
+}
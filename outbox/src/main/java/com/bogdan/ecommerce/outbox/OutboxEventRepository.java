@@ -0,0 +1,29 @@
+package com.bogdan.ecommerce.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the next events due for sending; a lock timeout of -2 renders {@code SKIP LOCKED}.
+     * JPQL keeps the query independent of the table name each service maps.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from OutboxEvent e
+            where e.parkedDate is null and (e.nextAttemptAt is null or e.nextAttemptAt <= :now)
+            order by e.id
+            """)
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, Pageable page);
+}
@@ -0,0 +1,199 @@
+package com.bogdan.ecommerce.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Drains the outbox to Kafka in batches.
+ * <p>
+ * Rows are locked with {@code SKIP LOCKED} so several instances can relay at
+ * once, and each event is only deleted after the broker acknowledged it
+ * (at-least-once delivery). An event whose send failed is retried with an
+ * exponential backoff while the rest of the outbox keeps flowing; one the broker
+ * rejects for good, e.g. a record that is too large, is parked after
+ * {@code max-attempts} so it cannot hold up the outbox. Retriable failures such as
+ * an unavailable broker never park an event. Events of the same key may be sent
+ * out of order while one of them is backing off.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxEventRepository repository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final AtomicLong lagMs = new AtomicLong();
+    private final DistributionSummary batchSizeSummary;
+    private final Counter relayedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+
+    public OutboxRelay(
+            OutboxEventRepository repository,
+            @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.outbox.batch-size:500}") int batchSize,
+            @Value("${application.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${application.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${application.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+            @Value("${application.outbox.max-retry-backoff-ms:60000}") long maxRetryBackoffMs
+    ) {
+        this.repository = repository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.batchSizeSummary = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Number of outbox events sent per relay batch")
+                .register(meterRegistry);
+        this.relayedCounter = Counter.builder("outbox.relay.events")
+                .description("Number of outbox events sent to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failures")
+                .description("Number of outbox event sends that failed and will be retried")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("outbox.relay.parked")
+                .description("Number of outbox events given up on after repeated rejections")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.relay.lag", lagMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest outbox event at the last relay poll")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, the batch will be retried: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of events acknowledged by the broker
+     */
+    int relayBatch() {
+        var now = LocalDateTime.now();
+        var events = repository.lockNextBatch(now, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            lagMs.set(0);
+            return 0;
+        }
+        lagMs.set(Duration.between(events.get(0).getCreatedDate(), now).toMillis());
+
+        var sends = events.stream()
+                .map(this::send)
+                .toList();
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> sent = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            var event = events.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sent.add(event.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the outbox batch", e);
+            } catch (ExecutionException e) {
+                recordFailure(event, e.getCause(), now);
+                failed.add(event);
+            } catch (TimeoutException e) {
+                recordFailure(event, e, now);
+                failed.add(event);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            repository.saveAll(failed);
+        }
+        if (!sent.isEmpty()) {
+            repository.deleteAllByIdInBatch(sent);
+            batchSizeSummary.record(sent.size());
+            relayedCounter.increment(sent.size());
+        }
+        return sent.size();
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            var record = new ProducerRecord<>(event.getTopic(), event.getMessageKey(), event.getPayload());
+            record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getType().getBytes(UTF_8));
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // the producer rejects some records before sending, e.g. when they exceed max.request.size
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Throwable cause, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(String.valueOf(cause)));
+        if (!isRetriable(cause) && attempts >= maxAttempts) {
+            log.error("Parking outbox event {} for topic {} after {} attempts: {}",
+                    event.getId(), event.getTopic(), attempts, cause.toString());
+            event.setParkedDate(now);
+            parkedCounter.increment();
+            return;
+        }
+        long backoffMs = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        event.setNextAttemptAt(now.plusNanos(backoffMs * 1_000_000));
+        failedCounter.increment();
+        log.warn("Cannot send outbox event {} for topic {}, retrying in {} ms: {}",
+                event.getId(), event.getTopic(), backoffMs, cause.toString());
+    }
+
+    private static boolean isRetriable(Throwable error) {
+        for (var cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bogdan.ecommerce.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stores a message in the outbox as part of the caller's transaction.
+     * It is sent to Kafka by {@link OutboxRelay} once that transaction commits.
+     *
+     * @param type the type id the consumers map to their own payload class
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, String key, String type, Object payload) {
+        try {
+            repository.save(
+                    OutboxEvent.builder()
+                            .topic(topic)
+                            .messageKey(key)
+                            .type(type)
+                            .payload(objectMapper.writeValueAsString(payload))
+                            .build()
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload of type " + type, e);
+        }
+    }
+}
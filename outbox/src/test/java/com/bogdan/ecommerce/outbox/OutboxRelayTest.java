@@ -0,0 +1,160 @@
+package com.bogdan.ecommerce.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.NotEnoughReplicasException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(repository, kafkaTemplate, transactionManager, meterRegistry, 500, 1000, 3, 1000, 60000);
+    }
+
+    @Test
+    public void TestRelayBatch_WithPendingEvents_ShouldSendAndDeleteThem() {
+        // Arrange
+        var events = List.of(event(1L, "ref-1"), event(2L, "ref-2"));
+        when(repository.lockNextBatch(any(), eq(PageRequest.of(0, 500)))).thenReturn(events);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(2, relayed);
+        ArgumentCaptor<ProducerRecord<String, String>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        var first = records.getAllValues().get(0);
+        assertEquals("order-topic", first.topic());
+        assertEquals("ref-1", first.key());
+        assertEquals("orderConfirmation", new String(first.headers().lastHeader("__TypeId__").value()));
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2, meterRegistry.get("outbox.relay.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    public void TestRelayBatch_WithUnavailableBroker_ShouldBackOffWithoutParking() {
+        // Arrange
+        var event = event(1L, "ref-1");
+        event.setAttempts(10);
+        when(repository.lockNextBatch(any(), eq(PageRequest.of(0, 500)))).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new NotEnoughReplicasException("broker down")));
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(0, relayed);
+        assertEquals(11, event.getAttempts());
+        assertNull(event.getParkedDate());
+        assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(repository).saveAll(List.of(event));
+        verify(repository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    public void TestRelayBatch_WithPoisonEvent_ShouldSendTheOthersAndParkItAfterMaxAttempts() {
+        // Arrange
+        var poison = event(1L, "ref-1");
+        poison.setAttempts(2);
+        var healthy = event(2L, "ref-2");
+        when(repository.lockNextBatch(any(), eq(PageRequest.of(0, 500)))).thenReturn(List.of(poison, healthy));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("too large")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(1, relayed);
+        verify(repository).deleteAllByIdInBatch(List.of(2L));
+        assertEquals(3, poison.getAttempts());
+        assertNotNull(poison.getParkedDate());
+        assertTrue(poison.getLastError().contains("too large"));
+        verify(repository).saveAll(List.of(poison));
+        assertEquals(1, meterRegistry.get("outbox.relay.parked").counter().count());
+    }
+
+    @Test
+    public void TestRelayBatch_WithRejectedEventBelowMaxAttempts_ShouldRetryItLater() {
+        // Arrange
+        var event = event(1L, "ref-1");
+        when(repository.lockNextBatch(any(), eq(PageRequest.of(0, 500)))).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenThrow(new SerializationException("bad record"));
+
+        // Act
+        relay.relayBatch();
+
+        // Assert
+        assertEquals(1, event.getAttempts());
+        assertNull(event.getParkedDate());
+        assertNotNull(event.getNextAttemptAt());
+    }
+
+    @Test
+    public void TestRelayBatch_WithEmptyOutbox_ShouldNotSendAnything() {
+        // Arrange
+        when(repository.lockNextBatch(any(), eq(PageRequest.of(0, 500)))).thenReturn(List.of());
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(0, relayed);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    private static OutboxEvent event(Long id, String reference) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("order-topic")
+                .messageKey(reference)
+                .type("orderConfirmation")
+                .payload("{\"orderReference\":\"" + reference + "\"}")
+                .createdDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,194 @@
+package com.bogdan.ecommerce.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Maintains the monthly {@code created_date} range partitions of the tables listed in
+ * {@code application.partitioning.tables}.
+ * <p>
+ * Partitions are created a few months ahead so inserts never miss one. Partitions
+ * older than the retention are detached in a short transaction of their own, since
+ * the detach locks the parent table, then copied into the archive table as jsonb
+ * chunks and dropped in a second one that no longer blocks the parent. A table left
+ * detached by an interrupted run is archived by the next one. A transaction-scoped
+ * advisory lock keeps several instances of a service from maintaining the same
+ * table at once.
+ */
+@Slf4j
+@Component
+public class PartitionMaintenance {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final List<String> tables;
+    private final String archiveTable;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final int archiveChunkSize;
+
+    @Autowired
+    public PartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.partitioning.tables:}") List<String> tables,
+            @Value("${application.partitioning.archive-table:}") String archiveTable,
+            @Value("${application.partitioning.enabled:true}") boolean enabled,
+            @Value("${application.partitioning.months-ahead:3}") int monthsAhead,
+            @Value("${application.partitioning.retention-months:12}") int retentionMonths,
+            @Value("${application.partitioning.archive-chunk-size:1000}") int archiveChunkSize
+    ) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), Clock.systemDefaultZone(),
+                tables, archiveTable, enabled, monthsAhead, retentionMonths, archiveChunkSize);
+    }
+
+    PartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            Clock clock,
+            List<String> tables,
+            String archiveTable,
+            boolean enabled,
+            int monthsAhead,
+            int retentionMonths,
+            int archiveChunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.tables = List.copyOf(tables);
+        this.archiveTable = archiveTable;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveChunkSize = archiveChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.partitioning.cron:0 30 2 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        var currentMonth = YearMonth.now(clock);
+        for (var table : tables) {
+            try {
+                createPartitions(table, currentMonth);
+                archivePartitions(table, currentMonth.minusMonths(retentionMonths));
+            } catch (RuntimeException e) {
+                log.error("Cannot maintain the partitions of {}", table, e);
+            }
+        }
+    }
+
+    void createPartitions(String table, YearMonth currentMonth) {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock(table);
+            for (int i = 0; i <= monthsAhead; i++) {
+                var month = currentMonth.plusMonths(i);
+                jdbcTemplate.execute("create table if not exists " + partitionName(table, month)
+                        + " partition of " + table
+                        + " for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')");
+            }
+        });
+    }
+
+    void archivePartitions(String table, YearMonth oldestRetainedMonth) {
+        for (var partition : findPartitions(table)) {
+            if (isExpired(table, partition, oldestRetainedMonth)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    lock(table);
+                    jdbcTemplate.execute("alter table " + table + " detach partition " + partition);
+                });
+            }
+        }
+        for (var detached : findDetachedPartitions(table)) {
+            if (isExpired(table, detached, oldestRetainedMonth)) {
+                Integer chunks = transactionTemplate.execute(status -> archiveDetached(table, detached));
+                log.info("Archived partition {} into {} as {} chunks", detached, archiveTable, chunks);
+            }
+        }
+    }
+
+    private static boolean isExpired(String table, String partition, YearMonth oldestRetainedMonth) {
+        var month = monthOf(table, partition);
+        return month != null && month.isBefore(oldestRetainedMonth);
+    }
+
+    private int archiveDetached(String table, String partition) {
+        lock(table);
+        var chunks = jdbcTemplate.update(
+                "insert into " + archiveTable + " (table_name, partition_name, chunk, row_count, first_id, last_id, payload) "
+                        + "select ?, ?, chunk, count(*), min(id), max(id), jsonb_agg(to_jsonb(t) - 'chunk' order by id) "
+                        + "from (select p.*, (row_number() over (order by id) - 1) / ? as chunk from " + partition + " p) t "
+                        + "group by chunk",
+                table, partition, archiveChunkSize
+        );
+        jdbcTemplate.execute("drop table " + partition);
+        return chunks;
+    }
+
+    private List<String> findPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "select child.relname from pg_inherits "
+                        + "join pg_class parent on parent.oid = pg_inherits.inhparent "
+                        + "join pg_class child on child.oid = pg_inherits.inhrelid "
+                        + "where parent.relname = ? order by child.relname",
+                String.class,
+                table
+        );
+    }
+
+    /**
+     * Lists the plain tables named like a partition of {@code table} that are no
+     * longer attached to it.
+     */
+    private List<String> findDetachedPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "select relname from pg_class "
+                        + "where relkind = 'r' and not relispartition "
+                        + "and relnamespace = current_schema()::regnamespace "
+                        + "and relname like ? order by relname",
+                String.class,
+                table + "_p%"
+        );
+    }
+
+    private void lock(String table) {
+        jdbcTemplate.queryForList("select pg_advisory_xact_lock(hashtext(?))", "partition-maintenance:" + table);
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    static YearMonth monthOf(String table, String partition) {
+        var prefix = table + "_p";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
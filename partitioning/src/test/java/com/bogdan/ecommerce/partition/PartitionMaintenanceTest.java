@@ -0,0 +1,128 @@
+package com.bogdan.ecommerce.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PartitionMaintenanceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-10-17T10:00:00Z"), ZoneOffset.UTC);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void TestMaintain_WithCurrentMonth_ShouldCreateUpcomingPartitions() {
+        // Arrange
+        var maintenance = maintenance(true);
+
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        verify(jdbcTemplate).execute("create table if not exists customer_order_p2026_10 partition of customer_order"
+                + " for values from ('2026-10-01') to ('2026-11-01')");
+        verify(jdbcTemplate).execute("create table if not exists customer_order_p2027_01 partition of customer_order"
+                + " for values from ('2027-01-01') to ('2027-02-01')");
+        verify(jdbcTemplate).execute("create table if not exists customer_line_p2026_12 partition of customer_line"
+                + " for values from ('2026-12-01') to ('2027-01-01')");
+        verify(jdbcTemplate, never()).execute("create table if not exists customer_order_p2027_02 partition of customer_order"
+                + " for values from ('2027-02-01') to ('2027-03-01')");
+    }
+
+    @Test
+    public void TestMaintain_WithPartitionsPastRetention_ShouldArchiveOnlyThem() {
+        // Arrange
+        var maintenance = maintenance(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("customer_order"))).thenReturn(List.of(
+                "customer_order_p2025_08", "customer_order_p2025_10", "customer_order_p2026_10"
+        ));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("customer_order_p%"))).thenReturn(List.of(
+                "customer_order_p2025_08"
+        ));
+
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        var inOrder = inOrder(jdbcTemplate, transactionManager);
+        inOrder.verify(jdbcTemplate).execute("alter table customer_order detach partition customer_order_p2025_08");
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("drop table customer_order_p2025_08");
+        verify(jdbcTemplate, never()).execute("alter table customer_order detach partition customer_order_p2025_10");
+        verify(jdbcTemplate, never()).execute("drop table customer_order_p2026_10");
+    }
+
+    @Test
+    public void TestMaintain_WithPartitionLeftDetached_ShouldArchiveItWithoutDetaching() {
+        // Arrange
+        var maintenance = maintenance(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("customer_order_p%"))).thenReturn(List.of(
+                "customer_order_p2025_07", "customer_order_p2026_09"
+        ));
+
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(startsWith("alter table"));
+        verify(jdbcTemplate).execute("drop table customer_order_p2025_07");
+        verify(jdbcTemplate, never()).execute("drop table customer_order_p2026_09");
+    }
+
+    @Test
+    public void TestMaintain_WhenDisabled_ShouldNotTouchTheDatabase() {
+        // Arrange
+        var maintenance = maintenance(false);
+
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void TestMonthOf_WithPartitionNames_ShouldParseOnlyMonthlyPartitions() {
+        // Act & Assert
+        assertEquals(YearMonth.of(2026, 3), PartitionMaintenance.monthOf("customer_order", "customer_order_p2026_03"));
+        assertNull(PartitionMaintenance.monthOf("customer_order", "customer_order_default"));
+        assertNull(PartitionMaintenance.monthOf("customer_order", "customer_line_p2026_03"));
+    }
+
+    private PartitionMaintenance maintenance(boolean enabled) {
+        return new PartitionMaintenance(jdbcTemplate, new TransactionTemplate(transactionManager), clock,
+                List.of("customer_order", "customer_line"), "order_archive", enabled, 3, 12, 1000);
+    }
+}
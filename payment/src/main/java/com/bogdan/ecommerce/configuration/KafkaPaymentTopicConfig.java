@@ -14,4 +14,11 @@ public class KafkaPaymentTopicConfig {
             .name("payment-topic")
             .build();
   }
+
+  @Bean
+  public NewTopic paymentResultTopic() {
+    return TopicBuilder
+            .name("payment-result-topic")
+            .build();
+  }
 }
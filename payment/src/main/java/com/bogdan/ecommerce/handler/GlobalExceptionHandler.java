@@ -1,5 +1,6 @@
 package com.bogdan.ecommerce.handler;
 
+import com.bogdan.ecommerce.deadline.DeadlineExceededException;
 import com.bogdan.ecommerce.exception.BusinessException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.HttpStatus;
@@ -42,6 +43,13 @@ public class GlobalExceptionHandler {
   public ResponseEntity<String> handle(BusinessException exp) {
     return ResponseEntity
         .status(HttpStatus.BAD_REQUEST)
-        .body(exp.getMsg());
+        .body(exp.getMessage());
+  }
+
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<String> handle(DeadlineExceededException exp) {
+    return ResponseEntity
+        .status(HttpStatus.GATEWAY_TIMEOUT)
+        .body(exp.getMessage());
   }
 }
@@ -1,12 +1,11 @@
 package com.bogdan.ecommerce.payment;
 
-
+import com.bogdan.ecommerce.id.SnowflakeId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
@@ -31,15 +30,15 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 public class Payment {
 
   @Id
-  @GeneratedValue
-  private Integer id;
+  @SnowflakeId
+  private Long id;
 
   private BigDecimal amount;
 
   @Enumerated(EnumType.STRING)
   private PaymentMethod paymentMethod;
 
-  private Integer orderId;
+  private Long orderId;
 
   @CreatedDate
   @Column(updatable = false, nullable = false)
@@ -1,5 +1,7 @@
 package com.bogdan.ecommerce.payment;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,10 +17,15 @@ public class PaymentController {
 
   private final PaymentService service;
 
+  /**
+   * Answers the payment ID as a JSON string: Snowflake IDs do not fit the 53 bits that
+   * JavaScript clients can represent exactly.
+   */
   @PostMapping
-  public ResponseEntity<Integer> createPayment(
+  public ResponseEntity<JsonNode> createPayment(
       @RequestBody @Valid PaymentRequest request
   ) {
-    return ResponseEntity.ok(this.service.createPayment(request));
+    var paymentId = this.service.createPayment(request);
+    return ResponseEntity.ok(TextNode.valueOf(String.valueOf(paymentId)));
   }
 }
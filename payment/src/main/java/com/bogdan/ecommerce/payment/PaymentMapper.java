@@ -10,7 +10,6 @@ public class PaymentMapper {
       return null;
     }
     return Payment.builder()
-        .id(request.id())
         .paymentMethod(request.paymentMethod())
         .amount(request.amount())
         .orderId(request.orderId())
@@ -0,0 +1,34 @@
+package com.bogdan.ecommerce.payment;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Holds one row per paid order. The payment table is partitioned by created_date,
+ * so its own unique constraints cannot stop two payments of the same order made in
+ * different months; this unpartitioned table does.
+ */
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "payment_order_key")
+public class PaymentOrderKey {
+
+  @Id
+  private Long orderId;
+
+  @Column(updatable = false, nullable = false)
+  private LocalDateTime createdDate;
+
+}
@@ -0,0 +1,20 @@
+package com.bogdan.ecommerce.payment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface PaymentOrderKeyRepository extends JpaRepository<PaymentOrderKey, Long> {
+
+  /**
+   * Claims the order for a payment; answers 0 when the order is already paid, which
+   * is how concurrent requests for the same order are told apart.
+   */
+  @Modifying
+  @Query(
+      value = "INSERT INTO payment_order_key (order_id, created_date) VALUES (:orderId, now()) ON CONFLICT DO NOTHING",
+      nativeQuery = true
+  )
+  int claim(@Param("orderId") Long orderId);
+}
@@ -2,6 +2,5 @@ package com.bogdan.ecommerce.payment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface PaymentRepository extends JpaRepository<Payment, Integer> {
-
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
 }
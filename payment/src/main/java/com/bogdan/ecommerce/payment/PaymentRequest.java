@@ -3,10 +3,10 @@ package com.bogdan.ecommerce.payment;
 import java.math.BigDecimal;
 
 public record PaymentRequest(
-    Integer id,
+    Long id,
     BigDecimal amount,
     PaymentMethod paymentMethod,
-    Integer orderId,
+    Long orderId,
     String orderReference,
     Customer customer
 ) {
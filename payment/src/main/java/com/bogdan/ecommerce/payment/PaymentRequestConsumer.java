@@ -0,0 +1,44 @@
+package com.bogdan.ecommerce.payment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRequestConsumer {
+
+  private final PaymentService paymentService;
+
+  /**
+   * Offsets are committed after the batch transaction, so a crash replays the batch;
+   * {@link PaymentService#processPayments} skips orders that were already paid.
+   * Records the {@code ErrorHandlingDeserializer} could not read arrive without a
+   * value and are logged and skipped, so they never fail the batch.
+   */
+  @KafkaListener(topics = "payment-request-topic", groupId = "payment-service", batch = "true")
+  public void onPaymentRequests(List<ConsumerRecord<String, PaymentRequest>> records) {
+    var requests = new ArrayList<PaymentRequest>(records.size());
+    for (var record : records) {
+      if (record.value() != null) {
+        requests.add(record.value());
+      } else if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+        log.error("Skipping payment request {}-{}@{} that cannot be deserialized",
+            record.topic(), record.partition(), record.offset());
+      } else {
+        log.warn("Skipping empty payment request {}-{}@{}", record.topic(), record.partition(), record.offset());
+      }
+    }
+    log.info("Processing {} payment requests", requests.size());
+    if (!requests.isEmpty()) {
+      paymentService.processPayments(requests);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.bogdan.ecommerce.payment;
+
+public record PaymentResult(
+    Long orderId,
+    String orderReference,
+    PaymentResultStatus status,
+    Long paymentId,
+    String reason
+) {
+}
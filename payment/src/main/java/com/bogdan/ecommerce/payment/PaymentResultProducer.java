@@ -0,0 +1,21 @@
+package com.bogdan.ecommerce.payment;
+
+import com.bogdan.ecommerce.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentResultProducer {
+
+  private final OutboxService outboxService;
+
+  public void sendResult(PaymentResult result) {
+    outboxService.publish(
+            "payment-result-topic",
+            result.orderReference(),
+            "paymentResult",
+            result
+    );
+  }
+}
@@ -0,0 +1,6 @@
+package com.bogdan.ecommerce.payment;
+
+public enum PaymentResultStatus {
+  COMPLETED,
+  FAILED
+}
@@ -1,21 +1,84 @@
 package com.bogdan.ecommerce.payment;
 
+import com.bogdan.ecommerce.deadline.RequestDeadline;
+import com.bogdan.ecommerce.exception.BusinessException;
 import com.bogdan.ecommerce.notification.NotificationProducer;
 import com.bogdan.ecommerce.notification.PaymentNotificationRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
 
   private final PaymentRepository repository;
+  private final PaymentOrderKeyRepository orderKeyRepository;
   private final PaymentMapper mapper;
   private final NotificationProducer notificationProducer;
+  private final PaymentResultProducer resultProducer;
 
-  public Integer createPayment(PaymentRequest request) {
+  @Transactional
+  public Long createPayment(PaymentRequest request) {
+    RequestDeadline.check("creating the payment");
+    if (request.orderId() != null && this.orderKeyRepository.claim(request.orderId()) == 0) {
+      throw new BusinessException(String.format("Order %d is already paid", request.orderId()));
+    }
     var payment = this.repository.save(this.mapper.toPayment(request));
+    sendNotification(request);
+    return payment.getId();
+  }
+
+  /**
+   * Settles a batch of payment requests in one transaction and replies with one result
+   * per order. Orders that already have a payment are skipped, which makes redelivered
+   * batches harmless; the replies go through the outbox together with the payments.
+   * An order is claimed in payment_order_key before it is paid, so a batch racing
+   * with another one for the same order skips it as well.
+   */
+  @Transactional
+  public void processPayments(List<PaymentRequest> requests) {
+    var requestsByOrder = requests.stream()
+        .collect(Collectors.toMap(PaymentRequest::orderId, Function.identity(), (first, duplicate) -> first, LinkedHashMap::new));
+    Set<Long> paidOrders = this.orderKeyRepository.findAllById(requestsByOrder.keySet())
+        .stream()
+        .map(PaymentOrderKey::getOrderId)
+        .collect(Collectors.toSet());
+
+    var accepted = new ArrayList<PaymentRequest>();
+    for (var request : requestsByOrder.values()) {
+      if (paidOrders.contains(request.orderId())) {
+        continue;
+      }
+      var reason = rejectionReason(request);
+      if (reason != null) {
+        this.resultProducer.sendResult(
+            new PaymentResult(request.orderId(), request.orderReference(), PaymentResultStatus.FAILED, null, reason)
+        );
+      } else if (this.orderKeyRepository.claim(request.orderId()) == 1) {
+        accepted.add(request);
+      }
+    }
 
+    var payments = this.repository.saveAll(accepted.stream().map(this.mapper::toPayment).toList());
+    for (int i = 0; i < accepted.size(); i++) {
+      var request = accepted.get(i);
+      sendNotification(request);
+      this.resultProducer.sendResult(
+          new PaymentResult(request.orderId(), request.orderReference(), PaymentResultStatus.COMPLETED, payments.get(i).getId(), null)
+      );
+    }
+  }
+
+  private void sendNotification(PaymentRequest request) {
     this.notificationProducer.sendNotification(
             new PaymentNotificationRequest(
                     request.orderReference(),
@@ -26,6 +89,21 @@ public class PaymentService {
                     request.customer().email()
             )
     );
-    return payment.getId();
+  }
+
+  private static String rejectionReason(PaymentRequest request) {
+    if (request.orderId() == null) {
+      return "Payment is not linked to an order";
+    }
+    if (request.amount() == null || request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+      return "Payment amount should be positive";
+    }
+    if (request.paymentMethod() == null) {
+      return "Payment method should be precised";
+    }
+    if (request.customer() == null) {
+      return "Customer should be present";
+    }
+    return null;
   }
 }
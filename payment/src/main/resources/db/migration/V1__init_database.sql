@@ -0,0 +1,77 @@
+create table payment
+(
+    id                 bigint       not null,
+    amount             numeric(38, 2),
+    payment_method     varchar(255),
+    order_id           bigint,
+    created_date       timestamp(6) not null,
+    last_modified_date timestamp(6),
+    primary key (id, created_date)
+) partition by range (created_date);
+
+-- A unique (order_id, created_date) constraint on the partitioned table would still
+-- allow a second payment of an order in another month, so paid orders are keyed
+-- here, in a table that is not partitioned.
+create table if not exists payment_order_key
+(
+    order_id     bigint       not null
+        primary key,
+    created_date timestamp(6) not null
+);
+
+-- Detached partitions end up here in chunks of rows; the jsonb payload is
+-- compressed by TOAST.
+create table if not exists payment_archive
+(
+    id             bigserial primary key,
+    table_name     varchar(63)  not null,
+    partition_name varchar(63)  not null,
+    chunk          integer      not null,
+    row_count      integer      not null,
+    first_id       bigint       not null,
+    last_id        bigint       not null,
+    payload        jsonb        not null,
+    archived_date  timestamp(6) not null default now()
+);
+
+-- The partitions of the next months are created by PartitionMaintenance; these
+-- cover the writes that happen before it first runs.
+do
+$$
+    declare
+        month date;
+    begin
+        for month in select generate_series(date_trunc('month', now()), date_trunc('month', now()) + interval '3 months', interval '1 month')::date
+            loop
+                execute format('create table if not exists %I partition of payment for values from (%L) to (%L)',
+                               'payment_p' || to_char(month, 'YYYY_MM'), month, (month + interval '1 month')::date);
+            end loop;
+    end
+$$;
+
+create table if not exists payment_outbox_event
+(
+    id              bigint       not null
+        primary key,
+    topic           varchar(255) not null,
+    message_key     varchar(255),
+    type            varchar(255) not null,
+    payload         text         not null,
+    created_date    timestamp(6) not null,
+    attempts        integer      not null default 0,
+    last_error      varchar(255),
+    next_attempt_at timestamp(6),
+    parked_date     timestamp(6)
+);
+
+create sequence if not exists payment_outbox_event_seq increment by 50;
+
+-- Snowflake node ids leased to the running instances of each service.
+create table if not exists id_generator_node
+(
+    service_name     varchar(255) not null,
+    node_id          integer      not null,
+    instance_id      varchar(255) not null,
+    lease_expires_at timestamp(6) not null,
+    primary key (service_name, node_id)
+);
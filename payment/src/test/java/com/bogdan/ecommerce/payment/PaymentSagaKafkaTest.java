@@ -0,0 +1,133 @@
+package com.bogdan.ecommerce.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "management.tracing.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:payment;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "application.partitioning.enabled=false",
+        "application.id-generator.node-id=1",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "spring.kafka.consumer.value-deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.kafka.consumer.properties.spring.deserializer.value.delegate.class=org.springframework.kafka.support.serializer.JsonDeserializer",
+        "spring.kafka.consumer.properties.spring.json.trusted.packages=com.bogdan.ecommerce.payment",
+        "spring.kafka.consumer.properties.spring.json.type.mapping=paymentRequested:com.bogdan.ecommerce.payment.PaymentRequest",
+        "application.outbox.poll-interval-ms=50"
+})
+@EmbeddedKafka(
+        partitions = 1,
+        topics = {"payment-request-topic", "payment-result-topic", "payment-topic"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers"
+)
+class PaymentSagaKafkaTest {
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Customer customer = new Customer("1", "john", "doe", "john@mail.com");
+
+    private KafkaTemplate<String, String> producer;
+    private Consumer<String, String> resultConsumer;
+
+    @BeforeEach
+    public void setUp() {
+        var producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put("key.serializer", StringSerializer.class);
+        producerProps.put("value.serializer", StringSerializer.class);
+        producer = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps));
+
+        var consumerProps = KafkaTestUtils.consumerProps("payment-saga-test", "true", broker);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        resultConsumer = new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        broker.consumeFromAnEmbeddedTopic(resultConsumer, "payment-result-topic");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        resultConsumer.close();
+    }
+
+    @Test
+    public void TestPaymentRequests_WithPoisonValidInvalidAndDuplicateRequests_ShouldReplyOncePerOrder() throws Exception {
+        // Arrange
+        var paid = new PaymentRequest(null, BigDecimal.valueOf(100), PaymentMethod.VISA, 1L, "ref-1", customer);
+        var rejected = new PaymentRequest(null, BigDecimal.ZERO, PaymentMethod.VISA, 2L, "ref-2", customer);
+
+        // Act
+        sendPoison();
+        send(paid);
+        send(rejected);
+        send(paid);
+        producer.flush();
+
+        // Assert
+        var results = new ArrayList<PaymentResult>();
+        var deadline = System.currentTimeMillis() + 20_000;
+        while (results.size() < 2 && System.currentTimeMillis() < deadline) {
+            for (var record : KafkaTestUtils.getRecords(resultConsumer, Duration.ofSeconds(1))) {
+                results.add(objectMapper.readValue(record.value(), PaymentResult.class));
+            }
+        }
+        // the duplicate request must not produce a third reply
+        for (var record : KafkaTestUtils.getRecords(resultConsumer, Duration.ofSeconds(2))) {
+            results.add(objectMapper.readValue(record.value(), PaymentResult.class));
+        }
+        Map<Long, PaymentResult> resultsByOrder = results.stream()
+                .collect(Collectors.toMap(PaymentResult::orderId, Function.identity()));
+        assertEquals(2, results.size());
+        assertEquals(PaymentResultStatus.COMPLETED, resultsByOrder.get(1L).status());
+        assertNotNull(resultsByOrder.get(1L).paymentId());
+        assertEquals(PaymentResultStatus.FAILED, resultsByOrder.get(2L).status());
+        assertEquals(List.of(1L), repository.findAll().stream().map(Payment::getOrderId).toList());
+    }
+
+    private void sendPoison() throws Exception {
+        var record = new ProducerRecord<>("payment-request-topic", "poison", "{not json");
+        record.headers().add("__TypeId__", "paymentRequested".getBytes(UTF_8));
+        producer.send(record).get();
+    }
+
+    private void send(PaymentRequest request) throws Exception {
+        var record = new ProducerRecord<>("payment-request-topic", request.orderReference(), objectMapper.writeValueAsString(request));
+        record.headers().add("__TypeId__", "paymentRequested".getBytes(UTF_8));
+        producer.send(record).get();
+    }
+}
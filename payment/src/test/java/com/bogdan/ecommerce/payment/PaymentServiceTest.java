@@ -0,0 +1,96 @@
+package com.bogdan.ecommerce.payment;
+
+import com.bogdan.ecommerce.exception.BusinessException;
+import com.bogdan.ecommerce.notification.NotificationProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceTest {
+
+  @Mock
+  private PaymentRepository repository;
+
+  @Mock
+  private PaymentOrderKeyRepository orderKeyRepository;
+
+  @Mock
+  private NotificationProducer notificationProducer;
+
+  @Mock
+  private PaymentResultProducer resultProducer;
+
+  private PaymentService paymentService;
+
+  private final Customer customer = new Customer("1", "john", "doe", "john@mail.com");
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    paymentService = new PaymentService(repository, orderKeyRepository, new PaymentMapper(), notificationProducer, resultProducer);
+    when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<Payment> payments = invocation.getArgument(0);
+      for (int i = 0; i < payments.size(); i++) {
+        payments.get(i).setId(100L + i);
+      }
+      return payments;
+    });
+  }
+
+  @Test
+  public void TestProcessPayments_WithOrderClaimedByAnotherBatch_ShouldSkipIt() {
+    // Arrange
+    when(orderKeyRepository.findAllById(any())).thenReturn(List.of());
+    when(orderKeyRepository.claim(1L)).thenReturn(1);
+    when(orderKeyRepository.claim(2L)).thenReturn(0);
+
+    // Act
+    paymentService.processPayments(List.of(request(1L), request(2L)));
+
+    // Assert
+    var results = ArgumentCaptor.forClass(PaymentResult.class);
+    verify(resultProducer).sendResult(results.capture());
+    assertEquals(1L, results.getValue().orderId());
+    assertEquals(PaymentResultStatus.COMPLETED, results.getValue().status());
+  }
+
+  @Test
+  public void TestProcessPayments_WithPaidOrder_ShouldNotClaimItAgain() {
+    // Arrange
+    when(orderKeyRepository.findAllById(any())).thenReturn(List.of(new PaymentOrderKey(1L, null)));
+
+    // Act
+    paymentService.processPayments(List.of(request(1L)));
+
+    // Assert
+    verify(orderKeyRepository, never()).claim(any());
+    verify(resultProducer, never()).sendResult(any());
+  }
+
+  @Test
+  public void TestCreatePayment_WithPaidOrder_ShouldThrowBusinessException() {
+    // Arrange
+    when(orderKeyRepository.claim(1L)).thenReturn(0);
+
+    // Act & Assert
+    assertThrows(BusinessException.class, () -> paymentService.createPayment(request(1L)));
+    verify(repository, never()).save(any());
+  }
+
+  private PaymentRequest request(Long orderId) {
+    return new PaymentRequest(null, BigDecimal.TEN, PaymentMethod.PAYPAL, orderId, "ORD-" + orderId, customer);
+  }
+}
@@ -0,0 +1,16 @@
+package com.bogdan.ecommerce.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are Caffeine caches configured through {@code spring.cache.*};
+ * hit/miss metrics are bound by actuator because they are declared in {@code cache-names}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_CATALOG = "product-catalog";
+}
@@ -0,0 +1,28 @@
+package com.bogdan.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class CacheEvictionExecutorConfig {
+
+    /**
+     * Broadcasts cache evictions off the purchase thread, since a send blocks for up to
+     * {@code max.block.ms} while the broker is unreachable. The queue is bounded; a
+     * rejected broadcast leaves other instances to the cache TTL.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheEvictionExecutor(
+            @Value("${application.products.cache-eviction.queue-capacity:10000}") int queueCapacity
+    ) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cache-eviction-");
+        executor.initialize();
+        return executor;
+    }
+}
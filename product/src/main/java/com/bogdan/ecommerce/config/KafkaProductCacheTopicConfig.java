@@ -0,0 +1,19 @@
+package com.bogdan.ecommerce.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaProductCacheTopicConfig {
+
+    public static final String PRODUCT_CACHE_TOPIC = "product-cache-topic";
+
+    @Bean
+    public NewTopic productCacheTopic() {
+        return TopicBuilder
+                .name(PRODUCT_CACHE_TOPIC)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.bogdan.ecommerce.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaProductReleaseTopicConfig {
+
+    public static final String PRODUCT_RELEASE_TOPIC = "product-release-topic";
+
+    @Bean
+    public NewTopic productReleaseTopic() {
+        return TopicBuilder
+                .name(PRODUCT_RELEASE_TOPIC)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.bogdan.ecommerce.handler;
 
+import com.bogdan.ecommerce.deadline.DeadlineExceededException;
 import com.bogdan.ecommerce.exception.ProductPurchaseException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.HashMap;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -22,6 +24,13 @@ public class GlobalExceptionHandler {
                 .body(exp.getMessage());
     }
 
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<String> handle(DeadlineExceededException exp) {
+        return ResponseEntity
+                .status(GATEWAY_TIMEOUT)
+                .body(exp.getMessage());
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<String> handle(EntityNotFoundException exp) {
         return ResponseEntity
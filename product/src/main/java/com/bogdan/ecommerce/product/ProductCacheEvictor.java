@@ -0,0 +1,84 @@
+package com.bogdan.ecommerce.product;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCTS;
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCT_CATALOG;
+import static com.bogdan.ecommerce.config.KafkaProductCacheTopicConfig.PRODUCT_CACHE_TOPIC;
+
+/**
+ * Keeps the product caches of every instance consistent: changes are evicted
+ * locally once committed and broadcast on {@code product-cache-topic}, which each
+ * instance consumes with its own consumer group.
+ * <p>
+ * Only the changed products are evicted; the cached catalog holds product IDs and
+ * is cleared only when products are added. The broadcast is sent from
+ * {@code cacheEvictionExecutor}, so the committing thread never waits on Kafka.
+ */
+@Slf4j
+@Component
+public class ProductCacheEvictor {
+
+    private final CacheManager cacheManager;
+    private final KafkaTemplate<String, ProductsChangedEvent> kafkaTemplate;
+    private final Executor executor;
+
+    public ProductCacheEvictor(
+            CacheManager cacheManager,
+            KafkaTemplate<String, ProductsChangedEvent> kafkaTemplate,
+            @Qualifier("cacheEvictionExecutor") Executor executor
+    ) {
+        this.cacheManager = cacheManager;
+        this.kafkaTemplate = kafkaTemplate;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        evict(event);
+        try {
+            executor.execute(() -> broadcast(event));
+        } catch (RejectedExecutionException e) {
+            log.warn("Cache eviction queue is full, other instances rely on TTL for products {}", event.productIds());
+        }
+    }
+
+    @KafkaListener(
+            topics = PRODUCT_CACHE_TOPIC,
+            groupId = "product-cache-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onRemoteProductsChanged(ProductsChangedEvent event) {
+        evict(event);
+    }
+
+    private void broadcast(ProductsChangedEvent event) {
+        try {
+            kafkaTemplate.send(PRODUCT_CACHE_TOPIC, event).whenComplete((result, error) -> {
+                if (error != null) {
+                    log.warn("Cannot broadcast product cache eviction, other instances rely on TTL: {}", error.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot broadcast product cache eviction, other instances rely on TTL: {}", e.getMessage());
+        }
+    }
+
+    private void evict(ProductsChangedEvent event) {
+        if (event.catalogChanged()) {
+            Optional.ofNullable(cacheManager.getCache(PRODUCT_CATALOG)).ifPresent(Cache::clear);
+        }
+        Optional.ofNullable(cacheManager.getCache(PRODUCTS)).ifPresent(cache -> event.productIds().forEach(cache::evict));
+    }
+}
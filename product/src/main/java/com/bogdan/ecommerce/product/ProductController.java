@@ -1,23 +1,35 @@
 package com.bogdan.ecommerce.product;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     private final ProductService service;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<Integer> createProduct(
@@ -44,4 +56,34 @@ public class ProductController {
     public ResponseEntity<List<ProductResponse>> findAll() {
         return ResponseEntity.ok(service.findAll());
     }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<ProductPage> findPage(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam("size") int size
+    ) {
+        return ResponseEntity.ok(service.findPage(after, size));
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> {
+            var writer = objectMapper.writerFor(ProductResponse.class);
+            var written = new AtomicInteger();
+            service.streamAll(product -> {
+                try {
+                    out.write(writer.writeValueAsBytes(product));
+                    out.write('\n');
+                    if (written.incrementAndGet() % STREAM_FLUSH_INTERVAL == 1) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,9 @@
+package com.bogdan.ecommerce.product;
+
+import java.util.List;
+
+public record ProductPage(
+        List<ProductResponse> content,
+        Integer nextCursor
+) {
+}
@@ -0,0 +1,33 @@
+package com.bogdan.ecommerce.product;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records every release that was applied, so a redelivered release request does
+ * not put the same stock back twice.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Entity
+@Table(name = "product_release")
+public class ProductRelease {
+
+    @Id
+    private String releaseId;
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime releasedDate;
+}
@@ -0,0 +1,28 @@
+package com.bogdan.ecommerce.product;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static com.bogdan.ecommerce.config.KafkaProductReleaseTopicConfig.PRODUCT_RELEASE_TOPIC;
+
+/**
+ * Gives back the stock of abandoned checkouts and failed payments. The order service
+ * publishes these through its outbox, so a release is delivered at least once and
+ * {@link ProductService#releaseProducts(String, java.util.List)} applies it only once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductReleaseConsumer {
+
+    private final ProductService service;
+
+    @KafkaListener(topics = PRODUCT_RELEASE_TOPIC, groupId = "product-release")
+    public void onRelease(ProductReleaseRequest request) {
+        if (!service.releaseProducts(request.releaseId(), request.products())) {
+            log.info("Release {} was already applied", request.releaseId());
+        }
+    }
+}
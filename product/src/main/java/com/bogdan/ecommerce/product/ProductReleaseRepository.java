@@ -0,0 +1,16 @@
+package com.bogdan.ecommerce.product;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductReleaseRepository extends JpaRepository<ProductRelease, String> {
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO product_release (release_id, released_date) VALUES (:releaseId, now()) ON CONFLICT DO NOTHING",
+            nativeQuery = true
+    )
+    int record(@Param("releaseId") String releaseId);
+}
@@ -1,10 +1,45 @@
 package com.bogdan.ecommerce.product;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Read paths that end up in a {@link ProductResponse} fetch the category in the
+ * same statement; {@link #findAllByIdInOrderById} only needs product columns.
+ */
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Integer id);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
+
     List<Product> findAllByIdInOrderById(List<Integer> ids);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdInOrderById(List<Integer> ids);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdGreaterThanOrderById(Integer id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p left join fetch p.category order by p.id")
+    Stream<Product> streamAllOrderById();
 }
@@ -1,72 +1,204 @@
 package com.bogdan.ecommerce.product;
 
+import com.bogdan.ecommerce.deadline.RequestDeadline;
 import com.bogdan.ecommerce.exception.ProductPurchaseException;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCTS;
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCT_CATALOG;
+
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final String CATALOG_KEY = "all";
+
     private final ProductRepository repository;
+    private final ProductStockRepository stockRepository;
+    private final ProductReleaseRepository releaseRepository;
     private final ProductMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+
+    @Value("${application.products.max-page-size:100}")
+    private int maxPageSize;
 
     public Integer createProduct(
             ProductRequest request
     ) {
         var product = mapper.toProduct(request);
-        return repository.save(product).getId();
+        var productId = repository.save(product).getId();
+        eventPublisher.publishEvent(new ProductsChangedEvent(List.of(productId), true));
+        return productId;
     }
 
+    @Cacheable(cacheNames = PRODUCTS, key = "#id")
     public ProductResponse findById(Integer id) {
         return repository.findById(id)
                 .map(mapper::toProductResponse)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with ID:: " + id));
     }
 
+    /**
+     * The catalog cache only holds the product IDs and every product is read through
+     * the per-product cache, so a stock change evicts one entry instead of the whole
+     * catalog. Products missing from the cache are loaded in one statement.
+     */
+    @SuppressWarnings("unchecked")
     public List<ProductResponse> findAll() {
-        return repository.findAll()
+        var catalog = cacheManager.getCache(PRODUCT_CATALOG);
+        var products = cacheManager.getCache(PRODUCTS);
+        List<Integer> productIds = catalog != null ? catalog.get(CATALOG_KEY, List.class) : null;
+        if (productIds == null || products == null) {
+            var all = repository.findAll()
+                    .stream()
+                    .map(mapper::toProductResponse)
+                    .collect(Collectors.toList());
+            if (products != null) {
+                all.forEach(product -> products.put(product.id(), product));
+            }
+            if (catalog != null) {
+                catalog.put(CATALOG_KEY, all.stream().map(ProductResponse::id).toList());
+            }
+            return all;
+        }
+
+        var cached = new HashMap<Integer, ProductResponse>();
+        var missing = new ArrayList<Integer>();
+        for (var id : productIds) {
+            var product = products.get(id, ProductResponse.class);
+            if (product != null) {
+                cached.put(id, product);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            repository.findByIdInOrderById(missing)
+                    .stream()
+                    .map(mapper::toProductResponse)
+                    .forEach(product -> {
+                        products.put(product.id(), product);
+                        cached.put(product.id(), product);
+                    });
+        }
+        var all = new ArrayList<ProductResponse>(cached.size());
+        for (var id : productIds) {
+            var product = cached.get(id);
+            if (product != null) {
+                all.add(product);
+            }
+        }
+        return all;
+    }
+
+    public ProductPage findPage(Integer after, int size) {
+        var pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        var content = repository.findByIdGreaterThanOrderById(
+                        after != null ? after : Integer.MIN_VALUE,
+                        Limit.of(pageSize)
+                )
                 .stream()
                 .map(mapper::toProductResponse)
-                .collect(Collectors.toList());
+                .toList();
+        var nextCursor = content.size() == pageSize ? content.get(content.size() - 1).id() : null;
+        return new ProductPage(content, nextCursor);
+    }
+
+    /**
+     * Hands every product to the consumer straight from a JDBC cursor; each row is
+     * detached once mapped, so memory use does not grow with the size of the catalog.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ProductResponse> consumer) {
+        try (var products = repository.streamAllOrderById()) {
+            products.forEach(product -> {
+                consumer.accept(mapper.toProductResponse(product));
+                entityManager.detach(product);
+            });
+        }
     }
 
     @Transactional(rollbackFor = ProductPurchaseException.class)
     public List<ProductPurchaseResponse> purchaseProducts(
             List<ProductPurchaseRequest> request
     ) {
-        var productIds = request
+        RequestDeadline.check("purchasing products");
+        var sortedRequest = request
+                .stream()
+                .sorted(Comparator.comparing(ProductPurchaseRequest::productId))
+                .toList();
+        var updatedRows = stockRepository.decrementStock(sortedRequest);
+        var productIds = sortedRequest
                 .stream()
                 .map(ProductPurchaseRequest::productId)
+                .distinct()
                 .toList();
         var storedProducts = repository.findAllByIdInOrderById(productIds);
         if (productIds.size() != storedProducts.size()) {
             throw new ProductPurchaseException("One or more products does not exist");
         }
-        var sortedRequest = request
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                throw new ProductPurchaseException("Insufficient stock quantity for product with ID:: " + sortedRequest.get(i).productId());
+            }
+        }
+        eventPublisher.publishEvent(new ProductsChangedEvent(productIds, false));
+        var productsById = storedProducts
                 .stream()
-                .sorted(Comparator.comparing(ProductPurchaseRequest::productId))
-                .toList();
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
         var purchasedProducts = new ArrayList<ProductPurchaseResponse>();
-        for (int i = 0; i < storedProducts.size(); i++) {
-            var product = storedProducts.get(i);
-            var productRequest = sortedRequest.get(i);
-            if (product.getAvailableQuantity() < productRequest.quantity()) {
-                throw new ProductPurchaseException("Insufficient stock quantity for product with ID:: " + productRequest.productId());
-            }
-            var newAvailableQuantity = product.getAvailableQuantity() - productRequest.quantity();
-            product.setAvailableQuantity(newAvailableQuantity);
-            repository.save(product);
+        for (var productRequest : sortedRequest) {
+            var product = productsById.get(productRequest.productId());
             purchasedProducts.add(mapper.toproductPurchaseResponse(product, productRequest.quantity()));
         }
         return purchasedProducts;
     }
 
+    /**
+     * Puts the stock back unless a release with the same ID was already applied;
+     * returns {@code false} for such a duplicate.
+     */
+    @Transactional
+    public boolean releaseProducts(
+            String releaseId,
+            List<ProductPurchaseRequest> request
+    ) {
+        if (releaseRepository.record(releaseId) == 0) {
+            return false;
+        }
+        incrementStock(request);
+        return true;
+    }
+
+    private void incrementStock(List<ProductPurchaseRequest> request) {
+        var sortedRequest = request
+                .stream()
+                .sorted(Comparator.comparing(ProductPurchaseRequest::productId))
+                .toList();
+        stockRepository.incrementStock(sortedRequest);
+        eventPublisher.publishEvent(new ProductsChangedEvent(
+                sortedRequest.stream().map(ProductPurchaseRequest::productId).distinct().toList(),
+                false
+        ));
+    }
+
 }
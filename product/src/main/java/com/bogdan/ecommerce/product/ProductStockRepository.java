@@ -0,0 +1,70 @@
+package com.bogdan.ecommerce.product;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductStockRepository {
+
+    private static final String DECREMENT_STOCK = """
+            UPDATE product
+            SET available_quantity = available_quantity - ?
+            WHERE id = ? AND available_quantity >= ?
+            """;
+
+    private static final String INCREMENT_STOCK = """
+            UPDATE product
+            SET available_quantity = available_quantity + ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves stock for every request line in a single JDBC batch.
+     * A line is only applied when enough stock is left, so the returned
+     * affected-row count is 0 for missing products and insufficient stock.
+     */
+    public int[] decrementStock(List<ProductPurchaseRequest> requests) {
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                var request = requests.get(i);
+                ps.setDouble(1, request.quantity());
+                ps.setInt(2, request.productId());
+                ps.setDouble(3, request.quantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return requests.size();
+            }
+        });
+    }
+
+    /**
+     * Puts previously reserved stock back, e.g. when a checkout is compensated.
+     */
+    public int[] incrementStock(List<ProductPurchaseRequest> requests) {
+        return jdbcTemplate.batchUpdate(INCREMENT_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                var request = requests.get(i);
+                ps.setDouble(1, request.quantity());
+                ps.setInt(2, request.productId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return requests.size();
+            }
+        });
+    }
+}
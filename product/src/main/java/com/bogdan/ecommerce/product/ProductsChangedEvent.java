@@ -0,0 +1,13 @@
+package com.bogdan.ecommerce.product;
+
+import java.util.List;
+
+/**
+ * @param catalogChanged whether products were added or removed, which is the only
+ *                       change that invalidates the cached list of catalog IDs
+ */
+public record ProductsChangedEvent(
+        List<Integer> productIds,
+        boolean catalogChanged
+) {
+}
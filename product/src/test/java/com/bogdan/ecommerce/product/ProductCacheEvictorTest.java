@@ -0,0 +1,110 @@
+package com.bogdan.ecommerce.product;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCTS;
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCT_CATALOG;
+import static com.bogdan.ecommerce.config.KafkaProductCacheTopicConfig.PRODUCT_CACHE_TOPIC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCacheEvictorTest {
+
+    @Mock
+    private KafkaTemplate<String, ProductsChangedEvent> kafkaTemplate;
+
+    private final List<Runnable> broadcasts = new ArrayList<>();
+    private Cache products;
+    private Cache catalog;
+    private ProductCacheEvictor evictor;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        var cacheManager = new ConcurrentMapCacheManager(PRODUCTS, PRODUCT_CATALOG);
+        products = cacheManager.getCache(PRODUCTS);
+        catalog = cacheManager.getCache(PRODUCT_CATALOG);
+        products.put(1, product(1));
+        products.put(2, product(2));
+        catalog.put("all", List.of(1, 2));
+        evictor = new ProductCacheEvictor(cacheManager, kafkaTemplate, broadcasts::add);
+    }
+
+    @Test
+    public void TestOnProductsChanged_WithPurchasedProduct_ShouldEvictEntryLocallyAndBroadcast() {
+        // Arrange
+        ProductsChangedEvent event = new ProductsChangedEvent(List.of(1), false);
+        when(kafkaTemplate.send(PRODUCT_CACHE_TOPIC, event)).thenReturn(new CompletableFuture<>());
+
+        // Act
+        evictor.onProductsChanged(event);
+
+        // Assert
+        assertNull(products.get(1));
+        assertNotNull(products.get(2));
+        assertNotNull(catalog.get("all"));
+        verify(kafkaTemplate, never()).send(PRODUCT_CACHE_TOPIC, event);
+        assertEquals(1, broadcasts.size());
+
+        broadcasts.get(0).run();
+        verify(kafkaTemplate).send(PRODUCT_CACHE_TOPIC, event);
+    }
+
+    @Test
+    public void TestOnRemoteProductsChanged_WithPurchasedProduct_ShouldEvictOnlyThatEntry() {
+        // Act
+        evictor.onRemoteProductsChanged(new ProductsChangedEvent(List.of(2), false));
+
+        // Assert
+        assertNotNull(products.get(1));
+        assertNull(products.get(2));
+        assertNotNull(catalog.get("all"));
+    }
+
+    @Test
+    public void TestOnProductsChanged_WithCreatedProduct_ShouldClearCatalog() {
+        // Arrange
+        ProductsChangedEvent event = new ProductsChangedEvent(List.of(3), true);
+
+        // Act
+        evictor.onProductsChanged(event);
+
+        // Assert
+        assertNull(catalog.get("all"));
+        assertNotNull(products.get(1));
+    }
+
+    @Test
+    public void TestOnProductsChanged_WithUnreachableBroker_ShouldStillEvictLocally() {
+        // Arrange
+        ProductsChangedEvent event = new ProductsChangedEvent(List.of(1), false);
+        when(kafkaTemplate.send(PRODUCT_CACHE_TOPIC, event)).thenThrow(new IllegalStateException("broker down"));
+
+        // Act
+        evictor.onProductsChanged(event);
+        broadcasts.forEach(Runnable::run);
+
+        // Assert
+        assertNull(products.get(1));
+        assertEquals(1, broadcasts.size());
+    }
+
+    private static ProductResponse product(int id) {
+        return new ProductResponse(id, "meat", "angus", 4, BigDecimal.valueOf(1000), 1, "sweet", "all candy you want");
+    }
+}
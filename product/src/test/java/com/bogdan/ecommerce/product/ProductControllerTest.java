@@ -106,4 +106,22 @@ class ProductControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(productResponses)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void TestFindPage_WithSizeParameter_ShouldReturnProductPage() throws Exception {
+        // Arrange
+        ProductResponse productResponse = new ProductResponse(
+                3, "meat", "angus", 4, BigDecimal.valueOf(1000), 1, "sweet", "all candy you want"
+        );
+        ProductPage productPage = new ProductPage(List.of(productResponse), 3);
+
+        when(productService.findPage(2, 1)).thenReturn(productPage);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products")
+                        .param("after", "2")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(productPage)));
+    }
+}
@@ -0,0 +1,104 @@
+package com.bogdan.ecommerce.product;
+
+import com.bogdan.ecommerce.category.Category;
+import com.bogdan.ecommerce.config.CacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ProductService.class, ProductStockRepository.class, ProductMapper.class, CacheConfig.class})
+class ProductQueryCountTest {
+
+    private static final int PRODUCTS = 1000;
+    private static final int CATEGORIES = 5;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            categories.add(entityManager.persist(Category.builder()
+                    .name("category " + i)
+                    .description("description " + i)
+                    .build()));
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            entityManager.persist(Product.builder()
+                    .name("product " + i)
+                    .description("description " + i)
+                    .availableQuantity(10)
+                    .price(BigDecimal.TEN)
+                    .category(categories.get(i % CATEGORIES))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void TestFindAll_WithThousandProducts_ShouldUseSingleStatement() {
+        // Act
+        List<ProductResponse> result = productService.findAll();
+
+        // Assert
+        assertEquals(PRODUCTS, result.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void TestStreamAll_WithThousandProducts_ShouldUseSingleStatement() {
+        // Arrange
+        List<ProductResponse> result = new ArrayList<>();
+
+        // Act
+        productService.streamAll(result::add);
+
+        // Assert
+        assertEquals(PRODUCTS, result.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void TestFindPage_WithCategoryColumns_ShouldUseSingleStatement() {
+        // Act
+        ProductPage result = productService.findPage(null, 100);
+
+        // Assert
+        assertEquals(100, result.content().size());
+        assertEquals("category 0", result.content().get(0).categoryName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
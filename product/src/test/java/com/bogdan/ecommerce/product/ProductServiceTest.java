@@ -1,5 +1,7 @@
 package com.bogdan.ecommerce.product;
 
+import com.bogdan.ecommerce.deadline.DeadlineExceededException;
+import com.bogdan.ecommerce.deadline.RequestDeadline;
 import com.bogdan.ecommerce.exception.ProductPurchaseException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,12 +9,26 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
 
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCTS;
+import static com.bogdan.ecommerce.config.CacheConfig.PRODUCT_CATALOG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class ProductServiceTest {
@@ -20,15 +36,28 @@ class ProductServiceTest {
     @Mock
     private ProductRepository repository;
 
+    @Mock
+    private ProductStockRepository stockRepository;
+
+    @Mock
+    private ProductReleaseRepository releaseRepository;
+
     @Mock
     private ProductMapper mapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private ProductService productService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 2);
     }
 
     @Test
@@ -51,6 +80,7 @@ class ProductServiceTest {
 
         // Assert
         assertEquals(1, productId);
+        verify(eventPublisher).publishEvent(new ProductsChangedEvent(List.of(1), true));
     }
 
     @Test
@@ -126,6 +156,77 @@ class ProductServiceTest {
         assertEquals(productResponses, result);
     }
 
+    @Test
+    public void TestFindAll_WithCachedCatalog_ShouldOnlyLoadEvictedProducts() {
+        // Arrange
+        ProductResponse productResponse1 = new ProductResponse(
+                1, "meat", "angus", 4, BigDecimal.valueOf(1000), 1, "sweet", "all candy you want"
+        );
+        ProductResponse productResponse2 = new ProductResponse(
+                2, "cheese", "cheddar", 5, BigDecimal.valueOf(500), 1, "sweet", "all candy you want"
+        );
+        Product product2 = Product.builder().id(2).name("cheese").build();
+        ConcurrentMapCache catalog = new ConcurrentMapCache(PRODUCT_CATALOG);
+        ConcurrentMapCache products = new ConcurrentMapCache(PRODUCTS);
+        catalog.put("all", List.of(1, 2));
+        products.put(1, productResponse1);
+
+        when(cacheManager.getCache(PRODUCT_CATALOG)).thenReturn(catalog);
+        when(cacheManager.getCache(PRODUCTS)).thenReturn(products);
+        when(repository.findByIdInOrderById(List.of(2))).thenReturn(List.of(product2));
+        when(mapper.toProductResponse(product2)).thenReturn(productResponse2);
+
+        // Act
+        List<ProductResponse> result = productService.findAll();
+
+        // Assert
+        assertEquals(List.of(productResponse1, productResponse2), result);
+        assertEquals(productResponse2, products.get(2, ProductResponse.class));
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    public void TestFindPage_WithOversizedPage_ShouldCapSizeAndReturnNextCursor() {
+        // Arrange
+        Product product1 = Product.builder().id(3).name("meat").build();
+        Product product2 = Product.builder().id(4).name("cheese").build();
+        ProductResponse productResponse1 = new ProductResponse(
+                3, "meat", "angus", 4, BigDecimal.valueOf(1000), 1, "sweet", "all candy you want"
+        );
+        ProductResponse productResponse2 = new ProductResponse(
+                4, "cheese", "cheddar", 5, BigDecimal.valueOf(500), 1, "sweet", "all candy you want"
+        );
+
+        when(repository.findByIdGreaterThanOrderById(2, Limit.of(2))).thenReturn(List.of(product1, product2));
+        when(mapper.toProductResponse(product1)).thenReturn(productResponse1);
+        when(mapper.toProductResponse(product2)).thenReturn(productResponse2);
+
+        // Act
+        ProductPage result = productService.findPage(2, 50);
+
+        // Assert
+        assertEquals(List.of(productResponse1, productResponse2), result.content());
+        assertEquals(4, result.nextCursor());
+    }
+
+    @Test
+    public void TestFindPage_WithLastPage_ShouldReturnNoCursor() {
+        // Arrange
+        Product product = Product.builder().id(5).name("meat").build();
+        ProductResponse productResponse = new ProductResponse(
+                5, "meat", "angus", 4, BigDecimal.valueOf(1000), 1, "sweet", "all candy you want"
+        );
+
+        when(repository.findByIdGreaterThanOrderById(4, Limit.of(2))).thenReturn(List.of(product));
+        when(mapper.toProductResponse(product)).thenReturn(productResponse);
+
+        // Act
+        ProductPage result = productService.findPage(4, 2);
+
+        // Assert
+        assertEquals(List.of(productResponse), result.content());
+        assertNull(result.nextCursor());
+    }
 
     @Test
     public void TestPurchaseProducts_WithValidRequest_ShouldReturnListOfProductPurchaseResponses() {
@@ -154,6 +255,7 @@ class ProductServiceTest {
         ProductPurchaseResponse response2 = new ProductPurchaseResponse(2, "cheese", "cheddar", BigDecimal.valueOf(500), 3);
         List<ProductPurchaseResponse> expectedResponses = List.of(response1, response2);
 
+        when(stockRepository.decrementStock(List.of(request1, request2))).thenReturn(new int[]{1, 1});
         when(repository.findAllByIdInOrderById(List.of(1, 2))).thenReturn(products);
         when(mapper.toproductPurchaseResponse(product1, 2)).thenReturn(response1);
         when(mapper.toproductPurchaseResponse(product2, 3)).thenReturn(response2);
@@ -163,8 +265,8 @@ class ProductServiceTest {
 
         // Assert
         assertEquals(expectedResponses, result);
-        assertEquals(2, product1.getAvailableQuantity());
-        assertEquals(2, product2.getAvailableQuantity());
+        verify(repository, never()).save(any(Product.class));
+        verify(eventPublisher).publishEvent(new ProductsChangedEvent(List.of(1, 2), false));
     }
 
     @Test
@@ -182,6 +284,7 @@ class ProductServiceTest {
         ProductPurchaseRequest request1 = new ProductPurchaseRequest(1, 2);
         List<ProductPurchaseRequest> requests = List.of(request1);
 
+        when(stockRepository.decrementStock(requests)).thenReturn(new int[]{0});
         when(repository.findAllByIdInOrderById(List.of(1))).thenReturn(products);
 
         // Act & Assert
@@ -193,10 +296,58 @@ class ProductServiceTest {
         // Arrange
         List<ProductPurchaseRequest> requests = List.of(new ProductPurchaseRequest(1, 2));
 
+        when(stockRepository.decrementStock(requests)).thenReturn(new int[]{0});
         when(repository.findAllByIdInOrderById(List.of(1))).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(ProductPurchaseException.class, () -> productService.purchaseProducts(requests));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void TestPurchaseProducts_WithExpiredDeadline_ShouldNotTouchTheStock() {
+        // Arrange
+        List<ProductPurchaseRequest> requests = List.of(new ProductPurchaseRequest(1, 2));
+        RequestDeadline.start(0);
+
+        // Act & Assert
+        try {
+            assertThrows(DeadlineExceededException.class, () -> productService.purchaseProducts(requests));
+        } finally {
+            RequestDeadline.clear();
+        }
+        verifyNoInteractions(stockRepository, repository);
+    }
+
+    @Test
+    public void TestReleaseProducts_WithNewReleaseId_ShouldIncrementStock() {
+        // Arrange
+        List<ProductPurchaseRequest> requests = List.of(
+                new ProductPurchaseRequest(2, 1),
+                new ProductPurchaseRequest(1, 3)
+        );
+        when(releaseRepository.record("order-7")).thenReturn(1);
+
+        // Act
+        boolean released = productService.releaseProducts("order-7", requests);
+
+        // Assert
+        assertTrue(released);
+        verify(stockRepository).incrementStock(List.of(requests.get(1), requests.get(0)));
+        verify(eventPublisher).publishEvent(new ProductsChangedEvent(List.of(1, 2), false));
+    }
+
+    @Test
+    public void TestReleaseProducts_WithAlreadyAppliedReleaseId_ShouldNotIncrementStockAgain() {
+        // Arrange
+        List<ProductPurchaseRequest> requests = List.of(new ProductPurchaseRequest(1, 3));
+        when(releaseRepository.record("order-7")).thenReturn(0);
+
+        // Act
+        boolean released = productService.releaseProducts("order-7", requests);
+
+        // Assert
+        assertFalse(released);
+        verifyNoInteractions(stockRepository, eventPublisher);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.bogdan.ecommerce.product;
+
+import com.bogdan.ecommerce.config.CacheConfig;
+import com.bogdan.ecommerce.exception.ProductPurchaseException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:stock;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductService.class, ProductStockRepository.class, ProductMapper.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockConcurrencyTest {
+
+    private static final int STOCK = 50;
+    private static final int BUYERS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Test
+    public void TestPurchaseProducts_WithConcurrentBuyers_ShouldNeverOversell() throws Exception {
+        // Arrange
+        Product product = repository.save(Product.builder()
+                .name("meat")
+                .description("angus")
+                .availableQuantity(STOCK)
+                .price(BigDecimal.valueOf(1000))
+                .build());
+        List<ProductPurchaseRequest> request = List.of(new ProductPurchaseRequest(product.getId(), 1));
+        AtomicInteger purchased = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Void>> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(() -> {
+                start.await();
+                try {
+                    productService.purchaseProducts(request);
+                    purchased.incrementAndGet();
+                } catch (ProductPurchaseException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        // Act
+        var futures = buyers.stream().map(executor::submit).toList();
+        start.countDown();
+        for (var future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(STOCK, purchased.get());
+        assertEquals(BUYERS - STOCK, rejected.get());
+        assertEquals(0, repository.findById(product.getId()).orElseThrow().getAvailableQuantity());
+    }
+}